@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.simbachain.SimbaException;
+import com.simbachain.wallet.Account;
+import com.simbachain.wallet.Wallet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.utils.Numeric;
+
+/**
+ * Signing batches of {@value #BATCH} transactions on the common fork join pool, with and
+ * without precomputed signing: all with one key through Wallet.signAll, and each with a
+ * different key. Scores are per transaction.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class BatchSigningBenchmark {
+
+    private static final int BATCH = 64;
+    private static final long CHAIN_ID = 80001;
+
+    @Param ({"false", "true"})
+    private boolean precomputed;
+
+    private Wallet wallet;
+    private List<Wallet> wallets;
+    private List<RawTransaction> txns;
+
+    @Setup
+    public void setup() throws Exception {
+        wallet = new Account("22aabb811efca4e6f4748bd18a46b502fa85549df9fa07da649c0a148d7d5530");
+        wallet.setPrecomputedSigning(precomputed);
+        wallets = new ArrayList<>();
+        txns = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            Wallet key = new Account(Numeric.toHexStringNoPrefixZeroPadded(
+                Keys.createEcKeyPair()
+                    .getPrivateKey(), 64));
+            key.setPrecomputedSigning(precomputed);
+            wallets.add(key);
+            txns.add(RawTransaction.createTransaction(CHAIN_ID, BigInteger.valueOf(i),
+                BigInteger.valueOf(3000000), "0x7a3f1b4c26d1c2bd1ab9d2e1e4b3f0a8c1d2e3f4",
+                BigInteger.ZERO, "0x8b2a0d2a", BigInteger.valueOf(1500000000L),
+                BigInteger.valueOf(30000000000L)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation (BATCH)
+    public List<String> singleKey() throws SimbaException {
+        return wallet.signAll(txns, CHAIN_ID);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation (BATCH)
+    public List<String> multiKey() throws InterruptedException, ExecutionException {
+        return ForkJoinPool.commonPool()
+                           .submit(() -> {
+                               List<Integer> indexes = new ArrayList<>();
+                               for (int i = 0; i < BATCH; i++) {
+                                   indexes.add(i);
+                               }
+                               return indexes.parallelStream()
+                                             .map(i -> sign(wallets.get(i), txns.get(i)))
+                                             .collect(Collectors.toList());
+                           })
+                           .get();
+    }
+
+    private static String sign(Wallet wallet, RawTransaction txn) {
+        try {
+            return wallet.sign(txn, CHAIN_ID);
+        } catch (SimbaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
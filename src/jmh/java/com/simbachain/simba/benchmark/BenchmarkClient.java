@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.simbachain.SimbaException;
+import com.simbachain.simba.JsonData;
+import com.simbachain.simba.Metadata;
+import com.simbachain.simba.Query;
+import com.simbachain.simba.SimbaClient;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.ResponseHandler;
+
+/**
+ * Exposes protected SimbaClient internals to benchmarks. No HTTP requests are made.
+ */
+public class BenchmarkClient extends SimbaClient {
+
+    public BenchmarkClient() {
+        super("https://localhost/");
+    }
+
+    @Override
+    protected Map<String, String> getApiHeaders() {
+        return new HashMap<>();
+    }
+
+    public <C> ResponseHandler<C> handler(TypeReference<C> tf) {
+        return jsonResponseHandler(tf);
+    }
+
+    public <C> ResponseHandler<C> handler(Class<C> cls) {
+        return jsonResponseHandler(cls);
+    }
+
+    public HttpEntity entity(Map<String, Object> data, UploadFile... files)
+        throws SimbaException {
+        return createEntity(data, files);
+    }
+
+    public void validate(Metadata metadata, String method, JsonData parameters, boolean files)
+        throws SimbaException {
+        validateParameters(metadata, method, parameters, files);
+    }
+
+    public void validate(Metadata metadata, String method, Query.Params parameters)
+        throws SimbaException {
+        validateQueryParameters(metadata, method, parameters);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.Signing;
+import com.simbachain.wallet.FileWallet;
+import com.simbachain.wallet.KdfParams;
+import com.simbachain.wallet.Wallet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
+
+/**
+ * Many threads signing with one wallet. Compare the scores of the threadsN benchmarks to see
+ * how throughput scales with threads: for a FileWallet, and for a wallet that takes a lock to
+ * read its credentials, as FileWallet once did.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class ConcurrentSigningBenchmark {
+
+    @Param ({"file", "locked"})
+    private String wallet;
+
+    private File root;
+    private FileWallet fileWallet;
+    private Wallet signer;
+    private RawTransaction txn;
+
+    @Setup (Level.Trial)
+    public void setup() throws IOException, SimbaException {
+        root = Files.createTempDirectory("signing-benchmark")
+                    .toFile();
+        fileWallet = new FileWallet(root.getPath(), "signer");
+        fileWallet.setKdfParams(KdfParams.LIGHT);
+        fileWallet.generateWallet("benchmark");
+        fileWallet.loadWallet("benchmark");
+        signer = "locked".equals(wallet) ? new LockedWallet(fileWallet.getCredentials())
+                                         : fileWallet;
+        Map<String, Object> raw = new HashMap<>();
+        raw.put("chainId", 80001);
+        raw.put("nonce", 76);
+        raw.put("gas", "0x2dc6c0");
+        raw.put("value", 0);
+        raw.put("to", "0x7a3f1b4c26d1c2bd1ab9d2e1e4b3f0a8c1d2e3f4");
+        raw.put("data", "0x8b2a0d2a");
+        raw.put("maxPriorityFeePerGas", "0x59682f00");
+        raw.put("maxFeePerGas", "0x6fc23ac00");
+        txn = Signing.createSigningTransaction(raw);
+    }
+
+    @TearDown (Level.Trial)
+    public void tearDown() throws SimbaException {
+        fileWallet.deleteWallet();
+        root.delete();
+    }
+
+    @Benchmark
+    @Threads (1)
+    public String threads1() throws SimbaException {
+        return signer.sign(txn, 80001);
+    }
+
+    @Benchmark
+    @Threads (2)
+    public String threads2() throws SimbaException {
+        return signer.sign(txn, 80001);
+    }
+
+    @Benchmark
+    @Threads (4)
+    public String threads4() throws SimbaException {
+        return signer.sign(txn, 80001);
+    }
+
+    @Benchmark
+    @Threads (8)
+    public String threads8() throws SimbaException {
+        return signer.sign(txn, 80001);
+    }
+
+    private static class LockedWallet extends Wallet {
+        private final Credentials credentials;
+
+        private LockedWallet(Credentials credentials) {
+            this.credentials = credentials;
+        }
+
+        @Override
+        protected synchronized Credentials getCredentials() {
+            return credentials;
+        }
+    }
+}
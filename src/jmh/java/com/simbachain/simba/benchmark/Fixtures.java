@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simbachain.simba.Mappers;
+import com.simbachain.simba.Metadata;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+
+/**
+ * Payloads for benchmarks, built from the test fixtures in types.json.
+ */
+public class Fixtures {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private Fixtures() {
+    }
+
+    public static Map<String, Object> loadTypes() {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/types.json")) {
+            return mapper.readValue(in, new TypeReference<Map<String, Object>>() {
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Load the SupplyChain contract metadata from supplychain.json.
+     *
+     * @return the metadata.
+     */
+    public static Metadata metadata() {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/supplychain.json")) {
+            return Mappers.reader(Mappers.METADATA)
+                          .readValue(in);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @SuppressWarnings ("unchecked")
+    public static Map<String, Object> type(String name) {
+        return (Map<String, Object>) loadTypes().get(name);
+    }
+
+    /**
+     * Create a JSON page of results where each result is a copy of a types.json
+     * entry with a unique id.
+     *
+     * @param name  the types.json entry.
+     * @param count the number of results.
+     * @return the page as UTF-8 JSON bytes.
+     */
+    public static byte[] page(String name, int count) {
+        Map<String, Object> template = type(name);
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> item = new HashMap<>(template);
+            item.put("id", String.format("3fa85f64-5717-4562-b3fc-%012d", i));
+            results.add(item);
+        }
+        Map<String, Object> page = new HashMap<>();
+        page.put("count", count);
+        page.put("next", "https://localhost/v2/apps/app/transactions/?offset=" + count);
+        page.put("previous", null);
+        page.put("results", results);
+        try {
+            return mapper.writeValueAsBytes(page);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static byte[] object(String name) {
+        try {
+            return mapper.writeValueAsBytes(type(name));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Wrap a body in a 200 JSON response.
+     *
+     * @param body the body.
+     * @return an HTTP response.
+     */
+    public static HttpResponse response(byte[] body) {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(new ByteArrayEntity(body, ContentType.APPLICATION_JSON));
+        return response;
+    }
+}
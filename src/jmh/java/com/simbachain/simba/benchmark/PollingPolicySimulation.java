@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.simbachain.simba.AdaptivePollingPolicy;
+import com.simbachain.simba.PollingPolicy;
+import com.simbachain.simba.Transaction;
+
+/**
+ * Simulates waiting for transactions to complete and compares the fixed one second policy
+ * with AdaptivePollingPolicy on chains with different block times.
+ * <p>
+ * Each simulated transaction spends an exponentially distributed time being validated and
+ * signed (RECEIVED), then waits for the next block and the required confirmations
+ * (SUBMITTED) before it is COMPLETED. Polls are replayed on a virtual clock, tracking state
+ * age and attempts as TransactionTracker does, and the simulation reports polls per
+ * transaction and the delay between completion and a poll seeing it.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.simbachain.simba.benchmark.PollingPolicySimulation
+ * </pre>
+ */
+public class PollingPolicySimulation {
+
+    private static final int TRANSACTIONS = 10000;
+    private static final long MEAN_PRE_SUBMIT = 2000;
+
+    private static class Result {
+        private final double polls;
+        private final double meanLatency;
+        private final long p95Latency;
+
+        private Result(double polls, double meanLatency, long p95Latency) {
+            this.polls = polls;
+            this.meanLatency = meanLatency;
+            this.p95Latency = p95Latency;
+        }
+    }
+
+    public static void main(String[] args) {
+        long[][] chains = {{1000, 1}, {2000, 1}, {12000, 1}, {12000, 3}, {60000, 3}};
+        System.out.printf("%-10s %-9s %-10s %12s %16s %14s%n", "blockTime", "confirms",
+            "policy", "polls/txn", "mean latency ms", "p95 latency ms");
+        for (long[] chain : chains) {
+            long blockTime = chain[0];
+            int confirms = (int) chain[1];
+            PollingPolicy fixed = PollingPolicy.fixed(1000);
+            PollingPolicy adaptive = new AdaptivePollingPolicy(blockTime, confirms);
+            print(blockTime, confirms, "fixed", simulate(fixed, blockTime, confirms));
+            print(blockTime, confirms, "adaptive", simulate(adaptive, blockTime, confirms));
+        }
+    }
+
+    private static void print(long blockTime, int confirms, String name, Result result) {
+        System.out.printf("%-10d %-9d %-10s %12.2f %16.1f %14d%n", blockTime, confirms, name,
+            result.polls, result.meanLatency, result.p95Latency);
+    }
+
+    private static Result simulate(PollingPolicy policy, long blockTime, int confirms) {
+        // same seed for every policy so they see the same transactions
+        Random random = new Random(42);
+        long totalPolls = 0;
+        long[] latencies = new long[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            long submitted = (long) (-Math.log(1 - random.nextDouble()) * MEAN_PRE_SUBMIT);
+            long nextBlock = (long) (random.nextDouble() * blockTime);
+            long completed = submitted + nextBlock + (confirms - 1) * blockTime;
+
+            long now = 0;
+            Transaction.State last = null;
+            long stateSince = 0;
+            int attempt = 0;
+            while (true) {
+                totalPolls++;
+                Transaction.State state = now < submitted ? Transaction.State.RECEIVED
+                                                          : now < completed
+                                                            ? Transaction.State.SUBMITTED
+                                                            : Transaction.State.COMPLETED;
+                if (state == Transaction.State.COMPLETED) {
+                    latencies[i] = now - completed;
+                    break;
+                }
+                if (state != last) {
+                    last = state;
+                    stateSince = now;
+                    attempt = 0;
+                } else {
+                    attempt++;
+                }
+                now += policy.nextDelay(state, now - stateSince, attempt);
+            }
+        }
+        Arrays.sort(latencies);
+        double mean = Arrays.stream(latencies)
+                            .average()
+                            .orElse(0);
+        return new Result((double) totalPolls / TRANSACTIONS, mean,
+            latencies[(int) (TRANSACTIONS * 0.95)]);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.JsonData;
+import com.simbachain.simba.Query;
+import com.simbachain.simba.SimbaClient;
+import com.simbachain.simba.Urls;
+import org.apache.http.HttpEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Building a contract method request: the JsonData payload, the request entity and the URL.
+ * The entity benchmarks write the entity out, as the HTTP client does, so the cost of
+ * serializing the multipart body is included.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class RequestBenchmark {
+
+    private static final String ENDPOINT = "https://localhost/v2/";
+
+    private BenchmarkClient client;
+    private Map<String, Object> payload;
+    private byte[] file;
+    private Query.Params query;
+
+    @Setup
+    public void setup() {
+        client = new BenchmarkClient();
+        payload = supply().asMap();
+        file = new byte[16 * 1024];
+        query = query();
+    }
+
+    private static JsonData supply() {
+        return JsonData.with("price", 120)
+                       .and("dateTime", 1660736990310L)
+                       .and("supplier", JsonData.with("__Supplier", "Supplier3.33"))
+                       .and("purchaser", JsonData.with("__Supplier", "Supplier2.12"))
+                       .and("part", JsonData.with("__Part", "Part542"));
+    }
+
+    private static Query.Params query() {
+        return Query.empty()
+                    .ex("method", "supply")
+                    .gte("price", 100)
+                    .icontains("supplier.__Supplier", "Supplier3")
+                    .in("state", "COMPLETED", "FAILED");
+    }
+
+    @Benchmark
+    public Map<String, Object> jsonData() {
+        return supply().asMap();
+    }
+
+    @Benchmark
+    public void jsonEntity(Blackhole bh) throws SimbaException, IOException {
+        HttpEntity entity = client.entity(payload);
+        entity.writeTo(new BlackholeOutputStream(bh));
+    }
+
+    @Benchmark
+    public void multipartEntity(Blackhole bh) throws SimbaException, IOException {
+        HttpEntity entity = client.entity(payload,
+            new SimbaClient.UploadFile("data.bin", "application/octet-stream", file),
+            new SimbaClient.UploadFile("notes.txt", "text/plain",
+                "supplier notes".getBytes(StandardCharsets.UTF_8)));
+        entity.writeTo(new BlackholeOutputStream(bh));
+    }
+
+    @Benchmark
+    public String url() {
+        return Urls.url(ENDPOINT, Urls.PathName.CONTRACT_METHOD, "supply-app", "SupplyChain",
+            "supply");
+    }
+
+    @Benchmark
+    public String queryUrl() {
+        return Urls.url(ENDPOINT, Urls.PathName.CONTRACT_METHOD, query,
+            Urls.Paging.paging(0, 100), "supply-app", "SupplyChain", "supply");
+    }
+
+    @Benchmark
+    public String toJsonApiString() {
+        return query.toJsonApiString();
+    }
+
+    /**
+     * Discards written bytes without letting the JIT remove the write.
+     */
+    private static class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole bh;
+
+        private BlackholeOutputStream(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(int b) {
+            bh.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bh.consume(b);
+            bh.consume(len);
+        }
+    }
+}
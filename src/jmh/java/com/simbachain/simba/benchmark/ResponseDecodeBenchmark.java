@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simbachain.simba.PagedResult;
+import com.simbachain.simba.Transaction;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares decoding a page of transactions by buffering the body to a String, as the
+ * response handlers used to, with decoding straight from the entity stream.
+ * Run with -prof gc to see the allocation per operation.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MICROSECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class ResponseDecodeBenchmark {
+
+    private static final TypeReference<PagedResult<Transaction>> PAGE_TYPE
+        = new TypeReference<PagedResult<Transaction>>() {
+    };
+
+    @Param ({"10", "100", "1000"})
+    private int pageSize;
+
+    private byte[] page;
+    private ObjectMapper mapper;
+    private ResponseHandler<PagedResult<Transaction>> streaming;
+
+    @Setup
+    public void setup() {
+        page = Fixtures.page("transaction", pageSize);
+        mapper = new ObjectMapper();
+        streaming = new BenchmarkClient().handler(PAGE_TYPE);
+    }
+
+    @Benchmark
+    public PagedResult<Transaction> buffered() throws IOException {
+        String body = EntityUtils.toString(Fixtures.response(page)
+                                                   .getEntity());
+        return mapper.readValue(body, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public PagedResult<Transaction> streaming() throws IOException {
+        return streaming.handleResponse(Fixtures.response(page));
+    }
+}
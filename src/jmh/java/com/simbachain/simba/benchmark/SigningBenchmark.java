@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.Signing;
+import com.simbachain.wallet.Account;
+import com.simbachain.wallet.Wallet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.crypto.RawTransaction;
+
+/**
+ * Client side signing of the raw transactions returned by Blocks, for legacy and EIP 1559
+ * transactions.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class SigningBenchmark {
+
+    private static final String PRIVATE_KEY
+        = "22aabb811efca4e6f4748bd18a46b502fa85549df9fa07da649c0a148d7d5530";
+
+    private Wallet wallet;
+    private Map<String, Object> legacy;
+    private Map<String, Object> eip1559;
+
+    @Setup
+    public void setup() {
+        wallet = new Account(PRIVATE_KEY);
+        legacy = raw();
+        legacy.put("gasPrice", "0x3b9aca00");
+        eip1559 = raw();
+        eip1559.put("maxPriorityFeePerGas", "0x59682f00");
+        eip1559.put("maxFeePerGas", "0x6fc23ac00");
+    }
+
+    private static Map<String, Object> raw() {
+        Map<String, Object> raw = new HashMap<>();
+        raw.put("chainId", 80001);
+        raw.put("nonce", 76);
+        raw.put("gas", "0x2dc6c0");
+        raw.put("value", 0);
+        raw.put("to", "0x7a3f1b4c26d1c2bd1ab9d2e1e4b3f0a8c1d2e3f4");
+        raw.put("data", "0x8b2a0d2a00000000000000000000000000000000000000000000000000000000"
+            + "0000007800000000000000000000000000000000000000000000000000000182a8d1e0a6");
+        return raw;
+    }
+
+    @Benchmark
+    public RawTransaction createSigningTransaction() {
+        return Signing.createSigningTransaction(eip1559);
+    }
+
+    @Benchmark
+    public String signLegacy() throws SimbaException {
+        return wallet.sign(Signing.createSigningTransaction(legacy));
+    }
+
+    @Benchmark
+    public String signEip1559() throws SimbaException {
+        RawTransaction txn = Signing.createSigningTransaction(eip1559);
+        return wallet.sign(txn, 80001);
+    }
+}
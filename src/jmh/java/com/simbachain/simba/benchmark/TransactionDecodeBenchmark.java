@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.simba.Mappers;
+import com.simbachain.simba.PagedResult;
+import com.simbachain.simba.Transaction;
+import org.apache.http.client.ResponseHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding transaction responses through the client response handlers, using the
+ * transaction fixture from types.json. See ResponseDecodeBenchmark for large pages.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class TransactionDecodeBenchmark {
+
+    private byte[] transaction;
+    private byte[] page;
+    private ResponseHandler<Transaction> transactionHandler;
+    private ResponseHandler<PagedResult<Transaction>> pageHandler;
+
+    @Setup
+    public void setup() {
+        transaction = Fixtures.object("transaction");
+        page = Fixtures.page("transaction", 10);
+        BenchmarkClient client = new BenchmarkClient();
+        transactionHandler = client.handler(Mappers.TRANSACTION);
+        pageHandler = client.handler(Mappers.TRANSACTION_PAGE);
+    }
+
+    @Benchmark
+    public Transaction transaction() throws IOException {
+        return transactionHandler.handleResponse(Fixtures.response(transaction));
+    }
+
+    @Benchmark
+    public PagedResult<Transaction> transactionPage() throws IOException {
+        return pageHandler.handleResponse(Fixtures.response(page));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.JsonData;
+import com.simbachain.simba.Metadata;
+import com.simbachain.simba.Method;
+import com.simbachain.simba.MethodValidator;
+import com.simbachain.simba.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation of method and query parameters against the SupplyChain metadata, run before
+ * every contract call and query. parameterMap repeats the validation as it was done before
+ * validators were compiled, building the method's parameter map for each key.
+ * Run with -prof gc to check that the compiled validators do not allocate.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class ValidationBenchmark {
+
+    private BenchmarkClient client;
+    private Metadata metadata;
+    private JsonData parameters;
+    private Query.Params query;
+    private MethodValidator validator;
+
+    @Setup
+    public void setup() {
+        client = new BenchmarkClient();
+        metadata = Fixtures.metadata();
+        parameters = JsonData.with("price", 120)
+                             .and("dateTime", 1660736990310L)
+                             .and("supplier", JsonData.with("__Supplier", "Supplier3.33"))
+                             .and("purchaser", JsonData.with("__Supplier", "Supplier2.12"))
+                             .and("part", JsonData.with("__Part", "Part542"));
+        query = Query.empty()
+                     .gte("inputs.price", 100)
+                     .ex("inputs.supplier.__Supplier", "Supplier3.33")
+                     .ex("inputs.part.__Part", "Part542");
+        validator = metadata.getValidator("supply");
+    }
+
+    @Benchmark
+    public void validateParameters() throws SimbaException {
+        client.validate(metadata, "supply", parameters, false);
+    }
+
+    @Benchmark
+    public void validateQueryParameters() throws SimbaException {
+        client.validate(metadata, "supply", query);
+    }
+
+    @Benchmark
+    public void validator() throws SimbaException {
+        validator.validate(parameters, false);
+    }
+
+    @Benchmark
+    public void queryValidator() throws SimbaException {
+        validator.validate(query);
+    }
+
+    @Benchmark
+    public boolean parameterMap() {
+        Method m = metadata.getMethod("supply");
+        boolean valid = true;
+        for (String key : parameters.keys()) {
+            valid &= m.getParameterMap()
+                      .get(key) != null;
+        }
+        return valid && m.getParameterMap()
+                         .get(metadata.getFileIndicator()) == null;
+    }
+}
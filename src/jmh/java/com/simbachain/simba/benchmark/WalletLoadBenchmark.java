@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.SimbaException;
+import com.simbachain.wallet.CredentialCache;
+import com.simbachain.wallet.FileWallet;
+import com.simbachain.wallet.KdfParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to load a FileWallet, per wallet, with the keystore's scrypt cost n: one at a time,
+ * {@value #WALLETS} in parallel, and from a credential cache.
+ */
+@State (Scope.Benchmark)
+@BenchmarkMode (Mode.AverageTime)
+@OutputTimeUnit (TimeUnit.MILLISECONDS)
+@Warmup (iterations = 1, time = 5)
+@Measurement (iterations = 3, time = 5)
+@Fork (value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class WalletLoadBenchmark {
+
+    private static final int WALLETS = 8;
+    private static final String PASSKEY = "benchmark";
+
+    @Param ({"4096", "262144"})
+    private int n;
+
+    private File root;
+    private List<FileWallet> wallets;
+    private FileWallet cached;
+
+    @Setup
+    public void setup() throws IOException, SimbaException {
+        root = Files.createTempDirectory("wallet-benchmark")
+                    .toFile();
+        KdfParams params = new KdfParams(n, 1);
+        wallets = new ArrayList<>();
+        for (int i = 0; i < WALLETS; i++) {
+            FileWallet wallet = new FileWallet(root.getPath(), "wallet" + i);
+            wallet.setKdfParams(params);
+            wallet.generateWallet(PASSKEY);
+            wallets.add(wallet);
+        }
+        cached = new FileWallet(root.getPath(), "wallet0");
+        cached.setCredentialCache(new CredentialCache(TimeUnit.HOURS.toMillis(1)));
+        cached.loadWallet(PASSKEY);
+    }
+
+    @TearDown
+    public void tearDown() throws SimbaException {
+        for (FileWallet wallet : wallets) {
+            wallet.deleteWallet();
+        }
+        root.delete();
+    }
+
+    @Benchmark
+    public String loadWallet() throws SimbaException {
+        return wallets.get(0)
+                      .loadWallet(PASSKEY);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation (WALLETS)
+    public List<String> loadWalletsParallel() throws SimbaException {
+        return FileWallet.loadWallets(wallets, PASSKEY, Runtime.getRuntime()
+                                                               .availableProcessors());
+    }
+
+    @Benchmark
+    public String loadWalletCached() throws SimbaException {
+        return cached.loadWallet(PASSKEY);
+    }
+}
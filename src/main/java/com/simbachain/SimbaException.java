@@ -35,6 +35,8 @@ import java.util.Map;
  */
 public class SimbaException extends IOException {
 
+    private static final long serialVersionUID = 1L;
+
     private final SimbaError type;
     private final Map<String, Object> properties = new HashMap<>();
 
@@ -22,17 +22,21 @@
 
 package com.simbachain.auth;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.simbachain.SimbaException;
+import com.simbachain.simba.Mappers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Provides an AccessToken. AuthConfig implementations provide
@@ -41,21 +45,190 @@ import com.simbachain.SimbaException;
  */
 public abstract class AccessTokenProvider<C extends AuthConfig> {
 
-    protected static final ObjectMapper mapper = new ObjectMapper();
+    /**
+     * Tokens are treated as expired this many milliseconds before their actual expiry,
+     * to allow for delays when performing auth processes.
+     */
+    public static final long EXPIRY_OFFSET = 60 * 1000;
+
+    private static final ScheduledExecutorService refresher = createRefresher();
+
+    protected static final ObjectMapper mapper = Mappers.mapper();
+    protected Logger log = LoggerFactory.getLogger(getClass().getName());
     private final C config;
-    private final Map<String, AccessToken> accessTokens = new HashMap<>();
+    private final Map<String, AccessToken> accessTokens = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private ScheduledFuture<?> scheduledRefresh;
+    private volatile AccessToken scheduledFor;
     
     public AccessTokenProvider(C config) {
         this.config = config;    
     }
-    
+
+    private static ScheduledExecutorService createRefresher() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "simba-token-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
     /**
-     * Get the token
+     * Get the token. A cached token is returned if it has not expired, otherwise a new
+     * token is requested.
+     * <p>
+     * Concurrent callers that miss the cache share a single request to the auth server.
+     * While that request is in flight, callers are given the previous token if it has not
+     * yet actually expired, otherwise they wait for the new token.
      *
      * @return an AccessToken
      * @throws SimbaException if an error occurs
      */
-    public abstract AccessToken getToken() throws SimbaException;
+    public AccessToken getToken() throws SimbaException {
+        String clientId = getConfig().getClientId();
+        AccessToken token = getCachedToken(clientId);
+        if (token != null) {
+            scheduleRefresh(token);
+            return token;
+        }
+        return refreshToken(false);
+    }
+
+    /**
+     * Request a new token from the auth server. Called by getToken with at most one
+     * request in flight per provider. Implementations should not cache the token.
+     * <p>
+     * Subclasses override either this, to use the caching and refresh in getToken, or getToken
+     * itself, as providers written before this method was added do. The default calls through
+     * to getToken, so background refreshes still work for the latter.
+     *
+     * @return a new AccessToken
+     * @throws SimbaException if an error occurs
+     * @throws IllegalStateException if neither this nor getToken is overridden.
+     */
+    protected AccessToken requestToken() throws SimbaException {
+        if (refreshLock.getHoldCount() > 1) {
+            // getToken was not overridden, so it has come back here
+            throw new IllegalStateException(
+                getClass().getName() + " must override requestToken or getToken");
+        }
+        return getToken();
+    }
+
+    /**
+     * Request and cache a new token, unless another thread has already cached a valid one.
+     * When writing to file, the request is made holding the token file lock, so other
+     * processes sharing the file read the new token instead of requesting their own.
+     *
+     * @param force if true, request a new token even if the cached token has not expired.
+     * @return the current token.
+     * @throws SimbaException if an error occurs
+     */
+    protected AccessToken refreshToken(boolean force) throws SimbaException {
+        String clientId = getConfig().getClientId();
+        if (!refreshLock.tryLock()) {
+            AccessToken current = this.accessTokens.get(clientId);
+            if (current != null && !force && current.getExpires()
+                                                    .getTime() > System.currentTimeMillis()) {
+                return current;
+            }
+            refreshLock.lock();
+        }
+        try {
+            if (!force) {
+                AccessToken token = getCachedToken(clientId);
+                if (token != null) {
+                    return token;
+                }
+            }
+            if (!getConfig().isWriteToFile()) {
+                return fetchToken(clientId);
+            }
+            TokenFileStore store = getTokenStore(clientId);
+            TokenFileStore.Lock lock = store.lock();
+            try {
+                // another process may have written a token while this one waited for the lock
+                AccessToken current = this.accessTokens.get(clientId);
+                AccessToken stored = store.read(true);
+                if (stored != null && !isTokenExpired(stored) && (!force
+                    || current == null
+                    || stored.getExpires()
+                             .after(current.getExpires()))) {
+                    this.accessTokens.put(clientId, stored);
+                    scheduleRefresh(stored);
+                    return stored;
+                }
+                return fetchToken(clientId);
+            } finally {
+                lock.close();
+            }
+        } catch (SimbaException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new SimbaException("Error locking token file",
+                SimbaException.SimbaError.FILE_ERROR, e);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private AccessToken fetchToken(String clientId) throws SimbaException {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: AccessTokenProvider.fetchToken: requesting token for " + clientId);
+        }
+        AccessToken token = requestToken();
+        cacheToken(clientId, token);
+        scheduleRefresh(token);
+        return token;
+    }
+
+    /**
+     * If the config has a refresh margin, schedule a background request for a new token
+     * that margin before isTokenExpired would return true for the given token.
+     *
+     * @param token the current token.
+     */
+    private void scheduleRefresh(AccessToken token) {
+        long margin = getConfig().getRefreshMargin();
+        if (margin <= 0 || scheduledFor == token) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduledFor == token) {
+                return;
+            }
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+            scheduledFor = token;
+            long delay = token.getExpires()
+                              .getTime() - EXPIRY_OFFSET - margin - System.currentTimeMillis();
+            if (delay <= 0) {
+                // token lifetime is shorter than the margin. Refresh on demand instead.
+                scheduledRefresh = null;
+                return;
+            }
+            scheduledRefresh = refresher.schedule(() -> {
+                try {
+                    refreshToken(true);
+                } catch (Exception e) {
+                    log.warn("Background token refresh failed, will refresh on demand", e);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cancel any scheduled background refresh.
+     */
+    public synchronized void cancelRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
 
     protected C getConfig() {
         return config;
@@ -69,38 +242,38 @@ public abstract class AccessTokenProvider<C extends AuthConfig> {
      * @return true if the token is expired
      */
     public boolean isTokenExpired(AccessToken token) {
-        long offset = 60 * 1000;
         long now = System.currentTimeMillis();
-        return now + offset >= token.getExpires().getTime();
+        return now + EXPIRY_OFFSET >= token.getExpires().getTime();
     }
 
     /**
-     * Saves the token data to a file or memory.
+     * Get the file store for a client's token.
      * Checks the tokenDir for alternative token storage locations,
      * otherwise uses the current working path
-     * Creates the token directory if it doesn't already exist.
-     * Adds an "expires" key to the auth token data, set to time "now" added to the expires_in time
-     * This is used later to discover if the token has expired
+     *
+     * @param clientId The ID for the client, token files are named clientId_token.json
+     * @return the token file store.
+     * @throws IOException if the token directory cannot be created.
+     */
+    protected TokenFileStore getTokenStore(String clientId) throws IOException {
+        String tokenDir = this.getConfig().getTokenDir();
+        if (tokenDir == null) {
+            tokenDir = System.getProperty("user.dir");
+        }
+        return TokenFileStore.forClient(Paths.get(tokenDir), clientId);
+    }
+
+    /**
+     * Saves the token data to a file or memory.
+     * The file is written atomically, see TokenFileStore.
      *
      * @param clientId The ID for the client, token files are named clientId_token.json
      * @param token The token object to save
      */
     public void cacheToken(String clientId, AccessToken token) {
         if (this.getConfig().isWriteToFile()) {
-            String tokenDir = this.getConfig().getTokenDir();
-            if (tokenDir == null) {
-                tokenDir = System.getProperty("user.dir");
-            }
-            File tokenDirectory = new File(tokenDir);
-            tokenDirectory.mkdirs();
-            File tokenFile = new File(tokenDirectory, clientId + "_token.json");
-            
             try {
-                String data = mapper.writeValueAsString(token);
-                BufferedWriter writer = new BufferedWriter(new FileWriter(tokenFile));
-                writer.write(data);
-                writer.flush();
-                writer.close();
+                getTokenStore(clientId).write(token);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -110,11 +283,10 @@ public abstract class AccessTokenProvider<C extends AuthConfig> {
     }
 
     /**
-     * Checks a local directory for a file containing an auth token
-     * If present, check the token hasn't expired, otherwise return it
-     *
-     * Checks the tokenDir config value for alternative token storage locations,
-     * otherwise uses the current working path
+     * Checks memory, then the token file if writing to file, for an unexpired auth token.
+     * The token file is only parsed again if it has been replaced since it was last read,
+     * so a token written by another process is picked up without a request to the auth
+     * server.
      *
      * @param clientId The ID for the client, token files are named clientId_token.json
      * @return an AccessToken, retrieved from the token file or memory.
@@ -122,41 +294,25 @@ public abstract class AccessTokenProvider<C extends AuthConfig> {
     public AccessToken getCachedToken(String clientId) {
         // check memory first
         AccessToken token = this.accessTokens.get(clientId);
-        if (token != null) {
-            if(this.isTokenExpired(token)) {
-                this.accessTokens.remove(clientId);    
-            } else {
-                return token;    
-            }
+        // an expired token is left in memory so it can be served while a refresh is in flight
+        if (token != null && !this.isTokenExpired(token)) {
+            return token;
         }
         if (!getConfig().isWriteToFile()) {
             // bail if we are not writing to file
             return null;    
-        } else {
-            String tokenDir = this.config.getTokenDir();
-            if (tokenDir == null) {
-                tokenDir = System.getProperty("user.dir");
-            }
-            File tokenDirectory = new File(tokenDir);
-            tokenDirectory.mkdirs();
-            File tokenFile = new File(tokenDirectory, clientId + "_token.json");
-            if (tokenFile.exists()) {
-                try {
-                    BufferedReader reader = new BufferedReader(new FileReader(tokenFile));
-                    String tokenString = reader.readLine();
-                    reader.close();
-                    token = mapper.readValue(tokenString, AccessToken.class);
-                    if (this.isTokenExpired(token)) {
-                        // delete file if it's expired
-                        tokenFile.delete();
-                        return null;
-                    }
-                    return token;
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
         }
-        return null;
+        try {
+            token = getTokenStore(clientId).read();
+        } catch (IOException e) {
+            // an unreadable file is replaced by the next token request
+            log.warn("Error reading token file for " + clientId, e);
+            return null;
+        }
+        if (token == null || this.isTokenExpired(token)) {
+            return null;
+        }
+        this.accessTokens.put(clientId, token);
+        return token;
     }
 }
@@ -35,6 +35,7 @@ public abstract class AuthConfig implements HttpConfig {
     private final String clientSecret;
     private final boolean writeToFile;
     private final String tokenDir;
+    private volatile long refreshMargin = 0;
 
     public AuthConfig(HttpClientFactory clientFactory, String clientId, String clientSecret, boolean writeToFile, String tokenDir) {
         this.clientFactory = clientFactory;
@@ -76,5 +77,26 @@ public abstract class AuthConfig implements HttpConfig {
         return tokenDir;
     }
 
+    public long getRefreshMargin() {
+        return refreshMargin;
+    }
+
+    /**
+     * Enable background token refresh. A new token is requested this many milliseconds
+     * before the current token would be considered expired, so requests do not wait for
+     * the auth server. Zero, the default, disables background refresh.
+     *
+     * @param refreshMargin the margin in milliseconds.
+     */
+    public void setRefreshMargin(long refreshMargin) {
+        this.refreshMargin = refreshMargin;
+    }
+
+    /**
+     * Get the token provider. Implementations return the same provider on each call,
+     * so that tokens are cached and refreshed once per config.
+     *
+     * @return the token provider.
+     */
     public abstract AccessTokenProvider<? extends AuthConfig> getTokenProvider();
 }
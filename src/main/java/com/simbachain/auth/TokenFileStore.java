@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.auth;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.simbachain.simba.Mappers;
+
+/**
+ * Stores an AccessToken in a file that can be shared by several processes using the same
+ * client ID.
+ * <p>
+ * Writes go to a temporary file in the same directory which is then moved over the token
+ * file atomically, so readers never see a partly written token and do not need to lock.
+ * Processes that need a new token take an exclusive lock on a separate lock file, then
+ * re-read the token file before requesting one, so only one process fetches a token and
+ * the others pick it up from the file.
+ * <p>
+ * The last token read is kept with the file's modification time and size, so the file is
+ * only parsed again when another process has replaced it.
+ * <p>
+ * There is one store per token file in a JVM. FileChannel locks are held per process, so
+ * threads in the same process are serialized with a ReentrantLock before the file lock
+ * is taken.
+ */
+public class TokenFileStore {
+
+    private static final ConcurrentMap<Path, TokenFileStore> stores = new ConcurrentHashMap<>();
+
+    private final Path tokenFile;
+    private final Path lockFile;
+    private final ReentrantLock localLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    private TokenFileStore(Path tokenFile) throws IOException {
+        this.tokenFile = tokenFile;
+        this.lockFile = tokenFile.resolveSibling(tokenFile.getFileName() + ".lock");
+        Files.createDirectories(tokenFile.getParent());
+    }
+
+    /**
+     * Get the store for a client's token file, creating the token directory if needed.
+     *
+     * @param tokenDir the directory holding token files.
+     * @param clientId the client ID. The token file is named clientId_token.json.
+     * @return the store for the file.
+     * @throws IOException if the directory cannot be created.
+     */
+    public static TokenFileStore forClient(Path tokenDir, String clientId) throws IOException {
+        Path file = tokenDir.resolve(clientId + "_token.json")
+                            .toAbsolutePath()
+                            .normalize();
+        TokenFileStore store = stores.get(file);
+        if (store == null) {
+            TokenFileStore created = new TokenFileStore(file);
+            store = stores.putIfAbsent(file, created);
+            if (store == null) {
+                store = created;
+            }
+        }
+        return store;
+    }
+
+    public Path getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Read the token from the file. The file is only parsed if its modification time or size
+     * has changed since the last read.
+     *
+     * @return the token, or null if there is no token file.
+     * @throws IOException if the file cannot be read or parsed.
+     */
+    public AccessToken read() throws IOException {
+        return read(false);
+    }
+
+    /**
+     * Read the token from the file.
+     *
+     * @param reload if true, parse the file even if it appears unchanged. File systems with
+     *               coarse modification times may not show a replacement made within the
+     *               same tick, so this is used while holding the lock.
+     * @return the token, or null if there is no token file.
+     * @throws IOException if the file cannot be read or parsed.
+     */
+    public AccessToken read(boolean reload) throws IOException {
+        FileTime modified;
+        long size;
+        try {
+            modified = Files.getLastModifiedTime(tokenFile);
+            size = Files.size(tokenFile);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        Snapshot current = this.snapshot;
+        if (!reload && current != null && current.modified.equals(modified) && current.size == size) {
+            return current.token;
+        }
+        byte[] data;
+        try {
+            data = Files.readAllBytes(tokenFile);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        AccessToken token = Mappers.reader(AccessToken.class)
+                                   .readValue(data);
+        // a replacement between the stat and the read is picked up on the next read
+        this.snapshot = new Snapshot(token, modified, size);
+        return token;
+    }
+
+    /**
+     * Write the token to a temporary file and atomically move it over the token file.
+     *
+     * @param token the token to write.
+     * @throws IOException if the token cannot be written.
+     */
+    public void write(AccessToken token) throws IOException {
+        byte[] data = Mappers.writer(AccessToken.class)
+                             .writeValueAsBytes(token);
+        Path tmp = Files.createTempFile(tokenFile.getParent(), tokenFile.getFileName()
+                                                                        .toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tmp, tokenFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, tokenFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Take the exclusive lock used to serialize token requests across threads and processes.
+     * Blocks until the lock is available.
+     *
+     * @return the lock, to be closed when the token has been written.
+     * @throws IOException if the lock file cannot be locked.
+     */
+    public Lock lock() throws IOException {
+        localLock.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+            return new Lock(channel, channel.lock());
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            localLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * A held token lock.
+     */
+    public class Lock implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final FileLock fileLock;
+
+        private Lock(FileChannel channel, FileLock fileLock) {
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                fileLock.release();
+            } finally {
+                try {
+                    channel.close();
+                } finally {
+                    localLock.unlock();
+                }
+            }
+        }
+    }
+
+    private static class Snapshot {
+        private final AccessToken token;
+        private final FileTime modified;
+        private final long size;
+
+        private Snapshot(AccessToken token, FileTime modified, long size) {
+            this.token = token;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+}
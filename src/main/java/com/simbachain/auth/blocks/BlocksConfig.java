@@ -32,6 +32,7 @@ import com.simbachain.simba.HttpClientFactory;
 public class BlocksConfig extends AuthConfig {
 
     private final String tokenUrl;
+    private final BlocksTokenProvider tokenProvider = new BlocksTokenProvider(this);
 
     public BlocksConfig(HttpClientFactory clientFactory, String clientId, String clientSecret, String authHost, boolean writeToFile, String tokenDir) {
         super(clientFactory, clientId, clientSecret, writeToFile, tokenDir);
@@ -63,6 +64,6 @@ public class BlocksConfig extends AuthConfig {
 
     @Override
     public AccessTokenProvider<BlocksConfig> getTokenProvider() {
-        return new BlocksTokenProvider(this);
+        return tokenProvider;
     }
 }
@@ -29,10 +29,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.simbachain.SimbaException;
 import com.simbachain.auth.AccessToken;
 import com.simbachain.auth.AccessTokenProvider;
+import com.simbachain.simba.Mappers;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ResponseHandler;
@@ -86,24 +86,16 @@ public class BlocksTokenProvider extends AccessTokenProvider<BlocksConfig> {
             if (entity != null) {
                 responseString = EntityUtils.toString(entity);
             }
-            TypeReference<Map<String, String>> tf = new TypeReference<Map<String, String>>() {
-            };
-            return mapper.readValue(responseString, tf);
+            return Mappers.reader(Mappers.STRING_MAP).readValue(responseString);
         };
     }
 
     @Override
-    public AccessToken getToken() throws SimbaException {
+    protected AccessToken requestToken() throws SimbaException {
         CloseableHttpClient client = this.getConfig()
                                          .getClientFactory()
                                          .getClient();
         try {
-            AccessToken token = this.getCachedToken(this.getConfig()
-                                                        .getClientId());
-            if (token != null) {
-                return token;
-            }
-
             Map<String, String> data = new HashMap<>();
             data.put("grant_type", "client_credentials");
 
@@ -120,11 +112,8 @@ public class BlocksTokenProvider extends AccessTokenProvider<BlocksConfig> {
             
             long now = System.currentTimeMillis();
             long expires = now + (Long.parseLong(result.get("expires_in")) * 1000);
-            token = new AccessToken(result.get("access_token"), result.get("token_type"),
+            return new AccessToken(result.get("access_token"), result.get("token_type"),
                 new Date(expires));
-            cacheToken(getConfig().getClientId(), token);
-
-            return token;
         } catch (Exception e) {
             throw new SimbaException(e.getMessage(), SimbaException.SimbaError.AUTHENTICATION_ERROR,
                 e);
@@ -34,6 +34,7 @@ public class KcAuthConfig extends AuthConfig {
     private final String host;
     private final String realm;
     private final String scopes;
+    private final KcTokenProvider tokenProvider = new KcTokenProvider(this);
 
     public KcAuthConfig(String clientId,
         String clientSecret,
@@ -117,6 +118,6 @@ public class KcAuthConfig extends AuthConfig {
 
     @Override
     public AccessTokenProvider<KcAuthConfig> getTokenProvider() {
-        return new KcTokenProvider(this);
+        return tokenProvider;
     }
 }
@@ -27,10 +27,10 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.simbachain.SimbaException;
 import com.simbachain.auth.AccessToken;
 import com.simbachain.auth.AccessTokenProvider;
+import com.simbachain.simba.Mappers;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpPost;
@@ -90,24 +90,16 @@ public class KcTokenProvider extends AccessTokenProvider<KcAuthConfig> {
             if (entity != null) {
                 responseString = EntityUtils.toString(entity);
             }
-            TypeReference<Map<String, String>> tf = new TypeReference<Map<String, String>>() {
-            };
-            return mapper.readValue(responseString, tf);
+            return Mappers.reader(Mappers.STRING_MAP).readValue(responseString);
         };
     }
 
     @Override
-    public AccessToken getToken() throws SimbaException {
+    protected AccessToken requestToken() throws SimbaException {
         CloseableHttpClient client = getConfig().getClientFactory()
                                                 .getClient();
 
         try {
-            AccessToken token = this.getCachedToken(this.getConfig()
-                                                        .getClientId());
-            if (token != null) {
-                return token;
-            }
-
             Map<String, String> data = new HashMap<>();
             data.put("grant_type", "client_credentials");
             data.put("client_id", getConfig().getClientId());
@@ -122,9 +114,8 @@ public class KcTokenProvider extends AccessTokenProvider<KcAuthConfig> {
 
             long now = System.currentTimeMillis();
             long expires = now + (Long.parseLong(result.get("expires_in")) * 1000);
-            token = new AccessToken(result.get("access_token"), result.get("token_type"),
+            return new AccessToken(result.get("access_token"), result.get("token_type"),
                 new Date(expires));
-            return token;
 
         } catch (Exception e) {
             throw new SimbaException(e.getMessage(), SimbaException.SimbaError.AUTHENTICATION_ERROR,
@@ -33,6 +33,7 @@ public class LocalOAuthConfig extends AuthConfig {
 
     private final String user;
     private final String tokenUrl;
+    private final LocalTokenProvider tokenProvider = new LocalTokenProvider(this);
 
     public LocalOAuthConfig(HttpClientFactory clientFactory,
         String clientId,
@@ -63,6 +64,6 @@ public class LocalOAuthConfig extends AuthConfig {
 
     @Override
     public AccessTokenProvider<LocalOAuthConfig> getTokenProvider() {
-        return new LocalTokenProvider(this);
+        return tokenProvider;
     }
 }
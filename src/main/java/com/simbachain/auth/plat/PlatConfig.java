@@ -32,6 +32,7 @@ import com.simbachain.simba.HttpClientFactory;
 public class PlatConfig extends AuthConfig {
 
     private final String tokenUrl;
+    private final PlatTokenProvider tokenProvider = new PlatTokenProvider(this);
 
     public PlatConfig(HttpClientFactory clientFactory, String clientId, String clientSecret, String authHost, boolean writeToFile, String tokenDir) {
         super(clientFactory, clientId, clientSecret, writeToFile, tokenDir);
@@ -63,6 +64,6 @@ public class PlatConfig extends AuthConfig {
 
     @Override
     public AccessTokenProvider<PlatConfig> getTokenProvider() {
-        return new PlatTokenProvider(this);
+        return tokenProvider;
     }
 }
@@ -28,10 +28,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.simbachain.SimbaException;
 import com.simbachain.auth.AccessToken;
 import com.simbachain.auth.AccessTokenProvider;
+import com.simbachain.simba.Mappers;
 import org.apache.http.HttpEntity;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.ResponseHandler;
@@ -85,24 +85,16 @@ public class PlatTokenProvider extends AccessTokenProvider<PlatConfig> {
             if (entity != null) {
                 responseString = EntityUtils.toString(entity);
             }
-            TypeReference<Map<String, String>> tf = new TypeReference<Map<String, String>>() {
-            };
-            return mapper.readValue(responseString, tf);
+            return Mappers.reader(Mappers.STRING_MAP).readValue(responseString);
         };
     }
 
     @Override
-    public AccessToken getToken() throws SimbaException {
+    protected AccessToken requestToken() throws SimbaException {
         CloseableHttpClient client = this.getConfig()
                                          .getClientFactory()
                                          .getClient();
         try {
-            AccessToken token = this.getCachedToken(this.getConfig()
-                                                        .getClientId());
-            if (token != null) {
-                return token;
-            }
-
             Map<String, String> data = new HashMap<>();
             data.put("grant_type", "client_credentials");
             data.put("client_id", getConfig().getClientId());
@@ -120,11 +112,8 @@ public class PlatTokenProvider extends AccessTokenProvider<PlatConfig> {
                 expires = (Long.parseLong(result.get("expires_at")) * 1000);
             }
             
-            token = new AccessToken(result.get("access_token"), result.get("token_type"),
+            return new AccessToken(result.get("access_token"), result.get("token_type"),
                 new Date(expires));
-            cacheToken(getConfig().getClientId(), token);
-
-            return token;
         } catch (Exception e) {
             throw new SimbaException(e.getMessage(), SimbaException.SimbaError.AUTHENTICATION_ERROR,
                 e);
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.simbachain.simba.management.Blockchain;
+
+/**
+ * A polling policy based on block time and required confirmations.
+ * <p>
+ * Before a transaction is submitted to the chain, for example while RECEIVED or VALIDATED,
+ * polls back off exponentially from the minimum delay up to one block time or the maximum
+ * delay, whichever is less. Once SUBMITTED or ACCEPTED, the transaction can complete from
+ * minConfirms - 1 blocks after submission. Polls halve the time remaining to that point,
+ * then poll every eighth of a block, bounded by the minimum and maximum delays, until it
+ * completes.
+ * All delays have random jitter so that transactions sent together do not poll together.
+ */
+public class AdaptivePollingPolicy implements PollingPolicy {
+
+    public static final long DEFAULT_BLOCK_TIME = 5000;
+    public static final int DEFAULT_MIN_CONFIRMS = 1;
+    public static final double DEFAULT_JITTER = 0.2;
+    public static final long DEFAULT_MAX_DELAY = 2000;
+
+    private final long blockTime;
+    private final int minConfirms;
+    private final long minDelay;
+    private final long maxDelay;
+    private final double jitter;
+
+    /**
+     * Create a policy.
+     *
+     * @param blockTime   the average block time in milliseconds.
+     * @param minConfirms the confirmations required before a transaction completes.
+     * @param minDelay    the shortest delay in milliseconds.
+     * @param maxDelay    the longest delay in milliseconds while backing off, and the
+     *                    longest delay between polls once a transaction is expected.
+     * @param jitter      the fraction of each delay to randomise, from 0 to 1.
+     */
+    public AdaptivePollingPolicy(long blockTime,
+        int minConfirms,
+        long minDelay,
+        long maxDelay,
+        double jitter) {
+        this.blockTime = Math.max(1, blockTime);
+        this.minConfirms = Math.max(1, minConfirms);
+        this.minDelay = Math.max(1, Math.min(minDelay, this.blockTime));
+        this.maxDelay = Math.max(this.minDelay, maxDelay);
+        this.jitter = Math.max(0, Math.min(1, jitter));
+    }
+
+    /**
+     * Create a policy with a minimum delay of an eighth of a block, between 100 and 500
+     * milliseconds, and the default maximum delay and jitter.
+     *
+     * @param blockTime   the average block time in milliseconds.
+     * @param minConfirms the confirmations required before a transaction completes.
+     */
+    public AdaptivePollingPolicy(long blockTime, int minConfirms) {
+        this(blockTime, minConfirms, Math.max(100, Math.min(500, blockTime / 8)),
+            DEFAULT_MAX_DELAY, DEFAULT_JITTER);
+    }
+
+    /**
+     * Create a policy from a blockchain. The blockchain's block time is in seconds.
+     *
+     * @param blockchain the blockchain.
+     * @return the policy.
+     */
+    public static AdaptivePollingPolicy forBlockchain(Blockchain blockchain) {
+        long blockTime = blockchain.getBlockTime() != null && blockchain.getBlockTime() > 0
+                         ? blockchain.getBlockTime() * 1000L : DEFAULT_BLOCK_TIME;
+        int confirms = blockchain.getMinConfirmsReqd() != null
+                       ? blockchain.getMinConfirmsReqd() : DEFAULT_MIN_CONFIRMS;
+        return new AdaptivePollingPolicy(blockTime, confirms);
+    }
+
+    public long getBlockTime() {
+        return blockTime;
+    }
+
+    public int getMinConfirms() {
+        return minConfirms;
+    }
+
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    @Override
+    public long nextDelay(Transaction.State state, long stateAge, int attempt) {
+        long tight = Math.max(minDelay, Math.min(blockTime / 8, maxDelay));
+        if (state == Transaction.State.SUBMITTED || state == Transaction.State.ACCEPTED) {
+            // the transaction is in the block after submission, then needs minConfirms - 1 more
+            long windowStart = blockTime * (minConfirms - 1) - stateAge;
+            return jittered(Math.max(tight, windowStart / 2));
+        }
+        // not yet on chain, or a state the policy does not know: back off
+        long delay = minDelay << Math.min(attempt, 20);
+        return jittered(Math.min(delay, Math.max(tight, Math.min(blockTime, maxDelay))));
+    }
+
+    private long jittered(long delay) {
+        if (jitter == 0) {
+            return delay;
+        }
+        double factor = 1 + jitter * (ThreadLocalRandom.current()
+                                                      .nextDouble() * 2 - 1);
+        return Math.max(1, (long) (delay * factor));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptivePollingPolicy{");
+        sb.append("blockTime=")
+          .append(blockTime);
+        sb.append(", minConfirms=")
+          .append(minConfirms);
+        sb.append(", minDelay=")
+          .append(minDelay);
+        sb.append(", maxDelay=")
+          .append(maxDelay);
+        sb.append(", jitter=")
+          .append(jitter);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.simbachain.SimbaException;
+
+/**
+ * The outcome of a bulk submission: a result for each submission, in the order submitted,
+ * and throughput and latency figures for the whole run.
+ */
+public class BulkResult {
+
+    /**
+     * The result of one submission, holding either its response or its error.
+     */
+    public static class Outcome {
+        private final Submission submission;
+        private final CallResponse response;
+        private final SimbaException error;
+        private final long latency;
+
+        Outcome(Submission submission, CallResponse response, SimbaException error, long latency) {
+            this.submission = submission;
+            this.response = response;
+            this.error = error;
+            this.latency = latency;
+        }
+
+        public Submission getSubmission() {
+            return submission;
+        }
+
+        /**
+         * @return the response, or null if the call failed.
+         */
+        public CallResponse getResponse() {
+            return response;
+        }
+
+        /**
+         * @return the error, or null if the call succeeded.
+         */
+        public SimbaException getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return milliseconds from the call being started to it completing.
+         */
+        public long getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Outcome{");
+            sb.append("method='")
+              .append(submission.getMethod())
+              .append('\'');
+            sb.append(", response=")
+              .append(response);
+            sb.append(", error=")
+              .append(error);
+            sb.append(", latency=")
+              .append(latency);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    private final List<Outcome> outcomes;
+    private final long elapsed;
+    private final int failed;
+    private final long[] latencies;
+
+    BulkResult(List<Outcome> outcomes, long elapsed) {
+        this.outcomes = Collections.unmodifiableList(outcomes);
+        this.elapsed = elapsed;
+        this.latencies = new long[outcomes.size()];
+        int failed = 0;
+        for (int i = 0; i < latencies.length; i++) {
+            Outcome outcome = outcomes.get(i);
+            latencies[i] = outcome.latency;
+            if (!outcome.isSuccess()) {
+                failed++;
+            }
+        }
+        this.failed = failed;
+        Arrays.sort(latencies);
+    }
+
+    /**
+     * @return the outcomes, in the order the submissions were given.
+     */
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public int getCount() {
+        return outcomes.size();
+    }
+
+    public int getSucceeded() {
+        return outcomes.size() - failed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return milliseconds from the first call being started to the last completing.
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * @return calls completed per second.
+     */
+    public double getThroughput() {
+        return elapsed == 0 ? 0 : outcomes.size() * 1000.0 / elapsed;
+    }
+
+    public double getMeanLatency() {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (long latency : latencies) {
+            total += latency;
+        }
+        return (double) total / latencies.length;
+    }
+
+    /**
+     * Get a latency percentile.
+     *
+     * @param percentile the percentile, from 0 to 100.
+     * @return the latency in milliseconds at or below which that percentage of calls completed.
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (latencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(latencies.length - 1, index))];
+    }
+
+    public long getMaxLatency() {
+        return latencies.length == 0 ? 0 : latencies[latencies.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BulkResult{");
+        sb.append("count=")
+          .append(getCount());
+        sb.append(", failed=")
+          .append(failed);
+        sb.append(", elapsed=")
+          .append(elapsed);
+        sb.append(", throughput=")
+          .append(String.format("%.1f", getThroughput()));
+        sb.append(", meanLatency=")
+          .append(String.format("%.1f", getMeanLatency()));
+        sb.append(", p95Latency=")
+          .append(getLatencyPercentile(95));
+        sb.append(", maxLatency=")
+          .append(getMaxLatency());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a bulk submission. Submissions are grouped into lanes by txn-sender, each submission
+ * without a sender being a lane of its own. At most one call per lane is in flight, so a
+ * sender's calls are made in the order given, and at most concurrency calls are in flight
+ * overall. Submissions are read from the source as lanes become free, buffering at most
+ * BUFFER_PER_CALL per concurrent call, so a long stream is not read into memory up front.
+ * <p>
+ * Completions are handled on the given executor rather than the HTTP client's I/O thread, as
+ * starting the next call can block, for example to seed a sender's nonce.
+ */
+class BulkSubmitter {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkSubmitter.class.getName());
+    private static final int BUFFER_PER_CALL = 16;
+
+    private final ContractService service;
+    private final Iterator<Submission> source;
+    private final int concurrency;
+    private final Executor executor;
+    private final int maxBuffered;
+    private final CompletableFuture<BulkResult> result = new CompletableFuture<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    // guarded by this
+    private final List<BulkResult.Outcome> outcomes = new ArrayList<>();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final Deque<Lane> ready = new ArrayDeque<>();
+    private int inFlight;
+    private int buffered;
+    private boolean exhausted;
+    private long start;
+
+    BulkSubmitter(ContractService service,
+        Iterator<Submission> source,
+        int concurrency,
+        Executor executor) {
+        this.service = service;
+        this.source = source;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.maxBuffered = Math.max(256, concurrency * BUFFER_PER_CALL);
+    }
+
+    CompletableFuture<BulkResult> start() {
+        start = System.nanoTime();
+        dispatch();
+        return result;
+    }
+
+    /**
+     * Start calls while there is capacity. Completions that happen during a pass, including
+     * calls that fail immediately, cause another pass rather than recursing.
+     */
+    private void dispatch() {
+        if (pending.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            List<Item> started = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < concurrency) {
+                    pull();
+                    Lane lane = ready.poll();
+                    if (lane == null) {
+                        break;
+                    }
+                    lane.queued = false;
+                    lane.busy = true;
+                    inFlight++;
+                    buffered--;
+                    started.add(lane.items.poll());
+                }
+                if (exhausted && inFlight == 0 && buffered == 0 && !result.isDone()) {
+                    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    result.complete(new BulkResult(outcomes, elapsed));
+                }
+            }
+            for (Item item : started) {
+                call(item);
+            }
+        } while (pending.decrementAndGet() != 0);
+    }
+
+    /**
+     * Read from the source until a lane is ready or the buffer is full.
+     */
+    private void pull() {
+        while (!exhausted && ready.isEmpty() && buffered < maxBuffered) {
+            Submission submission;
+            try {
+                if (!source.hasNext()) {
+                    exhausted = true;
+                    return;
+                }
+                submission = source.next();
+            } catch (RuntimeException e) {
+                log.warn("BulkSubmitter.pull: reading submissions failed", e);
+                exhausted = true;
+                result.completeExceptionally(e);
+                return;
+            }
+            String sender = submission.getSender();
+            Lane lane = sender == null ? new Lane(null) : lanes.computeIfAbsent(sender, Lane::new);
+            lane.items.add(new Item(outcomes.size(), submission, lane));
+            outcomes.add(null);
+            buffered++;
+            if (!lane.busy && !lane.queued) {
+                lane.queued = true;
+                ready.add(lane);
+            }
+        }
+    }
+
+    private void call(Item item) {
+        long started = System.nanoTime();
+        Submission submission = item.submission;
+        CompletableFuture<CallResponse> call;
+        try {
+            call = service.callMethodAsync(submission.getMethod(), submission.getParameters(),
+                submission.getHeaders(), submission.getFiles());
+        } catch (RuntimeException e) {
+            call = SimbaClient.failed(e);
+        }
+        call.whenCompleteAsync((response, error) -> {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            BulkResult.Outcome outcome = new BulkResult.Outcome(submission,
+                error == null ? response : null,
+                error == null ? null : service.getException("POST", error), latency);
+            synchronized (this) {
+                outcomes.set(item.index, outcome);
+                inFlight--;
+                Lane lane = item.lane;
+                lane.busy = false;
+                if (!lane.items.isEmpty()) {
+                    lane.queued = true;
+                    ready.add(lane);
+                } else if (lane.sender != null) {
+                    lanes.remove(lane.sender);
+                }
+            }
+            dispatch();
+        }, executor);
+    }
+
+    private static class Lane {
+        private final String sender;
+        private final Deque<Item> items = new ArrayDeque<>();
+        private boolean busy;
+        private boolean queued;
+
+        private Lane(String sender) {
+            this.sender = sender;
+        }
+    }
+
+    private static class Item {
+        private final int index;
+        private final Submission submission;
+        private final Lane lane;
+
+        private Item(int index, Submission submission, Lane lane) {
+            this.index = index;
+            this.submission = submission;
+            this.lane = lane;
+        }
+    }
+}
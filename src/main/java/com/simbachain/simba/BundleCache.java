@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Size bounded, least recently used cache of bundles and bundle files on local disk.
+ * <p>
+ * Bundles are addressed by their hash, so a bundle, or a file in a bundle, never changes
+ * once stored and can be served from disk without asking the server. Entries are keyed by
+ * bundle hash and file name. Cache hits are copied to the caller's stream with
+ * FileChannel.transferTo.
+ * <p>
+ * Downloads are written to a temporary file and moved into place once complete, so readers
+ * only ever see whole files. Concurrent requests for the same missing entry share one
+ * download. When the total size goes over the limit, the least recently used entries are
+ * deleted. An entry larger than the limit is kept until the next entry is added.
+ */
+public class BundleCache {
+
+    private static final Logger log = LoggerFactory.getLogger(BundleCache.class.getName());
+
+    private static final String SUFFIX = ".bundle";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final long TMP_AGE = 60 * 60 * 1000;
+
+    /**
+     * Downloads an entry to a stream, closing the stream when done.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+
+        long fetch(OutputStream outputStream) throws SimbaException;
+    }
+
+    /**
+     * Downloads an entry to a stream without blocking, closing the stream when done.
+     */
+    @FunctionalInterface
+    public interface AsyncFetcher {
+
+        CompletableFuture<Long> fetch(OutputStream outputStream);
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, CompletableFuture<Path>> loading
+        = new ConcurrentHashMap<>();
+    private long size;
+
+    /**
+     * Create a cache, indexing any entries already in the directory.
+     *
+     * @param directory the cache directory.
+     * @param maxBytes  the maximum total size of cached entries.
+     * @throws SimbaException if the directory cannot be created or read.
+     */
+    public BundleCache(Path directory, long maxBytes) throws SimbaException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            throw new SimbaException("Error opening bundle cache " + directory,
+                SimbaException.SimbaError.FILE_ERROR, e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the total size of cached entries.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of cached entries.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * Write an entry to a stream, downloading it into the cache first if it is not cached.
+     *
+     * @param bundleHash   the bundle hash.
+     * @param fileName     the file name, or null for the whole bundle.
+     * @param outputStream the stream to write to.
+     * @param close        whether or not to close the stream on completion.
+     * @param fetcher      downloads the entry if it is not cached.
+     * @return the number of bytes written.
+     * @throws SimbaException if the entry cannot be downloaded or written.
+     */
+    public long get(String bundleHash,
+        String fileName,
+        OutputStream outputStream,
+        boolean close,
+        Fetcher fetcher) throws SimbaException {
+        String name = name(bundleHash, fileName);
+        Path file = lookup(name);
+        if (file == null) {
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            CompletableFuture<Path> existing = loading.putIfAbsent(name, future);
+            if (existing == null) {
+                populate(name, future, out -> {
+                    try {
+                        return CompletableFuture.completedFuture(fetcher.fetch(out));
+                    } catch (SimbaException e) {
+                        return SimbaClient.failed(e);
+                    }
+                });
+                existing = future;
+            }
+            try {
+                file = existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                throw new SimbaException(SimbaException.SimbaError.EXECUTION_ERROR, e);
+            } catch (ExecutionException e) {
+                throw toSimbaException(e.getCause());
+            }
+        }
+        try {
+            return transfer(file, outputStream, close);
+        } catch (NoSuchFileException e) {
+            // evicted since it was looked up
+            return fetcher.fetch(close ? outputStream : new UnclosableOutputStream(outputStream));
+        } catch (IOException e) {
+            throw new SimbaException("Error reading bundle cache",
+                SimbaException.SimbaError.FILE_ERROR, e);
+        }
+    }
+
+    /**
+     * Write an entry to a stream without blocking the calling thread on a download. Cache
+     * hits are copied on the calling thread.
+     *
+     * @param bundleHash   the bundle hash.
+     * @param fileName     the file name, or null for the whole bundle.
+     * @param outputStream the stream to write to.
+     * @param close        whether or not to close the stream on completion.
+     * @param fetcher      downloads the entry if it is not cached.
+     * @return a future that completes with the number of bytes written.
+     */
+    public CompletableFuture<Long> getAsync(String bundleHash,
+        String fileName,
+        OutputStream outputStream,
+        boolean close,
+        AsyncFetcher fetcher) {
+        String name = name(bundleHash, fileName);
+        Path file = lookup(name);
+        CompletableFuture<Path> ready;
+        if (file != null) {
+            ready = CompletableFuture.completedFuture(file);
+        } else {
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            CompletableFuture<Path> existing = loading.putIfAbsent(name, future);
+            if (existing == null) {
+                populate(name, future, fetcher);
+                existing = future;
+            }
+            ready = existing;
+        }
+        return ready.thenCompose(path -> {
+            try {
+                return CompletableFuture.completedFuture(transfer(path, outputStream, close));
+            } catch (NoSuchFileException e) {
+                return fetcher.fetch(
+                    close ? outputStream : new UnclosableOutputStream(outputStream));
+            } catch (IOException e) {
+                return SimbaClient.failed(new SimbaException("Error reading bundle cache",
+                    SimbaException.SimbaError.FILE_ERROR, e));
+            }
+        });
+    }
+
+    /**
+     * Remove an entry from the cache.
+     *
+     * @param bundleHash the bundle hash.
+     * @param fileName   the file name, or null for the whole bundle.
+     */
+    public void remove(String bundleHash, String fileName) {
+        String name = name(bundleHash, fileName);
+        synchronized (this) {
+            Long removed = entries.remove(name);
+            if (removed != null) {
+                size -= removed;
+            }
+        }
+        delete(directory.resolve(name));
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void clear() {
+        List<String> names;
+        synchronized (this) {
+            names = new ArrayList<>(entries.keySet());
+            entries.clear();
+            size = 0;
+        }
+        for (String name : names) {
+            delete(directory.resolve(name));
+        }
+    }
+
+    private Path lookup(String name) {
+        synchronized (this) {
+            if (entries.get(name) == null) {
+                return null;
+            }
+        }
+        Path file = directory.resolve(name);
+        try {
+            // keep the order of use across restarts
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("BundleCache.lookup: could not touch " + file + ": " + e);
+        }
+        return file;
+    }
+
+    private void populate(String name, CompletableFuture<Path> future, AsyncFetcher fetcher) {
+        Path tmp;
+        OutputStream out;
+        try {
+            tmp = Files.createTempFile(directory, name, TMP_SUFFIX);
+            out = Files.newOutputStream(tmp);
+        } catch (IOException e) {
+            loading.remove(name, future);
+            future.completeExceptionally(new SimbaException("Error writing bundle cache",
+                SimbaException.SimbaError.FILE_ERROR, e));
+            return;
+        }
+        CompletableFuture<Long> fetched;
+        try {
+            fetched = fetcher.fetch(out);
+        } catch (RuntimeException e) {
+            fetched = SimbaClient.failed(e);
+        }
+        fetched.whenComplete((length, error) -> {
+            try {
+                if (error != null) {
+                    out.close();
+                    delete(tmp);
+                    future.completeExceptionally(error);
+                } else {
+                    Path file = directory.resolve(name);
+                    try {
+                        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    added(name, Files.size(file));
+                    future.complete(file);
+                }
+            } catch (IOException e) {
+                delete(tmp);
+                future.completeExceptionally(new SimbaException("Error writing bundle cache",
+                    SimbaException.SimbaError.FILE_ERROR, e));
+            } finally {
+                loading.remove(name, future);
+            }
+        });
+    }
+
+    private void added(String name, long length) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entries.put(name, length);
+            if (previous != null) {
+                size -= previous;
+            }
+            size += length;
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet()
+                                                          .iterator();
+            while (size > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey()
+                          .equals(name)) {
+                    break;
+                }
+                size -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (String e : evicted) {
+            if (log.isDebugEnabled()) {
+                log.debug("BundleCache.added: evicting " + e);
+            }
+            delete(directory.resolve(e));
+        }
+    }
+
+    private long transfer(Path file, OutputStream outputStream, boolean close)
+        throws IOException {
+        // opened before the stream is touched, so a missing file leaves the stream open for
+        // the caller to fetch into
+        FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = in.size();
+            WritableByteChannel target = outputStream instanceof FileOutputStream
+                                         ? ((FileOutputStream) outputStream).getChannel()
+                                         : Channels.newChannel(outputStream);
+            long position = 0;
+            while (position < length) {
+                position += in.transferTo(position, length - position, target);
+            }
+            outputStream.flush();
+            return length;
+        } finally {
+            try {
+                in.close();
+            } finally {
+                if (close) {
+                    outputStream.close();
+                }
+            }
+        }
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName()
+                                      .toString();
+                if (fileName.endsWith(SUFFIX)) {
+                    files.add(file);
+                } else if (fileName.endsWith(TMP_SUFFIX)
+                    && now - Files.getLastModifiedTime(file)
+                                  .toMillis() > TMP_AGE) {
+                    // left over from a download that did not finish
+                    delete(file);
+                }
+            }
+        }
+        Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        for (Path file : files) {
+            attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+        }
+        files.sort(Comparator.comparing(f -> attributes.get(f)
+                                                       .lastModifiedTime()));
+        for (Path file : files) {
+            added(file.getFileName()
+                      .toString(), attributes.get(file)
+                                             .size());
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("BundleCache: could not delete " + file + ": " + e);
+        }
+    }
+
+    private static SimbaException toSimbaException(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        if (e instanceof SimbaException) {
+            return (SimbaException) e;
+        }
+        return new SimbaException(SimbaException.SimbaError.EXECUTION_ERROR, e);
+    }
+
+    private static String name(String bundleHash, String fileName) {
+        String key = fileName == null ? bundleHash : bundleHash + "/" + fileName;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                                         .digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2 + SUFFIX.length());
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+                  .append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.append(SUFFIX)
+                     .toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stops a fetcher closing a stream the caller wants left open.
+     */
+    private static class UnclosableOutputStream extends FilterOutputStream {
+
+        private UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
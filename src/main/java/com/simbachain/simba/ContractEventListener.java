@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import com.simbachain.SimbaException;
+
+/**
+ * Receives the events of an {@link EventSubscription}. Events are delivered one at a time on a
+ * pool thread, in creation order for each event name.
+ */
+public interface ContractEventListener {
+
+    /**
+     * Called for each new event.
+     *
+     * @param event the event.
+     */
+    void onEvent(TransactionEvent event);
+
+    /**
+     * Called when polling for events fails. Polling continues on the next interval.
+     *
+     * @param e the error.
+     */
+    default void onError(SimbaException e) {
+    }
+
+    /**
+     * Called with true when the subscription's buffer fills, which stops the shared poller
+     * fetching events until the listener catches up, and with false once the buffer has
+     * drained. Events are held back, not dropped.
+     *
+     * @param saturated whether the buffer is full.
+     */
+    default void onBackpressure(boolean saturated) {
+    }
+}
@@ -25,13 +25,29 @@ package com.simbachain.simba;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.simbachain.SimbaException;
 import com.simbachain.auth.AccessToken;
 import com.simbachain.simba.gen.Builder;
@@ -39,6 +55,9 @@ import com.simbachain.simba.management.BlockchainIdentities;
 import com.simbachain.simba.management.TransactionCount;
 import com.simbachain.simba.management.User;
 import com.simbachain.wallet.Wallet;
+import com.simbachain.wallet.WalletPool;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
 import org.web3j.crypto.RawTransaction;
 
 /**
@@ -46,6 +65,11 @@ import org.web3j.crypto.RawTransaction;
  */
 public class ContractService extends Simba<AppConfig> implements FieldFiltered {
 
+    /**
+     * Default interval in milliseconds between polls for subscribed events.
+     */
+    public static final long DEFAULT_EVENT_POLL_INTERVAL = 2000;
+
     public enum Headers {
         HTTP_HEADER_SENDER("txn-sender"), HTTP_HEADER_SENDER_TOKEN("txn-sender-token"),
         HTTP_HEADER_NONCE("txn-nonce"), HTTP_HEADER_DELEGATE("txn-delegate"),
@@ -62,7 +86,34 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
             return value;
         }
     }
-    private Map<String, Wallet> wallets = new HashMap<>();
+    private static ExecutorService defaultSigningExecutor;
+
+    private final Map<String, Wallet> wallets = new ConcurrentHashMap<>();
+    private volatile NonceManager nonceManager;
+    private volatile MetadataRegistry metadataRegistry;
+    private volatile BundleCache bundleCache;
+    private volatile ResponseCache responseCache = new ResponseCache();
+    private volatile long eventPollInterval = DEFAULT_EVENT_POLL_INTERVAL;
+    private volatile LocalStore localStore;
+    private volatile SubmissionLanes submissionLanes;
+    private volatile WalletPool walletPool;
+    private volatile Executor signingExecutor;
+    private volatile Executor eventExecutor;
+    private EventPoller eventPoller;
+    private final MetadataRegistry.MetadataLoader metadataLoader
+        = new MetadataRegistry.MetadataLoader() {
+        @Override
+        public Metadata load() throws SimbaException {
+            return fetchMetadata();
+        }
+
+        @Override
+        public MetadataRegistry.Fetched load(String etag, String lastModified)
+            throws SimbaException {
+            return fetchMetadata(etag, lastModified);
+        }
+    };
+    private final String apiPath;
 
     /**
      * Constructor overrriden by subclasses.
@@ -73,6 +124,8 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
      */
     public ContractService(String endpoint, String contract, AppConfig config) {
         super(endpoint, contract, config);
+        this.apiPath = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_API,
+            getConfig().getAppName(), getContract());
     }
 
     /**
@@ -82,19 +135,94 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
      * @param contract the name of the contract or the appname, e.g. mycontract
      * @param config   used by subclasses.
      * @param wallets  A map of wallets to use for client side signing keyed to their address.
+     *                 The wallets are copied, so later changes to the map are not seen.
      */
     public ContractService(String endpoint,
         String contract,
         AppConfig config,
         Map<String, Wallet> wallets) {
         this(endpoint, contract, config);
-        this.wallets = wallets;
+        this.wallets.putAll(wallets);
     }
 
+    /**
+     * Get the contract metadata from the metadata registry, which fetches it only if no other
+     * service has already done so.
+     *
+     * @return the metadata.
+     * @throws SimbaException if the metadata cannot be fetched.
+     */
     @Override
     protected com.simbachain.simba.Metadata loadMetadata() throws SimbaException {
-        return this.get(getApiPath(), jsonResponseHandler(new TypeReference<Metadata>() {
-        }));
+        return getMetadataRegistry().get(apiPath, metadataLoader);
+    }
+
+    protected com.simbachain.simba.Metadata fetchMetadata() throws SimbaException {
+        return this.get(apiPath, jsonResponseHandler(Mappers.METADATA));
+    }
+
+    /**
+     * Fetch the contract metadata unless it is unchanged since the version with the given
+     * validators, which the server then answers with 304 Not Modified and no body.
+     *
+     * @param etag         the ETag of the version held, or null.
+     * @param lastModified the Last-Modified date of the version held, or null.
+     * @return the metadata and its validators, or not modified.
+     * @throws SimbaException if the metadata cannot be fetched.
+     */
+    protected MetadataRegistry.Fetched fetchMetadata(String etag, String lastModified)
+        throws SimbaException {
+        Map<String, String> headers = new HashMap<>();
+        if (etag != null) {
+            headers.put("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            headers.put("If-Modified-Since", lastModified);
+        }
+        ObjectReader reader = readerFor(Mappers.METADATA);
+        return this.get(apiPath, headers, response -> {
+            if (response.getStatusLine()
+                        .getStatusCode() == 304) {
+                return MetadataRegistry.Fetched.notModified();
+            }
+            Metadata metadata = readJson(response, reader::readValue);
+            return new MetadataRegistry.Fetched(metadata, header(response, "ETag"),
+                header(response, "Last-Modified"));
+        });
+    }
+
+    private static String header(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    /**
+     * Get the app metadata, as revalidated by the metadata registry since init() was called.
+     *
+     * @return application metadata.
+     */
+    @Override
+    public Metadata getMetadata() {
+        Metadata metadata = this.metadata;
+        if (metadata == null) {
+            return null;
+        }
+        Metadata current = getMetadataRegistry().peek(apiPath, metadataLoader);
+        return current == null ? metadata : current;
+    }
+
+    public MetadataRegistry getMetadataRegistry() {
+        MetadataRegistry registry = this.metadataRegistry;
+        return registry == null ? MetadataRegistry.getDefault() : registry;
+    }
+
+    /**
+     * Set the metadata registry. This must be called before init() to take effect.
+     *
+     * @param metadataRegistry the registry, or null to use the default registry.
+     */
+    public void setMetadataRegistry(MetadataRegistry metadataRegistry) {
+        this.metadataRegistry = metadataRegistry;
     }
 
     public Metadata getContractInfo() {
@@ -109,9 +237,142 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         this.wallets.put(wallet.getAddress(), wallet);
     }
 
+    private static synchronized ExecutorService getDefaultSigningExecutor() {
+        if (defaultSigningExecutor == null) {
+            defaultSigningExecutor = Executors.newFixedThreadPool(Runtime.getRuntime()
+                                                                         .availableProcessors(),
+                r -> {
+                    Thread t = new Thread(r, "simba-signing");
+                    t.setDaemon(true);
+                    return t;
+                });
+        }
+        return defaultSigningExecutor;
+    }
+
+    public Executor getSigningExecutor() {
+        Executor executor = this.signingExecutor;
+        return executor == null ? getDefaultSigningExecutor() : executor;
+    }
+
+    /**
+     * Set the executor that async calls sign transactions on, so that signing does not hold up
+     * the HTTP client's I/O threads. Calls made on submission lanes sign on the lanes' executor.
+     * Bulk submissions also start each call after the first on this executor.
+     *
+     * @param signingExecutor the executor, or null to use a shared pool of daemon threads.
+     */
+    public void setSigningExecutor(Executor signingExecutor) {
+        this.signingExecutor = signingExecutor;
+    }
+
+    public SubmissionLanes getSubmissionLanes() {
+        return submissionLanes;
+    }
+
+    /**
+     * Set the lanes that order method calls for each txn-sender. With lanes set, calls with a
+     * txn-sender header are made one at a time per sender, in the order they are made, while
+     * calls for different senders run in parallel. Lanes can be shared between services.
+     *
+     * @param submissionLanes the lanes, or null to make calls as soon as they are requested.
+     */
+    public void setSubmissionLanes(SubmissionLanes submissionLanes) {
+        this.submissionLanes = submissionLanes;
+    }
+
+    public WalletPool getWalletPool() {
+        return walletPool;
+    }
+
+    /**
+     * Set the pool of accounts that callMethodFromPool makes calls from. The pool's wallets
+     * are added to the service's wallets.
+     *
+     * @param walletPool the pool, or null to remove it. Removing a pool leaves its wallets.
+     */
+    public void setWalletPool(WalletPool walletPool) {
+        if (walletPool != null) {
+            for (String address : walletPool.getAddresses()) {
+                this.wallets.put(address, walletPool.getWallet(address));
+            }
+        }
+        this.walletPool = walletPool;
+    }
+
+    public NonceManager getNonceManager() {
+        return nonceManager;
+    }
+
+    /**
+     * Manage nonces on the client for client side signed transactions. When set, calls with a
+     * txn-sender header and no txn-nonce header are sent with the next nonce for the sender.
+     *
+     * @param nonceManager the nonce manager, or null to let the server assign nonces.
+     */
+    public void setNonceManager(NonceManager nonceManager) {
+        this.nonceManager = nonceManager;
+    }
+
+    public BundleCache getBundleCache() {
+        return bundleCache;
+    }
+
+    /**
+     * Cache bundles and bundle files on disk. A cache can be shared by several services.
+     *
+     * @param bundleCache the cache, or null to download bundles on every call.
+     */
+    public void setBundleCache(BundleCache bundleCache) {
+        this.bundleCache = bundleCache;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Set the cache for manifests and finished transactions. Services have their own cache
+     * by default.
+     *
+     * @param responseCache the cache, or null to always fetch from the server.
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    public LocalStore getLocalStore() {
+        return localStore;
+    }
+
+    /**
+     * Set a local store for {@link #findTransactions(String, Query.Params)} and
+     * {@link #findTransactionEvents(String, Query.Params)} to answer from. A store holds one
+     * contract's data, so should only be set on services for the same contract.
+     *
+     * @param localStore the store, or null to always query the server.
+     */
+    public void setLocalStore(LocalStore localStore) {
+        this.localStore = localStore;
+    }
+
+    /**
+     * Copy the transactions, and the events of the given names, created since the last sync
+     * into the local store. Call this periodically, e.g. from a scheduled task.
+     *
+     * @param eventNames the names of the events to keep.
+     * @throws SimbaException if there is no local store or the data cannot be fetched.
+     */
+    public void syncLocalStore(String... eventNames) throws SimbaException {
+        LocalStore store = this.localStore;
+        if (store == null) {
+            throw new SimbaException("No local store set", SimbaException.SimbaError.MESSAGE_ERROR);
+        }
+        store.sync(this, Arrays.asList(eventNames));
+    }
+
     public String getApiPath() {
-        return Urls.url(getEndpoint(), Urls.PathName.CONTRACT_API, getConfig().getAppName(),
-            getContract());
+        return apiPath;
     }
 
     public User whoami() throws SimbaException {
@@ -143,10 +404,101 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         if (log.isDebugEnabled()) {
             log.debug("ENTER: ContractService.getTransaction: " + "txnId = [" + txnId + "]");
         }
+        ResponseCache cache = this.responseCache;
+        if (cache != null) {
+            Transaction cached = cache.getTransaction(txnId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.ORG_TXN,
+            getConfig().getOrganisationId(), txnId);
+        Transaction txn = withMethodParameters(
+            this.get(endpoint, jsonResponseHandler(Mappers.TRANSACTION)));
+        if (cache != null) {
+            cache.putTransaction(txn);
+        }
+        return txn;
+    }
+
+    /**
+     * Get a Transaction given a transaction ID without blocking the calling thread.
+     *
+     * @param txnId a transaction ID
+     * @return a future that completes with the Transaction.
+     */
+    @Override
+    public CompletableFuture<Transaction> getTransactionAsync(String txnId) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.getTransactionAsync: " + "txnId = [" + txnId + "]");
+        }
+        ResponseCache cache = this.responseCache;
+        if (cache != null) {
+            Transaction cached = cache.getTransaction(txnId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.ORG_TXN,
             getConfig().getOrganisationId(), txnId);
-        Transaction txn = this.get(endpoint, jsonResponseHandler(new TypeReference<Transaction>() {
-        }));
+        return this.getAsync(endpoint, jsonResponseHandler(Mappers.TRANSACTION))
+                   .thenApply(txn -> {
+                       Transaction ret = withMethodParameters(txn);
+                       if (cache != null) {
+                           cache.putTransaction(ret);
+                       }
+                       return ret;
+                   });
+    }
+
+    /**
+     * Get several transactions with a single query on the organisation's transactions,
+     * filtered by ID.
+     *
+     * @param txnIds transaction IDs
+     * @return a future that completes with the transactions found, in no particular order.
+     */
+    @Override
+    public CompletableFuture<List<Transaction>> getTransactionsAsync(Collection<String> txnIds) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.getTransactionsAsync: " + "txnIds = [" + txnIds + "]");
+        }
+        ResponseCache cache = this.responseCache;
+        List<Transaction> cached = new ArrayList<>();
+        Collection<String> ids = txnIds;
+        if (cache != null) {
+            ids = new ArrayList<>();
+            for (String txnId : txnIds) {
+                Transaction txn = cache.getTransaction(txnId);
+                if (txn != null) {
+                    cached.add(txn);
+                } else {
+                    ids.add(txnId);
+                }
+            }
+            if (ids.isEmpty()) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.ORG_TXNS, Query.in("id", ids),
+            Urls.Paging.paging(0, ids.size()), getConfig().getOrganisationId());
+        return this.getAsync(endpoint, jsonResponseHandler(Mappers.TRANSACTION_PAGE))
+                   .thenApply(page -> {
+                       List<Transaction> txns = new ArrayList<>(cached);
+                       if (page.getResults() != null) {
+                           for (Transaction txn : page.getResults()) {
+                               Transaction ret = withMethodParameters(txn);
+                               if (cache != null) {
+                                   cache.putTransaction(ret);
+                               }
+                               txns.add(ret);
+                           }
+                       }
+                       return txns;
+                   });
+    }
+
+    private Transaction withMethodParameters(Transaction txn) {
         String method = txn.getMethod();
         com.simbachain.simba.Method m = getMetadata().getMethod(method);
         if (m != null) {
@@ -162,12 +514,8 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
             getConfig().getAppName(), getContract(), method);
         ReturnObject<R> data = this.get(endpoint,
-            jsonResponseHandler(new TypeReference<ReturnObject<R>>() {
-            }));
-        CallReturn<R> methodResponse = new CallReturn<>(data.getRequestId(),
-            handleCast(data.getValue(), cls));
-        methodResponse.setStatus(data.getState());
-        methodResponse.setError(data.getError());
+            jsonResponseHandler(returnObjectType()));
+        CallReturn<R> methodResponse = toCallReturn(data, cls);
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.callGetter: returning " + methodResponse);
         }
@@ -182,15 +530,55 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
             asQueryParameters(params), getConfig().getAppName(), getContract(), method);
         ReturnObject<R> data = this.get(endpoint,
-            jsonResponseHandler(new TypeReference<ReturnObject<R>>() {
-            }));
+            jsonResponseHandler(returnObjectType()));
+        CallReturn<R> methodResponse = toCallReturn(data, cls);
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: ContractService.callGetter: returning " + methodResponse);
+        }
+        return methodResponse;
+    }
+
+    public <R> CompletableFuture<CallReturn<R>> callGetterAsync(String method, Class<R> cls) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.callGetterAsync: " + "method = [" + method + "]");
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
+            getConfig().getAppName(), getContract(), method);
+        return this.getAsync(endpoint, jsonResponseHandler(ContractService.<R>returnObjectType()))
+                   .thenApply(data -> toCallReturn(data, cls));
+    }
+
+    public <R> CompletableFuture<CallReturn<R>> callGetterAsync(String method,
+        Class<R> cls,
+        JsonData params) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.callGetterAsync: " + "method = [" + method + "]");
+        }
+        String endpoint;
+        try {
+            endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
+                asQueryParameters(params), getConfig().getAppName(), getContract(), method);
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+        return this.getAsync(endpoint, jsonResponseHandler(ContractService.<R>returnObjectType()))
+                   .thenApply(data -> toCallReturn(data, cls));
+    }
+
+    /**
+     * The value type is erased, so all getters share the ReturnObject&lt;Object&gt; reader.
+     * The value is cast to the requested type in toCallReturn.
+     */
+    @SuppressWarnings ("unchecked")
+    private static <R> TypeReference<ReturnObject<R>> returnObjectType() {
+        return (TypeReference<ReturnObject<R>>) (TypeReference<?>) Mappers.RETURN_OBJECT;
+    }
+
+    private <R> CallReturn<R> toCallReturn(ReturnObject<R> data, Class<R> cls) {
         CallReturn<R> methodResponse = new CallReturn<>(data.getRequestId(),
             handleCast(data.getValue(), cls));
         methodResponse.setStatus(data.getState());
         methodResponse.setError(data.getError());
-        if (log.isDebugEnabled()) {
-            log.debug("EXIT: ContractService.callGetter: returning " + methodResponse);
-        }
         return methodResponse;
     }
 
@@ -202,13 +590,13 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
                     return (R) new BigInteger(val.toString());
                 }
                 if (Long.class.isAssignableFrom(cls)) {
-                    return (R) new Long(val.toString());
+                    return (R) Long.valueOf(val.toString());
                 }
                 if (Integer.class.isAssignableFrom(cls)) {
-                    return (R) new Integer(val.toString());
+                    return (R) Integer.valueOf(val.toString());
                 }
                 if (Short.class.isAssignableFrom(cls)) {
-                    return (R) new Short(val.toString());
+                    return (R) Short.valueOf(val.toString());
                 }
             }
         }
@@ -277,29 +665,271 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
                 + "]");
         }
 
+        String signedTransaction = sign(raw, wallet);
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXN, getConfig().getAppName(),
+            transactionId);
+        Transaction txn = this.patch(endpoint, JsonData.with("transaction", signedTransaction),
+            jsonResponseHandler(Mappers.TRANSACTION));
+        CallResponse methodResponse = toCallResponse(txn);
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: ContractService.callMethod: returning " + methodResponse);
+        }
+        return methodResponse;
+    }
+
+    /**
+     * Sign a raw transaction returned by the server and submit it without blocking
+     * the calling thread. The transaction is signed on the signing executor.
+     *
+     * @param transactionId the transaction ID.
+     * @param raw           the raw transaction returned by the server.
+     * @param wallet        the wallet to sign with.
+     * @return a future that completes with the CallResponse.
+     */
+    public CompletableFuture<CallResponse> signAndSubmitAsync(String transactionId,
+        Map<String, Object> raw,
+        Wallet wallet) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.signAndSubmitAsync: "
+                + "transactionId = ["
+                + transactionId
+                + "]");
+        }
+        return CompletableFuture.completedFuture(wallet)
+                                .thenComposeAsync(w -> submitSigned(transactionId, raw, w),
+                                    getSigningExecutor());
+    }
+
+    /**
+     * Sign a raw transaction on the calling thread and submit it without blocking.
+     */
+    private CompletableFuture<CallResponse> submitSigned(String transactionId,
+        Map<String, Object> raw,
+        Wallet wallet) {
+        String signedTransaction;
+        try {
+            signedTransaction = sign(raw, wallet);
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXN, getConfig().getAppName(),
+            transactionId);
+        return this.patchAsync(endpoint, JsonData.with("transaction", signedTransaction),
+                       jsonResponseHandler(Mappers.TRANSACTION))
+                   .thenApply(this::toCallResponse);
+    }
+
+    private String sign(Map<String, Object> raw, Wallet wallet) throws SimbaException {
         RawTransaction rawTransaction = Signing.createSigningTransaction(raw);
         Object chainId = raw.get("chainId");
-        String signedTransaction;
         if (chainId instanceof Long) {
-            signedTransaction = wallet.sign(rawTransaction, (Long) chainId);
+            return wallet.sign(rawTransaction, (Long) chainId);
         } else {
-            signedTransaction = wallet.sign(rawTransaction);
+            return wallet.sign(rawTransaction);
         }
-        String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXN, getConfig().getAppName(),
-            transactionId);
-        Transaction txn = this.patch(endpoint, JsonData.with("transaction", signedTransaction),
-            jsonResponseHandler(new TypeReference<Transaction>() {
-            }));
+    }
+
+    private CallResponse toCallResponse(Transaction txn) {
         CallResponse methodResponse = new CallResponse(txn.getId());
         methodResponse.setStatus(txn.getState()
                                     .toString());
         methodResponse.setError(txn.getError());
-        if (log.isDebugEnabled()) {
-            log.debug("EXIT: ContractService.callMethod: returning " + methodResponse);
-        }
         return methodResponse;
     }
 
+    /**
+     * Get the wallet to sign a transaction with if the transaction is in the signing state
+     * and a sender was given in the headers.
+     *
+     * @param txn          the transaction returned by the server.
+     * @param headers      the client headers.
+     * @param signingState the state the server returns when it expects a signed transaction.
+     * @return the wallet or null if the transaction does not need client side signing.
+     * @throws SimbaException if a sender was given but no wallet matches it.
+     */
+    private Wallet getSigningWallet(Transaction txn,
+        Map<String, String> headers,
+        com.simbachain.simba.Transaction.State signingState) throws SimbaException {
+        String sender = headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue());
+        if (txn.getState() != signingState || sender == null) {
+            return null;
+        }
+        Wallet wallet = this.wallets.get(sender);
+        if (wallet == null) {
+            throw new SimbaException(String.format("No wallet matching %s", sender),
+                SimbaException.SimbaError.WALLET_NOT_FOUND);
+        }
+        return wallet;
+    }
+
+    /**
+     * Allocate a nonce for the sender if nonces are managed on the client.
+     *
+     * @param headers the client headers.
+     * @return a lease holding the headers to send.
+     * @throws SimbaException if the sender's transaction count cannot be retrieved.
+     */
+    private NonceLease leaseNonce(Map<String, String> headers) throws SimbaException {
+        NonceManager manager = this.nonceManager;
+        String sender = headers.get(Headers.HTTP_HEADER_SENDER.getValue());
+        if (manager == null || sender == null || headers.containsKey(
+            Headers.HTTP_HEADER_NONCE.getValue())) {
+            return new NonceLease(headers, null, null, sender, 0);
+        }
+        String blockchain = getMetadata().getNetwork();
+        long nonce = manager.acquire(blockchain, sender);
+        Map<String, String> sent = new HashMap<>(headers);
+        sent.put(Headers.HTTP_HEADER_NONCE.getValue(), Long.toString(nonce));
+        return new NonceLease(sent, manager, blockchain, sender, nonce);
+    }
+
+    /**
+     * A nonce allocated to one call. When the call completes the nonce is handed back if it
+     * cannot have been used, because the call failed before its request was sent. If the call
+     * failed after its request was sent, for example with a timeout, the transaction may still
+     * reach the chain, and a transaction the server reports as failed may have failed on chain,
+     * using the nonce. In both cases the sender is re-seeded from the server rather than the
+     * nonce being reused.
+     */
+    private static class NonceLease {
+        private final Map<String, String> headers;
+        private final NonceManager manager;
+        private final String blockchain;
+        private final String sender;
+        private final long nonce;
+        private volatile boolean sent;
+
+        private NonceLease(Map<String, String> headers,
+            NonceManager manager,
+            String blockchain,
+            String sender,
+            long nonce) {
+            this.headers = headers;
+            this.manager = manager;
+            this.blockchain = blockchain;
+            this.sender = sender;
+            this.nonce = nonce;
+        }
+
+        /**
+         * Record that the call's request is being sent.
+         *
+         * @return the headers to send.
+         */
+        private Map<String, String> send() {
+            sent = true;
+            return headers;
+        }
+
+        private void complete(CallResponse response, Throwable error) {
+            if (manager == null) {
+                return;
+            }
+            if (error != null) {
+                if (sent) {
+                    manager.resync(blockchain, sender);
+                } else {
+                    manager.failed(blockchain, sender, nonce);
+                }
+            } else if (Transaction.State.FAILED.name()
+                                               .equals(response.getStatus())) {
+                manager.resync(blockchain, sender);
+            }
+        }
+    }
+
+    /**
+     * Sign and submit a POSTed transaction if it needs client side signing. This signs on the
+     * calling thread, so is run on the signing or lanes executor rather than on an I/O thread.
+     */
+    private CompletableFuture<CallResponse> completeCall(Transaction txn,
+        Map<String, String> headers,
+        com.simbachain.simba.Transaction.State signingState) {
+        Wallet wallet;
+        try {
+            wallet = getSigningWallet(txn, headers, signingState);
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+        if (wallet != null) {
+            return submitSigned(txn.getId(), txn.getRawTransaction(), wallet);
+        }
+        return CompletableFuture.completedFuture(toCallResponse(txn));
+    }
+
+    /**
+     * Make a method call, on the sender's lane if submission lanes are set and the call has a
+     * txn-sender header.
+     */
+    private CompletableFuture<CallResponse> invokeAsync(Urls.PathName path,
+        String method,
+        JsonData parameters,
+        Map<String, String> headers,
+        com.simbachain.simba.Transaction.State signingState,
+        UploadFile... files) {
+        try {
+            validateParameters(getMetadata(), method, parameters, files.length > 0);
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+        String endpoint = Urls.url(getEndpoint(), path, getConfig().getAppName(), getContract(),
+            method);
+        SubmissionLanes lanes = this.submissionLanes;
+        String sender = headers.get(Headers.HTTP_HEADER_SENDER.getValue());
+        if (lanes == null || sender == null) {
+            return postLeased(endpoint, parameters, headers, files).thenComposeAsync(
+                posted -> completeLeased(posted, headers, signingState), getSigningExecutor());
+        }
+        // the nonce is leased in the lane, so that the sender's nonces are used in order
+        return lanes.submit(sender, () -> postLeased(endpoint, parameters, headers, files),
+            posted -> completeLeased(posted, headers, signingState));
+    }
+
+    private CompletableFuture<Posted> postLeased(String endpoint,
+        JsonData parameters,
+        Map<String, String> headers,
+        UploadFile... files) {
+        NonceLease lease;
+        try {
+            lease = leaseNonce(headers);
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+        return this.postAsync(endpoint, parameters, jsonResponseHandler(Mappers.TRANSACTION),
+                       lease.send(), files)
+                   .whenComplete((txn, e) -> {
+                       if (e != null) {
+                           lease.complete(null, e);
+                       }
+                   })
+                   .thenApply(txn -> new Posted(txn, lease));
+    }
+
+    private CompletableFuture<CallResponse> completeLeased(Posted posted,
+        Map<String, String> headers,
+        com.simbachain.simba.Transaction.State signingState) {
+        return completeCall(posted.txn, headers, signingState).whenComplete(
+            posted.lease::complete);
+    }
+
+    private static class Posted {
+        private final Transaction txn;
+        private final NonceLease lease;
+
+        private Posted(Transaction txn, NonceLease lease) {
+            this.txn = txn;
+            this.lease = lease;
+        }
+    }
+
+    /**
+     * @return true if the call should be made on a submission lane.
+     */
+    private boolean isLaned(Map<String, String> headers) {
+        return this.submissionLanes != null && headers.get(
+            Headers.HTTP_HEADER_SENDER.getValue()) != null;
+    }
+
     @Override
     public CallResponse callMethod(String method,
         JsonData parameters,
@@ -318,33 +948,229 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
                 + f
                 + "]");
         }
+        if (isLaned(headers)) {
+            try {
+                return callMethodAsync(method, parameters, headers, files).join();
+            } catch (CompletionException e) {
+                throw getException("POST", e);
+            }
+        }
         validateParameters(getMetadata(), method, parameters, files.length > 0);
 
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
             getConfig().getAppName(), getContract(), method);
-        Transaction txn = this.post(endpoint, parameters,
-            jsonResponseHandler(new TypeReference<Transaction>() {
-            }), headers, files);
-        if (txn.getState() == com.simbachain.simba.Transaction.State.PENDING
-            && headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue()) != null) {
-            Wallet wallet = this.wallets.get(
-                headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue()));
-            if (wallet == null) {
-                throw new SimbaException(String.format("No wallet matching %s",
-                    headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue())),
-                    SimbaException.SimbaError.WALLET_NOT_FOUND);
+        NonceLease lease = leaseNonce(headers);
+        CallResponse methodResponse;
+        try {
+            Transaction txn = this.post(endpoint, parameters,
+                jsonResponseHandler(Mappers.TRANSACTION), lease.send(), files);
+            Wallet wallet = getSigningWallet(txn, headers,
+                com.simbachain.simba.Transaction.State.PENDING);
+            if (wallet != null) {
+                methodResponse = signAndSubmit(txn.getId(), txn.getRawTransaction(), wallet);
+            } else {
+                methodResponse = toCallResponse(txn);
             }
-            Map<String, Object> raw = txn.getRawTransaction();
-            return signAndSubmit(txn.getId(), raw, wallet);
-        } else {
-            CallResponse methodResponse = new CallResponse(txn.getId());
-            methodResponse.setStatus(txn.getState()
-                                        .toString());
-            methodResponse.setError(txn.getError());
-            if (log.isDebugEnabled()) {
-                log.debug("EXIT: ContractService.callMethod: returning " + methodResponse);
-            }
-            return methodResponse;
+        } catch (SimbaException | RuntimeException e) {
+            lease.complete(null, e);
+            throw e;
+        }
+        lease.complete(methodResponse, null);
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: ContractService.callMethod: returning " + methodResponse);
+        }
+        return methodResponse;
+    }
+
+    /**
+     * Invoke a method without blocking the calling thread. If the txn-sender header is set
+     * the transaction is signed with the matching wallet and submitted once the server
+     * returns it.
+     *
+     * @param method     The method name
+     * @param parameters The parameters
+     * @param files      optional list of UploadFile objects
+     * @return a future that completes with the CallResponse.
+     */
+    public CompletableFuture<CallResponse> callMethodAsync(String method,
+        JsonData parameters,
+        UploadFile... files) {
+        return this.callMethodAsync(method, parameters, new HashMap<>(), files);
+    }
+
+    /**
+     * Invoke a method without blocking the calling thread. If the txn-sender header is set
+     * the transaction is signed with the matching wallet and submitted once the server
+     * returns it.
+     *
+     * @param method     The method name
+     * @param parameters The parameters
+     * @param headers    Client provided headers. Auth headers should not be included.
+     * @param files      optional list of UploadFile objects
+     * @return a future that completes with the CallResponse.
+     */
+    public CompletableFuture<CallResponse> callMethodAsync(String method,
+        JsonData parameters,
+        Map<String, String> headers,
+        UploadFile... files) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.callMethodAsync: " + "method = [" + method + "]");
+        }
+        return invokeAsync(Urls.PathName.CONTRACT_METHOD, method, parameters, headers,
+            com.simbachain.simba.Transaction.State.PENDING, files);
+    }
+
+    /**
+     * Invoke a method from the account in the wallet pool with the fewest calls in flight,
+     * without blocking the calling thread. The call is made, and signed with the account's
+     * wallet, as by {@link #callMethodAsync(String, JsonData, Map, UploadFile...)} with the
+     * account as the txn-sender.
+     *
+     * @param method     The method name
+     * @param parameters The parameters
+     * @param headers    Client provided headers. Auth headers should not be included.
+     * @param files      optional list of UploadFile objects
+     * @return a future that completes with the CallResponse.
+     */
+    public CompletableFuture<CallResponse> callMethodFromPoolAsync(String method,
+        JsonData parameters,
+        Map<String, String> headers,
+        UploadFile... files) {
+        WalletPool pool = this.walletPool;
+        if (pool == null) {
+            return failed(new SimbaException("No wallet pool set",
+                SimbaException.SimbaError.WALLET_NOT_FOUND));
+        }
+        String sender = pool.acquire();
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.callMethodFromPoolAsync: "
+                + "method = ["
+                + method
+                + "], sender = ["
+                + sender
+                + "]");
+        }
+        Map<String, String> sent = new HashMap<>(headers);
+        sent.put(Headers.HTTP_HEADER_SENDER.getValue(), sender);
+        return callMethodAsync(method, parameters, sent, files).whenComplete(
+            (response, e) -> pool.release(sender));
+    }
+
+    public CompletableFuture<CallResponse> callMethodFromPoolAsync(String method,
+        JsonData parameters,
+        UploadFile... files) {
+        return this.callMethodFromPoolAsync(method, parameters, new HashMap<>(), files);
+    }
+
+    /**
+     * Invoke a method from the account in the wallet pool with the fewest calls in flight.
+     * See {@link #callMethodFromPoolAsync(String, JsonData, Map, UploadFile...)}.
+     *
+     * @param method     The method name
+     * @param parameters The parameters
+     * @param headers    Client provided headers. Auth headers should not be included.
+     * @param files      optional list of UploadFile objects
+     * @return the CallResponse.
+     * @throws SimbaException if no pool is set or the call fails.
+     */
+    public CallResponse callMethodFromPool(String method,
+        JsonData parameters,
+        Map<String, String> headers,
+        UploadFile... files) throws SimbaException {
+        try {
+            return callMethodFromPoolAsync(method, parameters, headers, files).join();
+        } catch (CompletionException e) {
+            throw getException("POST", e);
+        }
+    }
+
+    /**
+     * Invoke a method using the sync endpoint without blocking the calling thread.
+     *
+     * @param method     The method name
+     * @param parameters The parameters
+     * @param files      optional list of UploadFile objects
+     * @return a future that completes with the CallResponse.
+     */
+    public CompletableFuture<CallResponse> callMethodSyncAsync(String method,
+        JsonData parameters,
+        UploadFile... files) {
+        return this.callMethodSyncAsync(method, parameters, new HashMap<>(), files);
+    }
+
+    /**
+     * Invoke a method using the sync endpoint without blocking the calling thread.
+     *
+     * @param method     The method name
+     * @param parameters The parameters
+     * @param headers    Client provided headers. Auth headers should not be included.
+     * @param files      optional list of UploadFile objects
+     * @return a future that completes with the CallResponse.
+     */
+    public CompletableFuture<CallResponse> callMethodSyncAsync(String method,
+        JsonData parameters,
+        Map<String, String> headers,
+        UploadFile... files) {
+        if (log.isDebugEnabled()) {
+            log.debug(
+                "ENTER: ContractService.callMethodSyncAsync: " + "method = [" + method + "]");
+        }
+        return invokeAsync(Urls.PathName.CONTRACT_METHOD_SYNC, method, parameters, headers,
+            com.simbachain.simba.Transaction.State.SUBMITTED, files);
+    }
+
+    /**
+     * Submit many method calls, with at most concurrency calls in flight. Calls with the same
+     * txn-sender header are made one at a time in the order given, so that their nonces are
+     * used in order, while calls for different senders, or with no sender, run in parallel.
+     * Each call is made as by {@link #callMethodAsync(String, JsonData, Map, UploadFile...)},
+     * so is signed and submitted by the client if a wallet is set for its sender.
+     * <p>
+     * The source is read as calls complete, so it can be a long stream. Calls after the first
+     * are started on the {@link #setSigningExecutor(Executor) signing executor}.
+     *
+     * @param submissions the calls to make.
+     * @param concurrency the maximum number of calls in flight.
+     * @return a future completing when all calls have, with the outcome of each. It only
+     * completes exceptionally if reading the submissions fails.
+     */
+    public CompletableFuture<BulkResult> submitAllAsync(Iterator<Submission> submissions,
+        int concurrency) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.submitAllAsync: concurrency = [" + concurrency + "]");
+        }
+        if (concurrency < 1) {
+            return failed(new SimbaException("Concurrency must be positive",
+                SimbaException.SimbaError.MESSAGE_ERROR));
+        }
+        return new BulkSubmitter(this, submissions, concurrency, getSigningExecutor()).start();
+    }
+
+    public CompletableFuture<BulkResult> submitAllAsync(Collection<Submission> submissions,
+        int concurrency) {
+        return submitAllAsync(submissions.iterator(), concurrency);
+    }
+
+    public CompletableFuture<BulkResult> submitAllAsync(Stream<Submission> submissions,
+        int concurrency) {
+        return submitAllAsync(submissions.iterator(), concurrency);
+    }
+
+    /**
+     * Submit many method calls and wait for them all to complete. See
+     * {@link #submitAllAsync(Iterator, int)}.
+     *
+     * @param submissions the calls to make.
+     * @param concurrency the maximum number of calls in flight.
+     * @return the outcome of each call, and throughput and latency figures.
+     * @throws SimbaException if concurrency is not positive.
+     */
+    public BulkResult submitAll(Collection<Submission> submissions, int concurrency)
+        throws SimbaException {
+        try {
+            return submitAllAsync(submissions, concurrency).join();
+        } catch (CompletionException e) {
+            throw getException("POST", e);
         }
     }
 
@@ -366,34 +1192,38 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
                 + f
                 + "]");
         }
+        if (isLaned(headers)) {
+            try {
+                return callMethodSyncAsync(method, parameters, headers, files).join();
+            } catch (CompletionException e) {
+                throw getException("POST", e);
+            }
+        }
         validateParameters(getMetadata(), method, parameters, files.length > 0);
 
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD_SYNC,
             getConfig().getAppName(), getContract(), method);
-        Transaction txn = this.post(endpoint, parameters,
-            jsonResponseHandler(new TypeReference<Transaction>() {
-            }), headers, files);
-        if (txn.getState() == com.simbachain.simba.Transaction.State.SUBMITTED
-            && headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue()) != null) {
-            Wallet wallet = this.wallets.get(
-                headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue()));
-            if (wallet == null) {
-                throw new SimbaException(String.format("No wallet matching %s",
-                    headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue())),
-                    SimbaException.SimbaError.WALLET_NOT_FOUND);
-            }
-            Map<String, Object> raw = txn.getRawTransaction();
-            return signAndSubmit(txn.getId(), raw, wallet);
-        } else {
-            CallResponse methodResponse = new CallResponse(txn.getId());
-            methodResponse.setStatus(txn.getState()
-                                        .toString());
-            methodResponse.setError(txn.getError());
-            if (log.isDebugEnabled()) {
-                log.debug("EXIT: ContractService.callMethodSync: returning " + methodResponse);
+        NonceLease lease = leaseNonce(headers);
+        CallResponse methodResponse;
+        try {
+            Transaction txn = this.post(endpoint, parameters,
+                jsonResponseHandler(Mappers.TRANSACTION), lease.send(), files);
+            Wallet wallet = getSigningWallet(txn, headers,
+                com.simbachain.simba.Transaction.State.SUBMITTED);
+            if (wallet != null) {
+                methodResponse = signAndSubmit(txn.getId(), txn.getRawTransaction(), wallet);
+            } else {
+                methodResponse = toCallResponse(txn);
             }
-            return methodResponse;
+        } catch (SimbaException | RuntimeException e) {
+            lease.complete(null, e);
+            throw e;
+        }
+        lease.complete(methodResponse, null);
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: ContractService.callMethodSync: returning " + methodResponse);
         }
+        return methodResponse;
     }
 
     @Override
@@ -404,11 +1234,20 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
                 + bundleHash
                 + "]");
         }
+        ResponseCache cache = this.responseCache;
+        if (cache != null) {
+            Manifest cached = cache.getManifest(bundleHash);
+            if (cached != null) {
+                return cached;
+            }
+        }
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.BUNDLE_MANIFEST,
             getConfig().getAppName(), getContract(), bundleHash);
-        Manifest m = this.get(endpoint, jsonResponseHandler(new TypeReference<Manifest>() {
-        }));
+        Manifest m = this.get(endpoint, jsonResponseHandler(Mappers.MANIFEST));
         m.setHash(bundleHash);
+        if (cache != null) {
+            cache.putManifest(m);
+        }
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.getBundleMetadataForTransaction: returning " + m);
         }
@@ -444,6 +1283,11 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         }
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.BUNDLE, getConfig().getAppName(),
             getContract(), bundleHash);
+        BundleCache cache = this.bundleCache;
+        if (cache != null) {
+            return cache.get(bundleHash, null, outputStream, close,
+                out -> get(endpoint, streamResponseHandler(out, true)));
+        }
         return get(endpoint, streamResponseHandler(outputStream, close));
     }
 
@@ -466,8 +1310,115 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         }
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.BUNDLE_FILE,
             getConfig().getAppName(), getContract(), bundleHash, fileName);
+        BundleCache cache = this.bundleCache;
+        if (cache != null) {
+            return cache.get(bundleHash, fileName, outputStream, close,
+                out -> get(endpoint, streamResponseHandler(out, true)));
+        }
         return get(endpoint, streamResponseHandler(outputStream, close));
     }
+
+    /**
+     * Get the metadata for a bundle without blocking the calling thread.
+     *
+     * @param bundleHash The bundle hash
+     * @return a future that completes with the Manifest.
+     */
+    public CompletableFuture<Manifest> getBundleMetadataForTransactionAsync(String bundleHash) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.getBundleMetadataForTransactionAsync: "
+                + "bundleHash = ["
+                + bundleHash
+                + "]");
+        }
+        ResponseCache cache = this.responseCache;
+        if (cache != null) {
+            Manifest cached = cache.getManifest(bundleHash);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.BUNDLE_MANIFEST,
+            getConfig().getAppName(), getContract(), bundleHash);
+        return this.getAsync(endpoint, jsonResponseHandler(Mappers.MANIFEST))
+                   .thenApply(m -> {
+                       m.setHash(bundleHash);
+                       if (cache != null) {
+                           cache.putManifest(m);
+                       }
+                       return m;
+                   });
+    }
+
+    /**
+     * Write a bundle to the output stream as it arrives, without blocking the calling thread.
+     *
+     * @param bundleHash   The bundle hash
+     * @param outputStream An output stream to write the bundle file to.
+     * @param close        Whether or not to close the output stream on completion.
+     * @return a future that completes with the number of bytes written.
+     */
+    public CompletableFuture<Long> getBundleForTransactionAsync(String bundleHash,
+        OutputStream outputStream,
+        boolean close) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.getBundleForTransactionAsync: "
+                + "bundleHash = ["
+                + bundleHash
+                + "]");
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.BUNDLE, getConfig().getAppName(),
+            getContract(), bundleHash);
+        BundleCache cache = this.bundleCache;
+        if (cache != null) {
+            return cache.getAsync(bundleHash, null, outputStream, close,
+                out -> getAsync(endpoint, streamResponseConsumer(out, true)));
+        }
+        return getAsync(endpoint, streamResponseConsumer(outputStream, close));
+    }
+
+    public CompletableFuture<Long> getBundleForTransactionAsync(String bundleHash,
+        OutputStream outputStream) {
+        return getBundleForTransactionAsync(bundleHash, outputStream, true);
+    }
+
+    /**
+     * Write a file from a bundle to the output stream as it arrives,
+     * without blocking the calling thread.
+     *
+     * @param bundleHash   The bundle hash
+     * @param fileName     the file name
+     * @param outputStream An output stream to write the file to.
+     * @param close        Whether or not to close the output stream on completion.
+     * @return a future that completes with the number of bytes written.
+     */
+    public CompletableFuture<Long> getBundleFileForTransactionAsync(String bundleHash,
+        String fileName,
+        OutputStream outputStream,
+        boolean close) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.getBundleFileForTransactionAsync: "
+                + "bundleHash = ["
+                + bundleHash
+                + "], fileName = ["
+                + fileName
+                + "]");
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.BUNDLE_FILE,
+            getConfig().getAppName(), getContract(), bundleHash, fileName);
+        BundleCache cache = this.bundleCache;
+        if (cache != null) {
+            return cache.getAsync(bundleHash, fileName, outputStream, close,
+                out -> getAsync(endpoint, streamResponseConsumer(out, true)));
+        }
+        return getAsync(endpoint, streamResponseConsumer(outputStream, close));
+    }
+
+    public CompletableFuture<Long> getBundleFileForTransactionAsync(String bundleHash,
+        String fileName,
+        OutputStream outputStream) {
+        return getBundleFileForTransactionAsync(bundleHash, fileName, outputStream, true);
+    }
     
     public PagedResult<TransactionEvent> getTransactionEvents(String eventName, Query.Params params)
         throws SimbaException {
@@ -485,22 +1436,300 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_EVENTS, params,
             getConfig().getAppName(), getContract(), eventName);
         PagedResult<TransactionEvent> result = this.get(endpoint,
-            jsonResponseHandler(new TypeReference<PagedResult<TransactionEvent>>() {
-            }));
+            jsonResponseHandler(Mappers.EVENT_PAGE));
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.getTransactionEvents: returning " + result);
         }
         return result;
     }
     
+    /**
+     * Get events without blocking the calling thread.
+     *
+     * @param eventName the event name.
+     * @param params    query parameters.
+     * @return a future that completes with the first page of events.
+     */
+    public CompletableFuture<PagedResult<TransactionEvent>> getTransactionEventsAsync(
+        String eventName,
+        Query.Params params) {
+        if (!params.containsParam("event_name", eventName)) {
+            params = params.ex("event_name", eventName);
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_EVENTS, params,
+            getConfig().getAppName(), getContract(), eventName);
+        return this.getAsync(endpoint, jsonResponseHandler(Mappers.EVENT_PAGE));
+    }
+
+    /**
+     * Iterate over all events matching a query. Following pages are fetched while earlier
+     * ones are read. See {@link PageIterator}.
+     *
+     * @param eventName the event name.
+     * @param params    query parameters.
+     * @return an iterator over the events, which should be closed if not read to the end.
+     */
+    public PageIterator<TransactionEvent> iterateTransactionEvents(String eventName,
+        Query.Params params) {
+        return pages(getTransactionEventsAsync(eventName, params), Mappers.EVENT_PAGE);
+    }
+
+    public Stream<TransactionEvent> streamTransactionEvents(String eventName,
+        Query.Params params) {
+        return iterateTransactionEvents(eventName, params).stream();
+    }
+
+    /**
+     * Subscribe to new events of this contract, buffering up to
+     * {@link EventSubscription#DEFAULT_BUFFER_SIZE} events for the listener.
+     *
+     * @param listener   receives the events.
+     * @param eventNames the names of the events.
+     * @return the subscription, to be closed when no longer needed.
+     */
+    public EventSubscription subscribe(ContractEventListener listener, String... eventNames) {
+        return subscribe(Arrays.asList(eventNames), null, EventSubscription.DEFAULT_BUFFER_SIZE,
+            listener);
+    }
+
+    /**
+     * Subscribe to events of this contract. All subscriptions to this service share a single
+     * poller, which queries each subscribed event name once every
+     * {@link #getEventPollInterval()} milliseconds. Each event is passed to the listener once, in
+     * creation order for its event name. Events of different names are polled separately, so
+     * may interleave out of creation order.
+     *
+     * @param eventNames the names of the events.
+     * @param since      the creation time to receive events from, or null for events created
+     *                   from now. Subscribing to an event name that is already being polled
+     *                   continues from the poller's position instead.
+     * @param bufferSize the maximum number of events waiting to be passed to the listener.
+     * @param listener   receives the events.
+     * @return the subscription, to be closed when no longer needed.
+     */
+    public EventSubscription subscribe(Collection<String> eventNames,
+        Date since,
+        int bufferSize,
+        ContractEventListener listener) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.subscribe: "
+                + "eventNames = ["
+                + eventNames
+                + "], since = ["
+                + since
+                + "], bufferSize = ["
+                + bufferSize
+                + "]");
+        }
+        if (since == null) {
+            // created_on is to the second
+            since = new Date(System.currentTimeMillis() / 1000 * 1000);
+        }
+        EventPoller poller;
+        synchronized (this) {
+            if (eventPoller == null) {
+                eventPoller = new EventPoller(this);
+            }
+            poller = eventPoller;
+        }
+        return poller.add(eventNames, since, bufferSize, listener);
+    }
+
+    public long getEventPollInterval() {
+        return eventPollInterval;
+    }
+
+    /**
+     * Set how often event subscriptions poll. Takes effect when polling next starts, i.e. when
+     * subscribing after all previous subscriptions have been closed.
+     *
+     * @param eventPollInterval the interval in milliseconds.
+     */
+    public void setEventPollInterval(long eventPollInterval) {
+        this.eventPollInterval = eventPollInterval;
+    }
+
+    public Executor getEventExecutor() {
+        Executor executor = this.eventExecutor;
+        return executor == null ? EventPoller.getDefaultExecutor() : executor;
+    }
+
+    /**
+     * Set the executor that event subscriptions poll and call their listeners on. Each
+     * subscription's listener is called on one thread at a time, so a pool can serve many
+     * subscriptions. Takes effect for subscriptions made after it is set.
+     *
+     * @param eventExecutor the executor, or null to use a shared pool of daemon threads.
+     */
+    public void setEventExecutor(Executor eventExecutor) {
+        this.eventExecutor = eventExecutor;
+    }
+
+    /**
+     * Iterate over all of the app's transactions. Following pages are fetched while earlier
+     * ones are read. See {@link PageIterator}.
+     *
+     * @return an iterator over the transactions, which should be closed if not read to the end.
+     */
+    public PageIterator<Transaction> iterateTransactions() {
+        return pages(getTransactionsAsync(), Mappers.TRANSACTION_PAGE);
+    }
+
+    public Stream<Transaction> streamTransactions() {
+        return iterateTransactions().stream();
+    }
+
+    /**
+     * Iterate over all of the app's transactions matching a query.
+     *
+     * @param params query parameters.
+     * @return an iterator over the transactions, which should be closed if not read to the end.
+     */
+    public PageIterator<Transaction> iterateTransactions(Query.Params params) {
+        return pages(getTransactionsAsync(params), Mappers.TRANSACTION_PAGE);
+    }
+
+    /**
+     * Find all transactions matching a query. With a synced local store, transactions created
+     * up to the last sync come from the store and only later ones are fetched; otherwise all
+     * pages are fetched.
+     *
+     * @param method the method name, or null for transactions of any method.
+     * @param params the query.
+     * @return the matching transactions, oldest first.
+     * @throws SimbaException if the query is invalid or transactions cannot be fetched.
+     */
+    public List<Transaction> findTransactions(String method, Query.Params params)
+        throws SimbaException {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.findTransactions: "
+                + "method = ["
+                + method
+                + "], params = ["
+                + params
+                + "]");
+        }
+        if (method != null) {
+            // fields of the transaction itself, such as from_address, are not method parameters
+            Query.Params inputs = params.copy();
+            inputs.getParams()
+                  .removeIf(param -> !param.getName()
+                                           .startsWith("inputs."));
+            validateQueryParameters(getMetadata(), method, inputs);
+        }
+        LocalStore store = this.localStore;
+        Date cursor = store == null ? null : store.getTransactionCursor();
+        Map<String, Transaction> found = new LinkedHashMap<>();
+        Query.Params remote = params;
+        if (cursor != null) {
+            for (Transaction txn : store.findTransactions(method, params)) {
+                found.put(txn.getId(), txn);
+            }
+            remote = params.copy()
+                           .gte("created_on", cursor);
+        }
+        String endpoint;
+        if (method == null) {
+            endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXNS, remote,
+                getConfig().getAppName());
+        } else {
+            endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD, remote,
+                getConfig().getAppName(), getContract(), method);
+        }
+        try (PageIterator<Transaction> txns = pages(
+            this.getAsync(endpoint, jsonResponseHandler(Mappers.TRANSACTION_PAGE)),
+            Mappers.TRANSACTION_PAGE)) {
+            while (txns.hasNext()) {
+                Transaction txn = txns.next();
+                found.put(txn.getId(), txn);
+            }
+        } catch (UncheckedIOException e) {
+            throw getException("GET", e.getCause());
+        }
+        List<Transaction> result = new ArrayList<>(found.size());
+        for (Transaction txn : found.values()) {
+            result.add(getMetadata() == null ? txn : withMethodParameters(txn));
+        }
+        result.sort(Comparator.comparing(Transaction::getCreated,
+            Comparator.nullsFirst(Comparator.naturalOrder())));
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: ContractService.findTransactions: returning "
+                + result.size()
+                + " transactions");
+        }
+        return result;
+    }
+
+    /**
+     * Find all events matching a query, from the local store where it has synced the event
+     * name. See {@link #findTransactions(String, Query.Params)}.
+     *
+     * @param eventName the event name.
+     * @param params    the query.
+     * @return the matching events, oldest first.
+     * @throws SimbaException if events cannot be fetched.
+     */
+    public List<TransactionEvent> findTransactionEvents(String eventName, Query.Params params)
+        throws SimbaException {
+        LocalStore store = this.localStore;
+        Date cursor = store == null ? null : store.getEventCursor(eventName);
+        Map<String, TransactionEvent> found = new LinkedHashMap<>();
+        Query.Params remote = params.copy();
+        if (cursor != null) {
+            for (TransactionEvent event : store.findEvents(eventName, params)) {
+                found.put(event.getId(), event);
+            }
+            remote.gte("created_on", cursor);
+        }
+        try (PageIterator<TransactionEvent> events = iterateTransactionEvents(eventName,
+            remote)) {
+            while (events.hasNext()) {
+                TransactionEvent event = events.next();
+                found.put(event.getId(), event);
+            }
+        } catch (UncheckedIOException e) {
+            throw getException("GET", e.getCause());
+        }
+        List<TransactionEvent> result = new ArrayList<>(found.values());
+        result.sort(Comparator.comparing(TransactionEvent::getCreated,
+            Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Follow the app's transactions from a cursor persisted in a checkpoint file. See
+     * {@link TransactionTail}.
+     *
+     * @param checkpoint the checkpoint file, created on the first commit.
+     * @return a tail resuming from the checkpoint, if there is one.
+     * @throws SimbaException if the checkpoint exists but cannot be read.
+     */
+    public TransactionTail tailTransactions(Path checkpoint) throws SimbaException {
+        return new TransactionTail(this, checkpoint);
+    }
+
+    /**
+     * Iterate over all transactions of a method matching a query.
+     *
+     * @param method the method name.
+     * @param params query parameters.
+     * @return an iterator over the transactions, which should be closed if not read to the end.
+     */
+    public PageIterator<Transaction> iterateTransactions(String method, Query.Params params) {
+        return pages(getTransactionsAsync(method, params), Mappers.TRANSACTION_PAGE);
+    }
+
+    public Stream<Transaction> streamTransactions(String method, Query.Params params) {
+        return iterateTransactions(method, params).stream();
+    }
+
     public PagedResult<TransactionEvent> nextEvents(PagedResult<com.simbachain.simba.Transaction> results)
         throws SimbaException {
         if (results.getNext() == null) {
             return null;
         }
         PagedResult<TransactionEvent> result = this.get(results.getNext(),
-            jsonResponseHandler(new TypeReference<PagedResult<TransactionEvent>>() {
-            }));
+            jsonResponseHandler(Mappers.EVENT_PAGE));
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.nextEvents: returning " + result);
         }
@@ -513,8 +1742,7 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
             return null;
         }
         PagedResult<TransactionEvent> result = this.get(results.getPrevious(),
-            jsonResponseHandler(new TypeReference<PagedResult<TransactionEvent>>() {
-            }));
+            jsonResponseHandler(Mappers.EVENT_PAGE));
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.previousEvents: returning " + result);
         }
@@ -528,8 +1756,7 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         }
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXNS, getConfig().getAppName());
         PagedResult<Transaction> result = this.get(endpoint,
-            jsonResponseHandler(new TypeReference<PagedResult<Transaction>>() {
-            }));
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.getTransactions: returning " + result);
         }
@@ -552,14 +1779,63 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD, params,
             getConfig().getAppName(), getContract(), method);
         PagedResult<Transaction> result = this.get(endpoint,
-            jsonResponseHandler(new TypeReference<PagedResult<Transaction>>() {
-            }));
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.getTransactions: returning " + result);
         }
         return result;
     }
 
+    public CompletableFuture<PagedResult<Transaction>> getTransactionsAsync() {
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXNS, getConfig().getAppName());
+        return this.getAsync(endpoint,
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<Transaction>> getTransactionsAsync(Query.Params params) {
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXNS, params,
+            getConfig().getAppName());
+        return this.getAsync(endpoint,
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<Transaction>> getTransactionsAsync(String method,
+        Query.Params params) {
+        return getTransactionsAsync(method, params, null);
+    }
+
+    public CompletableFuture<PagedResult<Transaction>> getTransactionsAsync(String method,
+        Query.Params params,
+        List<String> fields) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: ContractService.getTransactionsAsync: "
+                + "method = ["
+                + method
+                + "], params = ["
+                + params
+                + "], fields = ["
+                + fields
+                + "]");
+        }
+        try {
+            validateQueryParameters(getMetadata(), method, params);
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+        String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
+            createQueryString(params, fields), getConfig().getAppName(), getContract(), method);
+        return this.getAsync(endpoint,
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<Transaction>> nextAsync(PagedResult<Transaction> results) {
+        if (results.getNext() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.getAsync(results.getNext(),
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
+    }
+
     @Override
     public PagedResult<Transaction> next(PagedResult<com.simbachain.simba.Transaction> results)
         throws SimbaException {
@@ -567,8 +1843,7 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
             return null;
         }
         PagedResult<Transaction> result = this.get(results.getNext(),
-            jsonResponseHandler(new TypeReference<PagedResult<Transaction>>() {
-            }));
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
         return result;
     }
 
@@ -579,8 +1854,7 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
             return null;
         }
         PagedResult<Transaction> result = this.get(results.getPrevious(),
-            jsonResponseHandler(new TypeReference<PagedResult<Transaction>>() {
-            }));
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
 
         return result;
     }
@@ -603,8 +1877,7 @@ public class ContractService extends Simba<AppConfig> implements FieldFiltered {
         String endpoint = Urls.url(getEndpoint(), Urls.PathName.CONTRACT_METHOD,
             createQueryString(params, fields), getConfig().getAppName(), getContract(), method);
         PagedResult<Transaction> result = this.get(endpoint,
-            jsonResponseHandler(new TypeReference<PagedResult<Transaction>>() {
-            }));
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE));
         if (log.isDebugEnabled()) {
             log.debug("EXIT: ContractService.getTransactions: returning " + result);
         }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Position in a stream of records ordered by creation time, used to fetch only the records
+ * created since. Creation times are to the second, so the IDs seen at the cursor's second are
+ * kept to skip them when the next query returns them again.
+ */
+class CreationCursor {
+
+    @JsonProperty
+    private Date time;
+    @JsonProperty
+    private Set<String> boundary = new HashSet<>();
+
+    CreationCursor() {
+    }
+
+    CreationCursor(Date time) {
+        this.time = time;
+    }
+
+    Date getTime() {
+        return time;
+    }
+
+    CreationCursor copy() {
+        CreationCursor copy = new CreationCursor(time);
+        copy.boundary.addAll(boundary);
+        return copy;
+    }
+
+    /**
+     * @return whether a record has not been seen, false if it has no creation time.
+     */
+    boolean isNew(Date created, String id) {
+        if (created == null) {
+            return false;
+        }
+        int order = created.compareTo(time);
+        return order > 0 || (order == 0 && !boundary.contains(id));
+    }
+
+    void advance(Date created, String id) {
+        if (created == null) {
+            return;
+        }
+        if (created.after(time)) {
+            time = created;
+            boundary.clear();
+        }
+        if (created.equals(time)) {
+            boundary.add(id);
+        }
+    }
+}
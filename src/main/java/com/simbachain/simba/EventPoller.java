@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls a contract's events for all of its {@link EventSubscription}s. Each event name
+ * subscribed to is queried once per interval from a cursor, the creation time of the newest
+ * event seen, skipping the IDs already seen at that time. New events are merged in creation
+ * order into a backlog that is handed to the subscriptions; while any interested subscription's
+ * buffer is full, the backlog is held and no further polls are made.
+ * <p>
+ * Polls and listeners run on the service's event executor. Listeners are not called, and
+ * nothing is handed to the executor, while the poller's lock is held.
+ */
+class EventPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPoller.class.getName());
+    private static final String CREATED = "created_on";
+    private static final ScheduledExecutorService scheduler = createScheduler();
+    private static ExecutorService defaultExecutor;
+
+    private final ContractService service;
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    // guarded by this
+    private final Map<String, CreationCursor> cursors = new HashMap<>();
+    private final Deque<TransactionEvent> backlog = new ArrayDeque<>();
+    private ScheduledFuture<?> task;
+
+    EventPoller(ContractService service) {
+        this.service = service;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simba-events-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @return a shared pool of daemon threads, with at least two so that a slow listener does
+     * not hold up polling on its own.
+     */
+    static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            int threads = Math.max(2, Runtime.getRuntime()
+                                             .availableProcessors());
+            defaultExecutor = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "simba-events");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return defaultExecutor;
+    }
+
+    synchronized EventSubscription add(Collection<String> eventNames,
+        Date since,
+        int bufferSize,
+        ContractEventListener listener) {
+        Executor executor = service.getEventExecutor();
+        EventSubscription subscription = new EventSubscription(this, new HashSet<>(eventNames),
+            bufferSize, listener, executor);
+        for (String name : eventNames) {
+            cursors.computeIfAbsent(name, n -> new CreationCursor(since));
+        }
+        subscriptions.add(subscription);
+        if (task == null) {
+            long interval = service.getEventPollInterval();
+            task = scheduler.scheduleWithFixedDelay(() -> executor.execute(this::tick), 0,
+                interval, TimeUnit.MILLISECONDS);
+        }
+        return subscription;
+    }
+
+    void remove(EventSubscription subscription) {
+        synchronized (this) {
+            subscriptions.remove(subscription);
+            Set<String> names = new HashSet<>();
+            for (EventSubscription s : subscriptions) {
+                names.addAll(s.getEventNames());
+            }
+            cursors.keySet()
+                   .retainAll(names);
+            backlog.removeIf(event -> !names.contains(event.getName()));
+            if (subscriptions.isEmpty() && task != null) {
+                task.cancel(false);
+                task = null;
+            }
+        }
+        deliver();
+    }
+
+    /**
+     * Called when a saturated subscription has drained.
+     */
+    void resume() {
+        deliver();
+    }
+
+    private void tick() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (deliver()) {
+                fetch();
+                deliver();
+            }
+        } catch (SimbaException e) {
+            log.warn("EventPoller.tick: polling events failed: " + e.getMessage());
+            for (EventSubscription subscription : subscriptions) {
+                subscription.error(e);
+            }
+        } catch (RuntimeException e) {
+            log.warn("EventPoller.tick: polling events failed", e);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * Hand the backlog to the subscriptions, in order, until it is empty or an interested
+     * subscription is full. Subscriptions given events start draining, and full ones signal
+     * backpressure, once the lock is released.
+     *
+     * @return true if the backlog is empty.
+     */
+    private boolean deliver() {
+        Set<EventSubscription> offered = new LinkedHashSet<>();
+        List<EventSubscription> full = new ArrayList<>();
+        boolean empty;
+        synchronized (this) {
+            empty = deliver(offered, full);
+        }
+        for (EventSubscription subscription : offered) {
+            subscription.drain();
+        }
+        for (EventSubscription subscription : full) {
+            subscription.full();
+        }
+        return empty;
+    }
+
+    // guarded by this
+    private boolean deliver(Set<EventSubscription> offered, List<EventSubscription> full) {
+        while (!backlog.isEmpty()) {
+            TransactionEvent event = backlog.peek();
+            for (EventSubscription subscription : subscriptions) {
+                if (subscription.wants(event) && !subscription.hasRoom()) {
+                    full.add(subscription);
+                }
+            }
+            if (!full.isEmpty()) {
+                return false;
+            }
+            for (EventSubscription subscription : subscriptions) {
+                if (subscription.wants(event)) {
+                    subscription.offer(event);
+                    offered.add(subscription);
+                }
+            }
+            backlog.poll();
+        }
+        return true;
+    }
+
+    private void fetch() throws SimbaException {
+        Map<String, CreationCursor> positions;
+        synchronized (this) {
+            positions = new HashMap<>();
+            for (Map.Entry<String, CreationCursor> entry : cursors.entrySet()) {
+                positions.put(entry.getKey(), entry.getValue()
+                                                   .copy());
+            }
+        }
+        List<TransactionEvent> events = new ArrayList<>();
+        for (Map.Entry<String, CreationCursor> entry : positions.entrySet()) {
+            if (subscriptions.isEmpty()) {
+                return;
+            }
+            String name = entry.getKey();
+            CreationCursor cursor = entry.getValue();
+            Set<String> seen = new HashSet<>();
+            try (PageIterator<TransactionEvent> page = service.iterateTransactionEvents(name,
+                Query.gte(CREATED, cursor.getTime()))) {
+                while (page.hasNext()) {
+                    TransactionEvent event = page.next();
+                    if (event.getId() == null || !seen.add(event.getId())
+                        || !cursor.isNew(event.getCreated(), event.getId())) {
+                        continue;
+                    }
+                    if (event.getName() == null) {
+                        event.setName(name);
+                    }
+                    events.add(event);
+                }
+            } catch (UncheckedIOException e) {
+                throw service.getException("GET", e.getCause());
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        events.sort(Comparator.comparing(TransactionEvent::getCreated,
+            Comparator.nullsFirst(Comparator.naturalOrder()))
+                              .thenComparing(TransactionEvent::getId));
+        synchronized (this) {
+            for (TransactionEvent event : events) {
+                CreationCursor cursor = cursors.get(event.getName());
+                if (cursor != null) {
+                    cursor.advance(event.getCreated(), event.getId());
+                    backlog.add(event);
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("EventPoller.fetch: " + events.size() + " new events");
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A listener's subscription to events of a contract, created by
+ * {@link ContractService#subscribe(ContractEventListener, String...)}. All subscriptions to a contract
+ * service share one poller. New events are put in each interested subscription's bounded buffer
+ * and passed to its listener in order. When a buffer is full the poller stops until the listener
+ * catches up, see {@link ContractEventListener#onBackpressure(boolean)}.
+ * <p>
+ * Close the subscription to stop receiving events.
+ */
+public class EventSubscription implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSubscription.class.getName());
+
+    /**
+     * Default number of events buffered for a listener.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    private final EventPoller poller;
+    private final Set<String> eventNames;
+    private final ContractEventListener listener;
+    private final Executor executor;
+    private final BlockingQueue<TransactionEvent> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean saturated = new AtomicBoolean();
+    private final LongAdder delivered = new LongAdder();
+    private volatile boolean closed;
+
+    EventSubscription(EventPoller poller,
+        Set<String> eventNames,
+        int bufferSize,
+        ContractEventListener listener,
+        Executor executor) {
+        this.poller = poller;
+        this.eventNames = Collections.unmodifiableSet(new LinkedHashSet<>(eventNames));
+        this.listener = listener;
+        this.executor = executor;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    public Set<String> getEventNames() {
+        return eventNames;
+    }
+
+    /**
+     * @return the number of events waiting to be passed to the listener.
+     */
+    public int getBuffered() {
+        return buffer.size();
+    }
+
+    /**
+     * @return the number of events passed to the listener.
+     */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * @return whether the buffer filled and has not yet drained.
+     */
+    public boolean isSaturated() {
+        return saturated.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stop receiving events. Buffered events are discarded.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            buffer.clear();
+            poller.remove(this);
+        }
+    }
+
+    boolean wants(TransactionEvent event) {
+        return !closed && eventNames.contains(event.getName());
+    }
+
+    /**
+     * Called by the poller, holding its lock, before offering an event. If this returns false
+     * the poller calls {@link #full()} once it has released the lock.
+     */
+    boolean hasRoom() {
+        return buffer.remainingCapacity() > 0;
+    }
+
+    /**
+     * Called by the poller, holding its lock, after {@link #hasRoom()}. It is the only
+     * producer. The poller calls {@link #drain()} once it has released the lock.
+     */
+    void offer(TransactionEvent event) {
+        buffer.offer(event);
+    }
+
+    /**
+     * Called by the poller when the buffer was full. Signals backpressure, then resumes the
+     * poller if the listener drained the buffer before the flag was set.
+     */
+    void full() {
+        if (saturated.compareAndSet(false, true)) {
+            if (log.isDebugEnabled()) {
+                log.debug("EventSubscription.full: buffer full for " + eventNames);
+            }
+            signal(true);
+            if (buffer.isEmpty() && saturated.compareAndSet(true, false)) {
+                signal(false);
+                poller.resume();
+            }
+        }
+    }
+
+    void error(SimbaException e) {
+        if (!closed) {
+            try {
+                listener.onError(e);
+            } catch (RuntimeException ex) {
+                log.warn("EventSubscription.error: listener threw", ex);
+            }
+        }
+    }
+
+    void drain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    private void run() {
+        try {
+            TransactionEvent event;
+            while (!closed && (event = buffer.poll()) != null) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    log.warn("EventSubscription.run: listener threw on event " + event.getId(), e);
+                }
+                delivered.increment();
+            }
+        } finally {
+            draining.set(false);
+        }
+        if (closed) {
+            return;
+        }
+        if (!buffer.isEmpty()) {
+            // an event arrived after the last poll but before draining was cleared
+            drain();
+        } else if (saturated.compareAndSet(true, false)) {
+            signal(false);
+            poller.resume();
+        }
+    }
+
+    private void signal(boolean full) {
+        try {
+            listener.onBackpressure(full);
+        } catch (RuntimeException e) {
+            log.warn("EventSubscription.signal: listener threw", e);
+        }
+    }
+}
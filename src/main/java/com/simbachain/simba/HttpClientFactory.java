@@ -22,24 +22,156 @@
 
 package com.simbachain.simba;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
 
 /**
- *
+ * Creates the HTTP client shared by services and token providers.
+ * <p>
+ * The default constructor uses <code>HttpClients.createSystem()</code>. To control connection
+ * pooling and timeouts, use the builder:
+ * <pre>
+ * HttpClientFactory factory = HttpClientFactory.builder()
+ *     .maxConnections(200)
+ *     .maxConnectionsPerRoute(100)
+ *     .connectTimeout(5000)
+ *     .socketTimeout(30000)
+ *     .build();
+ * </pre>
  */
 public class HttpClientFactory {
 
+    private final Builder settings;
+    private PoolingHttpClientConnectionManager connectionManager;
     private final CloseableHttpClient client;
-        
+    private CloseableHttpAsyncClient asyncClient;
+
     public HttpClientFactory() {
+        this.settings = null;
         this.client =  loadClient();
     }
-    
+
+    protected HttpClientFactory(Builder settings) {
+        this.settings = settings;
+        this.client = loadClient();
+    }
+
+    /**
+     * Create a builder for a pooled HTTP client factory.
+     *
+     * @return a new Builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
     protected CloseableHttpClient loadClient() {
-        return HttpClients.createSystem();
+        if (settings == null) {
+            return HttpClients.createSystem();
+        }
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                                                                    .register("http",
+                                                                        PlainConnectionSocketFactory.getSocketFactory())
+                                                                    .register("https",
+                                                                        SSLConnectionSocketFactory.getSystemSocketFactory())
+                                                                    .build();
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(
+            registry, null, null, null, settings.connectionTimeToLive, TimeUnit.MILLISECONDS);
+        manager.setMaxTotal(settings.maxConnections);
+        manager.setDefaultMaxPerRoute(settings.maxConnectionsPerRoute);
+        if (settings.validateAfterInactivity >= 0) {
+            manager.setValidateAfterInactivity(settings.validateAfterInactivity);
+        }
+        this.connectionManager = manager;
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(settings.connectTimeout)
+                                                   .setSocketTimeout(settings.socketTimeout)
+                                                   .setConnectionRequestTimeout(
+                                                       settings.connectionRequestTimeout)
+                                                   .build();
+        HttpClientBuilder builder = HttpClients.custom()
+                                               .useSystemProperties()
+                                               .setConnectionManager(manager)
+                                               .setDefaultRequestConfig(requestConfig)
+                                               .setKeepAliveStrategy(settings.keepAliveStrategy());
+        if (settings.evictExpiredConnections) {
+            builder.evictExpiredConnections();
+        }
+        if (settings.maxIdleTime > 0) {
+            builder.evictIdleConnections(settings.maxIdleTime, TimeUnit.MILLISECONDS);
+        }
+        return builder.build();
     }
-    
+
+    /**
+     * Create the non-blocking client. This is called the first time the async
+     * client is requested. Pool sizes and timeouts are taken from the builder if one was used.
+     *
+     * @return a CloseableHttpAsyncClient that has not yet been started.
+     */
+    protected CloseableHttpAsyncClient loadAsyncClient() {
+        if (settings == null) {
+            return HttpAsyncClients.createSystem();
+        }
+        try {
+            IOReactorConfig.Builder reactorConfig = IOReactorConfig.custom();
+            if (settings.ioThreads > 0) {
+                reactorConfig.setIoThreadCount(settings.ioThreads);
+            }
+            if (settings.connectTimeout >= 0) {
+                reactorConfig.setConnectTimeout(settings.connectTimeout);
+            }
+            if (settings.socketTimeout >= 0) {
+                reactorConfig.setSoTimeout(settings.socketTimeout);
+            }
+            PoolingNHttpClientConnectionManager manager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(reactorConfig.build()));
+            manager.setMaxTotal(settings.maxConnections);
+            manager.setDefaultMaxPerRoute(settings.maxConnectionsPerRoute);
+            RequestConfig requestConfig = RequestConfig.custom()
+                                                       .setConnectTimeout(settings.connectTimeout)
+                                                       .setSocketTimeout(settings.socketTimeout)
+                                                       .setConnectionRequestTimeout(
+                                                           settings.connectionRequestTimeout)
+                                                       .build();
+            HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                                                             .useSystemProperties()
+                                                             .setConnectionManager(manager)
+                                                             .setDefaultRequestConfig(
+                                                                 requestConfig)
+                                                             .setKeepAliveStrategy(
+                                                                 settings.keepAliveStrategy());
+            return builder.build();
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Could not create async HTTP client", e);
+        }
+    }
+
 
     /**
      * Return an HTTP client.
@@ -50,6 +182,237 @@ public class HttpClientFactory {
     public CloseableHttpClient getClient() {
         return client;
     }
-    
+
+    /**
+     * Return a started non-blocking HTTP client. A small number of I/O threads
+     * service all requests in flight, so callers are not blocked per request.
+     *
+     * @return a running CloseableHttpAsyncClient
+     * @see org.apache.http.impl.nio.client.CloseableHttpAsyncClient
+     */
+    public synchronized CloseableHttpAsyncClient getAsyncClient() {
+        if (asyncClient == null) {
+            asyncClient = loadAsyncClient();
+            asyncClient.start();
+        }
+        return asyncClient;
+    }
+
+    /**
+     * Get the totals for the connection pool. Only available when the factory was
+     * created using the builder.
+     *
+     * @return the pool totals, or null if the client is not using a managed pool.
+     */
+    public PoolStats getPoolStats() {
+        if (connectionManager == null) {
+            return null;
+        }
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Get leased, pending and available connection counts for each route known to the pool.
+     * Only available when the factory was created using the builder.
+     *
+     * @return a map of route to pool stats. Empty if the client is not using a managed pool.
+     */
+    public Map<HttpRoute, PoolStats> getRoutePoolStats() {
+        Map<HttpRoute, PoolStats> stats = new HashMap<>();
+        if (connectionManager != null) {
+            for (HttpRoute route : connectionManager.getRoutes()) {
+                stats.put(route, connectionManager.getStats(route));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Close the client and release pooled connections.
+     *
+     * @throws IOException if the client fails to close.
+     */
+    public void close() throws IOException {
+        client.close();
+        synchronized (this) {
+            if (asyncClient != null) {
+                asyncClient.close();
+                asyncClient = null;
+            }
+        }
+    }
+
+    /**
+     * Builder for a pooled HTTP client. Times are in milliseconds.
+     */
+    public static class Builder {
+
+        private int maxConnections = 100;
+        private int maxConnectionsPerRoute = 20;
+        private long connectionTimeToLive = -1;
+        private long keepAlive = -1;
+        private ConnectionKeepAliveStrategy keepAliveStrategy = null;
+        private boolean evictExpiredConnections = false;
+        private long maxIdleTime = 0;
+        private int validateAfterInactivity = -1;
+        private int connectTimeout = -1;
+        private int socketTimeout = -1;
+        private int connectionRequestTimeout = -1;
+        private int ioThreads = -1;
+
+        private Builder() {
+        }
+
+        /**
+         * Maximum number of connections in the pool across all routes. Defaults to 100.
+         *
+         * @param maxConnections the total.
+         * @return this builder.
+         */
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Maximum number of connections per route (host). Defaults to 20.
+         *
+         * @param maxConnectionsPerRoute the per route maximum.
+         * @return this builder.
+         */
+        public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Maximum lifetime of a pooled connection. A negative value means no limit.
+         *
+         * @param connectionTimeToLive time to live in milliseconds.
+         * @return this builder.
+         */
+        public Builder connectionTimeToLive(long connectionTimeToLive) {
+            this.connectionTimeToLive = connectionTimeToLive;
+            return this;
+        }
+
+        /**
+         * Keep-alive duration to use when the server does not send a Keep-Alive header.
+         * A negative value means connections are kept alive indefinitely.
+         *
+         * @param keepAlive keep-alive duration in milliseconds.
+         * @return this builder.
+         */
+        public Builder keepAlive(long keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Use a custom keep-alive strategy. This takes precedence over keepAlive(long).
+         *
+         * @param keepAliveStrategy the strategy.
+         * @return this builder.
+         */
+        public Builder keepAliveStrategy(ConnectionKeepAliveStrategy keepAliveStrategy) {
+            this.keepAliveStrategy = keepAliveStrategy;
+            return this;
+        }
+
+        /**
+         * Run a background thread that evicts expired connections from the pool.
+         *
+         * @return this builder.
+         */
+        public Builder evictExpiredConnections() {
+            this.evictExpiredConnections = true;
+            return this;
+        }
+
+        /**
+         * Run a background thread that evicts connections idle for longer than the given time.
+         *
+         * @param maxIdleTime maximum idle time in milliseconds.
+         * @return this builder.
+         */
+        public Builder evictIdleConnections(long maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        /**
+         * Re-validate a pooled connection before leasing it if it has been
+         * inactive for longer than the given time.
+         *
+         * @param validateAfterInactivity inactivity period in milliseconds.
+         * @return this builder.
+         */
+        public Builder validateAfterInactivity(int validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+            return this;
+        }
+
+        /**
+         * Timeout for establishing a connection. A negative value uses the system default.
+         *
+         * @param connectTimeout timeout in milliseconds.
+         * @return this builder.
+         */
+        public Builder connectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Timeout waiting for data on an open connection. A negative value uses the system default.
+         *
+         * @param socketTimeout timeout in milliseconds.
+         * @return this builder.
+         */
+        public Builder socketTimeout(int socketTimeout) {
+            this.socketTimeout = socketTimeout;
+            return this;
+        }
+
+        /**
+         * Timeout waiting to lease a connection from the pool.
+         * A negative value uses the system default.
+         *
+         * @param connectionRequestTimeout timeout in milliseconds.
+         * @return this builder.
+         */
+        public Builder connectionRequestTimeout(int connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+            return this;
+        }
+
+        /**
+         * Number of I/O dispatcher threads used by the async client.
+         * Defaults to the number of available processors.
+         *
+         * @param ioThreads the number of I/O threads.
+         * @return this builder.
+         */
+        public Builder ioThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        public HttpClientFactory build() {
+            return new HttpClientFactory(this);
+        }
+
+        private ConnectionKeepAliveStrategy keepAliveStrategy() {
+            if (keepAliveStrategy != null) {
+                return keepAliveStrategy;
+            }
+            final long defaultKeepAlive = keepAlive;
+            return (response, context) -> {
+                long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(
+                    response, context);
+                return duration < 0 ? defaultKeepAlive : duration;
+            };
+        }
+    }
 
 }
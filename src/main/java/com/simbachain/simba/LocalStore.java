@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A local copy of a contract's transactions and events that answers {@link Query.Params}
+ * queries without calling the API.
+ * <p>
+ * Records are appended to a log file in the store's directory and loaded into memory when the
+ * store is opened, with indexes on transaction method and sender and on event name; the other
+ * parameters are evaluated against the candidates those give. A later record for the same ID,
+ * for example a transaction that has since completed, replaces the earlier one.
+ * <p>
+ * The store is filled by {@link ContractService#syncLocalStore(String...)}, which fetches only
+ * what was created since the last sync. {@link ContractService#findTransactions(String,
+ * Query.Params)} and {@link ContractService#findTransactionEvents(String, Query.Params)} answer
+ * from the store, and fetch from the API only what was created since the last sync, or
+ * everything if the store has not been synced yet.
+ */
+public class LocalStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalStore.class.getName());
+    private static final String LOG_FILE = "store.log";
+    private static final String CHECKPOINT_FILE = "transactions.checkpoint";
+    private static final String CREATED = "created_on";
+    private static final String METHOD = "method";
+    private static final String SENDER = "from_address";
+    private static final byte TRANSACTION = 'T';
+    private static final byte EVENT = 'E';
+    private static final byte CURSOR = 'C';
+    private static final TypeReference<Map<String, Object>> FIELDS
+        = new TypeReference<Map<String, Object>>() {
+    };
+
+    private final Path directory;
+    private final Path checkpoint;
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Record<Transaction>> transactions = new HashMap<>();
+    private final Map<String, Record<TransactionEvent>> events = new HashMap<>();
+    private final Map<String, Set<String>> byMethod = new HashMap<>();
+    private final Map<String, Set<String>> bySender = new HashMap<>();
+    private final Map<String, Set<String>> byEventName = new HashMap<>();
+    private final Map<String, CreationCursor> eventCursors = new HashMap<>();
+    private volatile Date transactionCursor;
+    // guarded by this, which serializes syncs
+    private TransactionTail tail;
+
+    /**
+     * Open the store in a directory, creating it if needed, and load what it holds.
+     *
+     * @param directory the directory.
+     * @throws SimbaException if the store cannot be read or opened for writing.
+     */
+    public LocalStore(Path directory) throws SimbaException {
+        this.directory = directory;
+        this.checkpoint = directory.resolve(CHECKPOINT_FILE);
+        Path file = directory.resolve(LOG_FILE);
+        try {
+            Files.createDirectories(directory);
+            long valid = load(file);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() > valid) {
+                log.warn("LocalStore: discarding "
+                    + (channel.size() - valid)
+                    + " bytes of incomplete records at the end of "
+                    + file);
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+        } catch (IOException e) {
+            throw new SimbaException("Could not open local store " + directory,
+                SimbaException.SimbaError.MESSAGE_ERROR, e);
+        }
+        this.transactionCursor = TransactionTail.readCursor(checkpoint);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the creation time transactions are held up to, or null if the store has not
+     * synced transactions.
+     */
+    public Date getTransactionCursor() {
+        return transactionCursor;
+    }
+
+    /**
+     * @param eventName the event name.
+     * @return the creation time events of the name are held up to, or null if the store has
+     * not synced them.
+     */
+    public Date getEventCursor(String eventName) {
+        lock.readLock()
+            .lock();
+        try {
+            CreationCursor cursor = eventCursors.get(eventName);
+            return cursor == null ? null : cursor.getTime();
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    public int getTransactionCount() {
+        lock.readLock()
+            .lock();
+        try {
+            return transactions.size();
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    public int getEventCount() {
+        lock.readLock()
+            .lock();
+        try {
+            return events.size();
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * Find the transactions held matching a query, oldest first.
+     *
+     * @param method the method name, or null for transactions of any method.
+     * @param params the query.
+     * @return the matching transactions.
+     */
+    public List<Transaction> findTransactions(String method, Query.Params params) {
+        lock.readLock()
+            .lock();
+        try {
+            Query.Params query = method == null ? params : params.copy()
+                                                                 .ex(METHOD, method);
+            Collection<String> candidates = transactions.keySet();
+            candidates = smaller(candidates, indexed(byMethod, METHOD, query));
+            candidates = smaller(candidates, indexed(bySender, SENDER, query));
+            return find(transactions, candidates, query);
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * Find the events held matching a query, oldest first.
+     *
+     * @param eventName the event name.
+     * @param params    the query.
+     * @return the matching events.
+     */
+    public List<TransactionEvent> findEvents(String eventName, Query.Params params) {
+        lock.readLock()
+            .lock();
+        try {
+            return find(events, byEventName.getOrDefault(eventName, Collections.emptySet()),
+                params);
+        } finally {
+            lock.readLock()
+                .unlock();
+        }
+    }
+
+    /**
+     * Fetch the contract's transactions, and events of the given names, created since the last
+     * sync.
+     */
+    synchronized void sync(ContractService service, Collection<String> eventNames)
+        throws SimbaException {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: LocalStore.sync: eventNames = [" + eventNames + "]");
+        }
+        if (tail == null) {
+            tail = new TransactionTail(service, checkpoint);
+        }
+        List<Transaction> txns = tail.poll();
+        for (Transaction txn : txns) {
+            append(TRANSACTION, txn);
+        }
+        force();
+        tail.commit();
+        transactionCursor = tail.getCursor();
+
+        for (String name : eventNames) {
+            CreationCursor cursor;
+            lock.readLock()
+                .lock();
+            try {
+                cursor = eventCursors.getOrDefault(name, new CreationCursor(new Date(0)))
+                                     .copy();
+            } finally {
+                lock.readLock()
+                    .unlock();
+            }
+            List<TransactionEvent> found = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            try (PageIterator<TransactionEvent> page = service.iterateTransactionEvents(name,
+                Query.gte(CREATED, cursor.getTime()))) {
+                while (page.hasNext()) {
+                    TransactionEvent event = page.next();
+                    if (event.getId() != null && seen.add(event.getId()) && cursor.isNew(
+                        event.getCreated(), event.getId())) {
+                        if (event.getName() == null) {
+                            event.setName(name);
+                        }
+                        found.add(event);
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw service.getException("GET", e.getCause());
+            }
+            for (TransactionEvent event : found) {
+                cursor.advance(event.getCreated(), event.getId());
+                append(EVENT, event);
+            }
+            append(CURSOR, new NamedCursor(name, cursor));
+            force();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: LocalStore.sync: transactions: "
+                + getTransactionCount()
+                + " events: "
+                + getEventCount());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static Collection<String> smaller(Collection<String> a, Collection<String> b) {
+        if (b == null) {
+            return a;
+        }
+        return b.size() < a.size() ? b : a;
+    }
+
+    /**
+     * Get the IDs an index gives for an exact or in parameter on its field, or null if the
+     * query has none.
+     */
+    private static Set<String> indexed(Map<String, Set<String>> index,
+        String field,
+        Query.Params params) {
+        Set<String> ids = null;
+        for (Query.Param<?> param : params.getParams()) {
+            if (!param.getName()
+                      .equals(field)) {
+                continue;
+            }
+            Set<String> matched = new HashSet<>();
+            if (param instanceof Query.Ex || param instanceof Query.Str) {
+                matched.addAll(index.getOrDefault(param.getValue()
+                                                       .toString(), Collections.emptySet()));
+            } else if (param instanceof Query.In) {
+                for (String value : param.getValue()
+                                         .toString()
+                                         .split(",")) {
+                    matched.addAll(index.getOrDefault(value, Collections.emptySet()));
+                }
+            } else {
+                continue;
+            }
+            if (ids == null || matched.size() < ids.size()) {
+                ids = matched;
+            }
+        }
+        return ids;
+    }
+
+    private static <T extends Ided> List<T> find(Map<String, Record<T>> records,
+        Collection<String> candidates,
+        Query.Params params) {
+        List<Record<T>> matched = new ArrayList<>();
+        for (String id : candidates) {
+            Record<T> record = records.get(id);
+            if (record != null && record.matches(params)) {
+                matched.add(record);
+            }
+        }
+        matched.sort(Comparator.comparing((Record<T> r) -> String.valueOf(r.fields.get(CREATED)))
+                               .thenComparing(r -> r.value.getId()));
+        List<T> result = new ArrayList<>(matched.size());
+        for (Record<T> record : matched) {
+            result.add(record.value);
+        }
+        return result;
+    }
+
+    /**
+     * Load the log, returning the length of the records read. A crash can leave the last
+     * record torn, or the file padded after it, so reading stops at a length that runs past
+     * the end of the file or at an unknown record type, and a final record that does not
+     * parse is dropped. The caller truncates the file to the length returned.
+     */
+    private long load(Path file) throws IOException {
+        long valid = 0;
+        try (InputStream in = Files.newInputStream(file);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024))) {
+            long size = Files.size(file);
+            while (size - valid >= 5) {
+                int length = data.readInt();
+                byte type = data.readByte();
+                if (length < 0 || length > size - valid - 5
+                    || (type != TRANSACTION && type != EVENT && type != CURSOR)) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                try {
+                    data.readFully(bytes);
+                } catch (EOFException e) {
+                    break;
+                }
+                boolean last = valid + 5 + length == size;
+                try {
+                    index(type, bytes);
+                } catch (IOException | IllegalArgumentException e) {
+                    if (last) {
+                        break;
+                    }
+                    throw e;
+                }
+                valid += 5 + length;
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("LocalStore.load: loaded "
+                + transactions.size()
+                + " transactions and "
+                + events.size()
+                + " events from "
+                + file);
+        }
+        return valid;
+    }
+
+    private void append(byte type, Object value) throws SimbaException {
+        lock.writeLock()
+            .lock();
+        try {
+            byte[] bytes = Mappers.writer()
+                                  .writeValueAsBytes(value);
+            ByteBuffer buffer = ByteBuffer.allocate(5 + bytes.length);
+            buffer.putInt(bytes.length)
+                  .put(type)
+                  .put(bytes)
+                  .flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            index(type, bytes);
+        } catch (IOException e) {
+            throw new SimbaException("Could not write to local store " + directory,
+                SimbaException.SimbaError.MESSAGE_ERROR, e);
+        } finally {
+            lock.writeLock()
+                .unlock();
+        }
+    }
+
+    private void force() throws SimbaException {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new SimbaException("Could not write to local store " + directory,
+                SimbaException.SimbaError.MESSAGE_ERROR, e);
+        }
+    }
+
+    /**
+     * Add a record read from, or written to, the log to the in-memory maps and indexes.
+     */
+    private void index(byte type, byte[] bytes) throws IOException {
+        if (type == CURSOR) {
+            NamedCursor cursor = Mappers.reader(NamedCursor.class)
+                                        .readValue(bytes);
+            eventCursors.put(cursor.name, cursor.cursor);
+            return;
+        }
+        Map<String, Object> fields = Mappers.reader(FIELDS)
+                                            .readValue(bytes);
+        if (type == TRANSACTION) {
+            Transaction txn = Mappers.mapper()
+                                     .convertValue(fields, Transaction.class);
+            Record<Transaction> previous = transactions.put(txn.getId(),
+                new Record<>(txn, fields));
+            if (previous == null) {
+                add(byMethod, txn.getMethod(), txn.getId());
+                add(bySender, txn.getSender(), txn.getId());
+            }
+        } else if (type == EVENT) {
+            TransactionEvent event = Mappers.mapper()
+                                            .convertValue(fields, TransactionEvent.class);
+            if (events.put(event.getId(), new Record<>(event, fields)) == null) {
+                add(byEventName, event.getName(), event.getId());
+            }
+        }
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>())
+                 .add(id);
+        }
+    }
+
+    /**
+     * A stored value with its fields as read from JSON, which queries are evaluated against.
+     */
+    private static class Record<T> {
+        private final T value;
+        private final Map<String, Object> fields;
+
+        private Record(T value, Map<String, Object> fields) {
+            this.value = value;
+            this.fields = fields;
+        }
+
+        private boolean matches(Query.Params params) {
+            for (Query.Param<?> param : params.getParams()) {
+                if (!param.test(field(param.getName()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Resolve a dotted parameter name such as inputs.part.__Part against the fields.
+         */
+        private Object field(String name) {
+            Object value = fields;
+            int start = 0;
+            while (value instanceof Map) {
+                int end = name.indexOf('.', start);
+                String key = end < 0 ? name.substring(start) : name.substring(start, end);
+                value = ((Map<?, ?>) value).get(key);
+                if (end < 0) {
+                    return value;
+                }
+                start = end + 1;
+            }
+            return null;
+        }
+    }
+
+    private static class NamedCursor {
+        @JsonProperty
+        private String name;
+        @JsonProperty
+        private CreationCursor cursor;
+
+        private NamedCursor() {
+        }
+
+        private NamedCursor(String name, CreationCursor cursor) {
+            this.name = name;
+            this.cursor = cursor;
+        }
+    }
+}
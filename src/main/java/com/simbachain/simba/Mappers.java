@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.simbachain.simba.management.Application;
+import com.simbachain.simba.management.Blockchain;
+import com.simbachain.simba.management.ContractArtifact;
+import com.simbachain.simba.management.ContractDesign;
+import com.simbachain.simba.management.DeployedContract;
+import com.simbachain.simba.management.Storage;
+
+/**
+ * Shared Jackson configuration for the library.
+ * <p>
+ * There is a single ObjectMapper, configured once in createMapper(). ObjectReaders and
+ * ObjectWriters are immutable and thread safe, so one is resolved per type and cached.
+ * The type constants below are used by the clients in place of anonymous TypeReferences
+ * and their readers are resolved when this class is loaded.
+ * <p>
+ * The shared mapper must not be reconfigured after use. To customise deserialization for a
+ * single client, assign a different mapper to SimbaClient.mapper instead.
+ */
+public final class Mappers {
+
+    private static final ObjectMapper mapper = createMapper();
+    private static final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public static final TypeReference<Transaction> TRANSACTION
+        = new TypeReference<Transaction>() {
+    };
+    public static final TypeReference<PagedResult<Transaction>> TRANSACTION_PAGE
+        = new TypeReference<PagedResult<Transaction>>() {
+    };
+    public static final TypeReference<PagedResult<TransactionEvent>> EVENT_PAGE
+        = new TypeReference<PagedResult<TransactionEvent>>() {
+    };
+    public static final TypeReference<Metadata> METADATA
+        = new TypeReference<Metadata>() {
+    };
+    public static final TypeReference<Manifest> MANIFEST
+        = new TypeReference<Manifest>() {
+    };
+    public static final TypeReference<ReturnObject<Object>> RETURN_OBJECT
+        = new TypeReference<ReturnObject<Object>>() {
+    };
+    public static final TypeReference<PagedResult<Application>> APPLICATION_PAGE
+        = new TypeReference<PagedResult<Application>>() {
+    };
+    public static final TypeReference<PagedResult<ContractDesign>> CONTRACT_DESIGN_PAGE
+        = new TypeReference<PagedResult<ContractDesign>>() {
+    };
+    public static final TypeReference<PagedResult<ContractArtifact>> CONTRACT_ARTIFACT_PAGE
+        = new TypeReference<PagedResult<ContractArtifact>>() {
+    };
+    public static final TypeReference<PagedResult<DeployedContract>> DEPLOYED_CONTRACT_PAGE
+        = new TypeReference<PagedResult<DeployedContract>>() {
+    };
+    public static final TypeReference<PagedResult<Blockchain>> BLOCKCHAIN_PAGE
+        = new TypeReference<PagedResult<Blockchain>>() {
+    };
+    public static final TypeReference<PagedResult<Storage>> STORAGE_PAGE
+        = new TypeReference<PagedResult<Storage>>() {
+    };
+    public static final TypeReference<Map<String, String>> STRING_MAP
+        = new TypeReference<Map<String, String>>() {
+    };
+
+    static {
+        TypeReference<?>[] preload = new TypeReference<?>[] {
+            TRANSACTION, TRANSACTION_PAGE, EVENT_PAGE, METADATA, MANIFEST, RETURN_OBJECT,
+            APPLICATION_PAGE, CONTRACT_DESIGN_PAGE, CONTRACT_ARTIFACT_PAGE, DEPLOYED_CONTRACT_PAGE,
+            BLOCKCHAIN_PAGE, STORAGE_PAGE, STRING_MAP
+        };
+        for (TypeReference<?> ref : preload) {
+            reader(ref);
+        }
+        Class<?>[] classes = new Class<?>[] {
+            Transaction.class, TransactionEvent.class, Metadata.class, Manifest.class,
+            Application.class, ContractDesign.class, ContractArtifact.class,
+            DeployedContract.class, Errors.class
+        };
+        for (Class<?> cls : classes) {
+            reader(cls);
+        }
+    }
+
+    private Mappers() {
+    }
+
+    /**
+     * Creates the shared mapper. This is the single place to change deserialization features.
+     *
+     * @return a configured mapper.
+     */
+    private static ObjectMapper createMapper() {
+        return new ObjectMapper();
+    }
+
+    /**
+     * @return the shared mapper.
+     */
+    public static ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /**
+     * Get the cached reader for a class, resolving it on first use.
+     *
+     * @param cls the class to read.
+     * @return a reader bound to the class.
+     */
+    public static ObjectReader reader(Class<?> cls) {
+        return readers.computeIfAbsent(cls, t -> mapper.readerFor(cls));
+    }
+
+    /**
+     * Get the cached reader for a generic type, resolving it on first use.
+     * Readers are keyed by the underlying type, so distinct TypeReference instances for the
+     * same type share a reader.
+     *
+     * @param ref the type to read.
+     * @return a reader bound to the type.
+     */
+    public static ObjectReader reader(TypeReference<?> ref) {
+        return readers.computeIfAbsent(ref.getType(), t -> mapper.readerFor(ref));
+    }
+
+    /**
+     * Get the cached reader for a resolved type.
+     *
+     * @param type the type to read.
+     * @return a reader bound to the type.
+     */
+    public static ObjectReader reader(JavaType type) {
+        return readers.computeIfAbsent(type, t -> mapper.readerFor(type));
+    }
+
+    /**
+     * Get the cached writer for a class.
+     *
+     * @param cls the class to write.
+     * @return a writer bound to the class.
+     */
+    public static ObjectWriter writer(Class<?> cls) {
+        return writers.computeIfAbsent(cls, t -> mapper.writerFor(cls));
+    }
+
+    /**
+     * @return a writer that uses the runtime type of the value.
+     */
+    public static ObjectWriter writer() {
+        return writers.computeIfAbsent(Object.class, t -> mapper.writer());
+    }
+}
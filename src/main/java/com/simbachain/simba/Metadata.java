@@ -22,6 +22,9 @@
 
 package com.simbachain.simba;
 
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -47,6 +50,8 @@ public class Metadata {
     private boolean simbaFaucet = false;
     @JsonProperty
     private ContractMetadata contract;
+    @JsonIgnore
+    private volatile Map<String, MethodValidator> validators;
 
     public String getApiName() {
         return apiName;
@@ -109,6 +114,32 @@ public class Metadata {
                             .get(name);
     }
 
+    /**
+     * Get the compiled validator for a method. Validators are compiled by compileValidators(),
+     * or on first use.
+     *
+     * @param name the method name.
+     * @return the validator, or null if there is no such method.
+     */
+    public MethodValidator getValidator(String name) {
+        Map<String, MethodValidator> validators = this.validators;
+        if (validators == null) {
+            validators = compileValidators();
+        }
+        return validators.get(name);
+    }
+
+    /**
+     * Compile parameter validators for the contract methods.
+     *
+     * @return the validators keyed by method name.
+     */
+    public Map<String, MethodValidator> compileValidators() {
+        Map<String, MethodValidator> validators = MethodValidator.compile(this);
+        this.validators = validators;
+        return validators;
+    }
+
     public String getFileIndicator() {
         return "_bundleHash";
     }
@@ -123,6 +154,7 @@ public class Metadata {
 
     public void setContract(ContractMetadata contract) {
         this.contract = contract;
+        this.validators = null;
     }
 
     @Override
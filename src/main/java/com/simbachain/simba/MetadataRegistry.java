@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process wide cache of contract Metadata, keyed by the contract's API URL, which includes
+ * the endpoint, app and contract names.
+ * <p>
+ * Metadata is fetched once and shared by every ContractService for the contract. Concurrent
+ * requests for the same contract wait for a single fetch. Once an entry is older than the
+ * TTL it is still returned, and is revalidated in the background. Revalidation is a
+ * conditional request with the ETag and Last-Modified date the metadata was served with, so
+ * unchanged metadata is not downloaded again. If the server sends neither, it is.
+ * <p>
+ * If the registry has a directory, fetched metadata and its validators are also written
+ * there, so a new process starts from the files on disk and revalidates them in the
+ * background instead of fetching every contract before it can start.
+ */
+public class MetadataRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(MetadataRegistry.class.getName());
+
+    public static final long DEFAULT_TTL = 5 * 60 * 1000;
+
+    private static final ExecutorService revalidator = createRevalidator();
+    private static MetadataRegistry defaultRegistry;
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last_modified";
+
+    /**
+     * Fetches metadata from the server.
+     */
+    @FunctionalInterface
+    public interface MetadataLoader {
+
+        Metadata load() throws SimbaException;
+
+        /**
+         * Fetch metadata unless it is unchanged since the version with the given validators.
+         * Loaders that cannot make conditional requests fetch it regardless.
+         *
+         * @param etag         the ETag the held metadata was served with, or null.
+         * @param lastModified the Last-Modified date it was served with, or null.
+         * @return the metadata with its validators, or {@link Fetched#notModified()}.
+         * @throws SimbaException if the metadata cannot be fetched.
+         */
+        default Fetched load(String etag, String lastModified) throws SimbaException {
+            return new Fetched(load(), null, null);
+        }
+    }
+
+    /**
+     * The result of a conditional fetch: new metadata with the validators it was served with,
+     * or not modified.
+     */
+    public static class Fetched {
+
+        private static final Fetched NOT_MODIFIED = new Fetched(null, null, null);
+
+        private final Metadata metadata;
+        private final String etag;
+        private final String lastModified;
+
+        /**
+         * @param metadata     the metadata.
+         * @param etag         the ETag response header, or null.
+         * @param lastModified the Last-Modified response header, or null.
+         */
+        public Fetched(Metadata metadata, String etag, String lastModified) {
+            this.metadata = metadata;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public static Fetched notModified() {
+            return NOT_MODIFIED;
+        }
+
+        public boolean isNotModified() {
+            return metadata == null;
+        }
+
+        public Metadata getMetadata() {
+            return metadata;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final Path directory;
+    private final long ttl;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Metadata>> loading
+        = new ConcurrentHashMap<>();
+
+    /**
+     * Create an in memory registry with the default TTL.
+     */
+    public MetadataRegistry() {
+        this(null, DEFAULT_TTL);
+    }
+
+    /**
+     * Create a registry.
+     *
+     * @param directory the directory to persist metadata to, or null to keep it in memory.
+     * @param ttl       milliseconds after which metadata is revalidated.
+     */
+    public MetadataRegistry(Path directory, long ttl) {
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    private static ExecutorService createRevalidator() {
+        return Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "simba-metadata");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Get the registry used by ContractServices that have not been given one.
+     *
+     * @return the default registry.
+     */
+    public static synchronized MetadataRegistry getDefault() {
+        if (defaultRegistry == null) {
+            defaultRegistry = new MetadataRegistry();
+        }
+        return defaultRegistry;
+    }
+
+    /**
+     * Set the default registry, for example to one that persists to disk. This should be done
+     * before any services are created.
+     *
+     * @param registry the registry.
+     */
+    public static synchronized void setDefault(MetadataRegistry registry) {
+        defaultRegistry = registry;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Get metadata, from memory or disk if available, otherwise by fetching it. Stale entries
+     * are returned and revalidated in the background.
+     *
+     * @param key    the contract API URL.
+     * @param loader fetches the metadata.
+     * @return the metadata.
+     * @throws SimbaException if the metadata is not cached and cannot be fetched.
+     */
+    public Metadata get(String key, MetadataLoader loader) throws SimbaException {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = readFile(key);
+        }
+        if (entry != null) {
+            revalidateIfStale(key, entry, loader);
+            return entry.metadata;
+        }
+        CompletableFuture<Metadata> future = new CompletableFuture<>();
+        CompletableFuture<Metadata> existing = loading.putIfAbsent(key, future);
+        if (existing == null) {
+            load(key, loader, future);
+            existing = future;
+        }
+        try {
+            return existing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new SimbaException(SimbaException.SimbaError.EXECUTION_ERROR, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SimbaException) {
+                throw (SimbaException) e.getCause();
+            }
+            throw new SimbaException(SimbaException.SimbaError.EXECUTION_ERROR, e.getCause());
+        }
+    }
+
+    /**
+     * Get metadata if it is in memory, revalidating it in the background if it is stale.
+     *
+     * @param key    the contract API URL.
+     * @param loader fetches the metadata.
+     * @return the metadata or null if it is not in memory.
+     */
+    public Metadata peek(String key, MetadataLoader loader) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        revalidateIfStale(key, entry, loader);
+        return entry.metadata;
+    }
+
+    /**
+     * Remove metadata from memory and disk, so it is fetched on next use.
+     *
+     * @param key the contract API URL.
+     */
+    public void invalidate(String key) {
+        entries.remove(key);
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(file(key));
+            } catch (IOException e) {
+                log.warn("MetadataRegistry.invalidate: could not delete metadata for " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Remove all metadata from memory. Files on disk are kept.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private void revalidateIfStale(String key, Entry entry, MetadataLoader loader) {
+        if (System.currentTimeMillis() - entry.checked < ttl) {
+            return;
+        }
+        CompletableFuture<Metadata> future = new CompletableFuture<>();
+        if (loading.putIfAbsent(key, future) != null) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("MetadataRegistry.revalidate: " + key);
+        }
+        revalidator.execute(() -> load(key, loader, future));
+    }
+
+    private void load(String key, MetadataLoader loader, CompletableFuture<Metadata> future) {
+        try {
+            Entry entry = entries.get(key);
+            Fetched fetched = entry == null
+                ? loader.load(null, null)
+                : loader.load(entry.etag, entry.lastModified);
+            if (fetched.isNotModified()) {
+                if (entry == null) {
+                    throw new SimbaException("Metadata not modified but none is held for " + key,
+                        SimbaException.SimbaError.METADATA_NOT_AVAILABLE);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("MetadataRegistry.load: not modified: " + key);
+                }
+                entries.replace(key, entry, entry.checked(System.currentTimeMillis()));
+                touchFile(key);
+                future.complete(entry.metadata);
+                return;
+            }
+            Metadata metadata = fetched.getMetadata();
+            metadata.compileValidators();
+            entries.put(key, new Entry(metadata, System.currentTimeMillis(), fetched.getEtag(),
+                fetched.getLastModified()));
+            writeFile(key, fetched);
+            future.complete(metadata);
+        } catch (Throwable e) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                // keep serving what we have, and try again after another TTL
+                log.warn("MetadataRegistry.load: could not revalidate " + key + ": " + e);
+                entries.replace(key, entry, entry.checked(System.currentTimeMillis()));
+            }
+            future.completeExceptionally(e);
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private Entry readFile(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = file(key);
+        try (InputStream in = Files.newInputStream(file)) {
+            Metadata metadata = Mappers.reader(Mappers.METADATA)
+                                       .readValue(in);
+            metadata.compileValidators();
+            Map<String, String> validators = readValidators(key);
+            Entry entry = new Entry(metadata, Files.getLastModifiedTime(file)
+                                                   .toMillis(), validators.get(ETAG),
+                validators.get(LAST_MODIFIED));
+            Entry existing = entries.putIfAbsent(key, entry);
+            return existing == null ? entry : existing;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("MetadataRegistry.readFile: ignoring unreadable metadata for " + key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Read the validators stored with a metadata file, empty if there are none.
+     */
+    private Map<String, String> readValidators(String key) {
+        Path file = validatorsFile(key);
+        try (InputStream in = Files.newInputStream(file)) {
+            return Mappers.reader(Mappers.STRING_MAP)
+                          .readValue(in);
+        } catch (NoSuchFileException e) {
+            return new HashMap<>();
+        } catch (IOException e) {
+            log.warn("MetadataRegistry.readValidators: ignoring unreadable validators for "
+                + key, e);
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Write the metadata, then its validators. The old validators are deleted first, so a
+     * crash part way through cannot leave them paired with different metadata.
+     */
+    private void writeFile(String key, Fetched fetched) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(validatorsFile(key));
+            write(file(key), Mappers.writer(Metadata.class)
+                                    .writeValueAsBytes(fetched.getMetadata()));
+            if (fetched.getEtag() != null || fetched.getLastModified() != null) {
+                Map<String, String> validators = new HashMap<>();
+                validators.put(ETAG, fetched.getEtag());
+                validators.put(LAST_MODIFIED, fetched.getLastModified());
+                write(validatorsFile(key), Mappers.writer()
+                                                  .writeValueAsBytes(validators));
+            }
+        } catch (IOException e) {
+            log.warn("MetadataRegistry.writeFile: could not persist metadata for " + key, e);
+        }
+    }
+
+    private void write(Path file, byte[] data) throws IOException {
+        Path tmp = Files.createTempFile(directory, file.getFileName()
+                                                       .toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                out.write(data);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Mark a metadata file as revalidated now, so a new process starting from it does not
+     * revalidate it again within the TTL.
+     */
+    private void touchFile(String key) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.setLastModifiedTime(file(key), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // not persisted, so there is nothing to mark
+        } catch (IOException e) {
+            log.warn("MetadataRegistry.touchFile: could not update metadata for " + key, e);
+        }
+    }
+
+    private Path validatorsFile(String key) {
+        Path file = file(key);
+        return file.resolveSibling(file.getFileName() + ".validators");
+    }
+
+    private Path file(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                                         .digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2 + 5);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+                  .append(Character.forDigit(b & 0xF, 16));
+            }
+            return directory.resolve(sb.append(".json")
+                                       .toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        private final Metadata metadata;
+        private final long checked;
+        private final String etag;
+        private final String lastModified;
+
+        private Entry(Metadata metadata, long checked, String etag, String lastModified) {
+            this.metadata = metadata;
+            this.checked = checked;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        private Entry checked(long checked) {
+            return new Entry(metadata, checked, etag, lastModified);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.simbachain.SimbaException;
+
+/**
+ * Immutable parameter validator for a contract method, compiled once from the metadata so
+ * that validating a call or a query does not allocate.
+ */
+public class MethodValidator {
+
+    private final String method;
+    private final String fileIndicator;
+    private final Set<String> parameters;
+    private final String[] parameterNames;
+    private final boolean files;
+
+    MethodValidator(String method, Method m, String fileIndicator) {
+        this.method = method;
+        this.fileIndicator = fileIndicator;
+        Set<String> names = new HashSet<>();
+        List<Parameter> params = m.getParams();
+        if (params != null) {
+            for (Parameter param : params) {
+                names.add(param.getName());
+            }
+        }
+        this.parameters = Collections.unmodifiableSet(names);
+        this.parameterNames = names.toArray(new String[0]);
+        this.files = names.contains(fileIndicator);
+    }
+
+    /**
+     * Compile validators for all the methods of a contract.
+     *
+     * @param metadata the contract metadata.
+     * @return an immutable map of method name to validator.
+     */
+    public static Map<String, MethodValidator> compile(Metadata metadata) {
+        Map<String, MethodValidator> validators = new HashMap<>();
+        ContractMetadata contract = metadata.getContract();
+        if (contract != null && contract.getMethods() != null) {
+            for (Map.Entry<String, Method> entry : contract.getMethods()
+                                                           .entrySet()) {
+                validators.put(entry.getKey(),
+                    new MethodValidator(entry.getKey(), entry.getValue(),
+                        metadata.getFileIndicator()));
+            }
+        }
+        return Collections.unmodifiableMap(validators);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the names of the method parameters.
+     */
+    public Set<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return true if the method accepts file uploads.
+     */
+    public boolean isFiles() {
+        return files;
+    }
+
+    /**
+     * Validate the parameters of a method call.
+     *
+     * @param parameters the call parameters.
+     * @param files      true if files are being uploaded.
+     * @throws SimbaException if a parameter is not known, or files are not supported.
+     */
+    public void validate(JsonData parameters, boolean files) throws SimbaException {
+        for (String key : parameters.keys()) {
+            if (key.equals(fileIndicator)) {
+                throw new SimbaException(String.format(
+                    "Files parameters%s for method %s should not be used. Please upload files as attachments",
+                    key, method), SimbaException.SimbaError.MESSAGE_ERROR);
+            }
+            if (!this.parameters.contains(key)) {
+                throw new SimbaException(
+                    String.format("Unknown parameter %s for method %s", key, method),
+                    SimbaException.SimbaError.MESSAGE_ERROR);
+            }
+        }
+        if (files && !this.files) {
+            throw new SimbaException(
+                String.format("Method %s does not support file uploads.", method),
+                SimbaException.SimbaError.MESSAGE_ERROR);
+        }
+    }
+
+    /**
+     * Validate query parameters. Query names may be paths such as inputs.supplier.__Supplier,
+     * in which case the parameter name is the path segment after the first dot.
+     *
+     * @param parameters the query parameters.
+     * @throws SimbaException if a parameter is not known.
+     */
+    public void validate(Query.Params parameters) throws SimbaException {
+        List<Query.Param<?>> params = parameters.getParams();
+        for (int i = 0; i < params.size(); i++) {
+            String name = params.get(i)
+                                .getName();
+            int start = name.indexOf('.') + 1;
+            int end = start == 0 ? -1 : name.indexOf('.', start);
+            if (end < 0) {
+                end = name.length();
+            }
+            if (!isParameter(name, start, end)) {
+                throw new SimbaException(
+                    String.format("Unknown parameter %s for method %s",
+                        name.substring(start, end), method),
+                    SimbaException.SimbaError.MESSAGE_ERROR);
+            }
+        }
+    }
+
+    private boolean isParameter(String name, int start, int end) {
+        int length = end - start;
+        for (String parameter : parameterNames) {
+            if (parameter.length() == length && name.regionMatches(start, parameter, 0,
+                length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
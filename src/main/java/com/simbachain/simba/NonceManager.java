@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Allocates transaction nonces per blockchain and sender address, so that many transactions
+ * from one wallet can be in flight at once.
+ * <p>
+ * The first nonce for an address is the address's transaction count from the server.
+ * Later nonces are handed out in order without a request. If the most recently issued nonce
+ * fails it is handed out again. If an earlier one fails, it leaves a gap, so the address is
+ * re-seeded from the server on the next acquire.
+ * <p>
+ * One manager can be shared by several ContractServices that send from the same wallets,
+ * for example:
+ * <pre>
+ * NonceManager nonces = new NonceManager(contractService::getTransactionCount);
+ * contractService.setNonceManager(nonces);
+ * </pre>
+ */
+public class NonceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NonceManager.class.getName());
+
+    /**
+     * Source of the next nonce for an address.
+     */
+    @FunctionalInterface
+    public interface NonceSource {
+
+        /**
+         * @param blockchain the blockchain name.
+         * @param address    the sender address.
+         * @return the number of transactions sent from the address, which is the next nonce.
+         * @throws SimbaException if the count cannot be retrieved.
+         */
+        long getTransactionCount(String blockchain, String address) throws SimbaException;
+    }
+
+    private final NonceSource source;
+    private final ConcurrentMap<Key, Account> accounts = new ConcurrentHashMap<>();
+
+    public NonceManager(NonceSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Get the next nonce for an address. The first call for an address, and the first call
+     * after a resync, gets the transaction count from the server.
+     *
+     * @param blockchain the blockchain name.
+     * @param address    the sender address.
+     * @return the nonce.
+     * @throws SimbaException if the transaction count cannot be retrieved.
+     */
+    public long acquire(String blockchain, String address) throws SimbaException {
+        Account account = accounts.computeIfAbsent(new Key(blockchain, address),
+            k -> new Account());
+        synchronized (account) {
+            if (account.stale) {
+                account.next = source.getTransactionCount(blockchain, address);
+                account.stale = false;
+                if (log.isDebugEnabled()) {
+                    log.debug("NonceManager.acquire: seeded " + address + " on " + blockchain
+                        + " at " + account.next);
+                }
+            }
+            return account.next++;
+        }
+    }
+
+    /**
+     * Report that a transaction using a nonce was never sent, so the nonce was not used. If the
+     * transaction was sent, or may have been, for example the request timed out or the
+     * transaction failed on chain, call {@link #resync(String, String)} instead, as a mined or
+     * pending transaction has used the nonce and reusing it would collide.
+     *
+     * @param blockchain the blockchain name.
+     * @param address    the sender address.
+     * @param nonce      the nonce.
+     */
+    public void failed(String blockchain, String address, long nonce) {
+        Account account = accounts.get(new Key(blockchain, address));
+        if (account == null) {
+            return;
+        }
+        synchronized (account) {
+            if (!account.stale && nonce == account.next - 1) {
+                account.next = nonce;
+            } else {
+                account.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Re-seed an address from the server on the next acquire.
+     *
+     * @param blockchain the blockchain name.
+     * @param address    the sender address.
+     */
+    public void resync(String blockchain, String address) {
+        Account account = accounts.get(new Key(blockchain, address));
+        if (account != null) {
+            synchronized (account) {
+                account.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Re-seed all addresses from the server on their next acquire.
+     */
+    public void resyncAll() {
+        for (Account account : accounts.values()) {
+            synchronized (account) {
+                account.stale = true;
+            }
+        }
+    }
+
+    private static class Account {
+        private long next;
+        private boolean stale = true;
+    }
+
+    private static class Key {
+        private final String blockchain;
+        private final String address;
+
+        private Key(String blockchain, String address) {
+            this.blockchain = blockchain;
+            // addresses are hex, compare them case insensitively
+            this.address = address.toLowerCase();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(blockchain, key.blockchain) && address.equals(key.address);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(blockchain, address);
+        }
+    }
+}
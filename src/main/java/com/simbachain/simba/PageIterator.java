@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.simbachain.SimbaException;
+
+/**
+ * Iterates over the results of a paged query, following each page's next URL.
+ * <p>
+ * Pages are fetched with the asynchronous client, so while the caller works through one
+ * page the following pages are already being fetched. At most prefetch pages are fetched
+ * ahead of the page being read.
+ * <p>
+ * Errors fetching a page are thrown from hasNext() or next() as an UncheckedIOException
+ * wrapping the SimbaException. Close the iterator, or the stream, to stop prefetching if
+ * it is not read to the end.
+ */
+public class PageIterator<R> implements Iterator<R>, AutoCloseable {
+
+    public static final int DEFAULT_PREFETCH = 2;
+
+    private final Function<String, CompletableFuture<PagedResult<R>>> fetcher;
+    private final int prefetch;
+    private final Deque<CompletableFuture<PagedResult<R>>> pages = new ArrayDeque<>();
+    private CompletableFuture<PagedResult<R>> last;
+    private Iterator<? extends R> current = Collections.emptyIterator();
+    private boolean closed;
+
+    /**
+     * @param first    the first page.
+     * @param fetcher  fetches the page at a next URL.
+     * @param prefetch the maximum number of pages to fetch ahead, at least 1.
+     */
+    public PageIterator(CompletableFuture<PagedResult<R>> first,
+        Function<String, CompletableFuture<PagedResult<R>>> fetcher,
+        int prefetch) {
+        this.fetcher = fetcher;
+        this.prefetch = Math.max(1, prefetch);
+        this.last = first;
+        this.pages.add(first);
+        first.whenComplete((page, error) -> fill());
+    }
+
+    /**
+     * Fetch pages after the last one fetched, until prefetch pages are waiting to be read.
+     */
+    private synchronized void fill() {
+        while (!closed && pages.size() < prefetch && last.isDone()
+            && !last.isCompletedExceptionally()) {
+            PagedResult<R> page = last.join();
+            if (page == null || page.getNext() == null) {
+                return;
+            }
+            last = fetcher.apply(page.getNext());
+            pages.add(last);
+            last.whenComplete((p, error) -> fill());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            CompletableFuture<PagedResult<R>> future;
+            synchronized (this) {
+                future = pages.poll();
+            }
+            if (future == null) {
+                return false;
+            }
+            PagedResult<R> page;
+            try {
+                page = future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                close();
+                throw new UncheckedIOException(
+                    new SimbaException(SimbaException.SimbaError.EXECUTION_ERROR, e));
+            } catch (ExecutionException e) {
+                close();
+                Throwable cause = e.getCause();
+                throw new UncheckedIOException(cause instanceof SimbaException
+                                               ? (SimbaException) cause
+                                               : new SimbaException(
+                                                   SimbaException.SimbaError.EXECUTION_ERROR,
+                                                   cause));
+            }
+            fill();
+            if (page != null && page.getResults() != null) {
+                current = page.getResults()
+                              .iterator();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * @return a sequential stream of the results. Closing the stream closes this iterator.
+     */
+    public Stream<R> stream() {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+                            .onClose(this::close);
+    }
+
+    /**
+     * Stop fetching pages. Pages already requested are cancelled.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (CompletableFuture<PagedResult<R>> page : pages) {
+            page.cancel(false);
+        }
+        pages.clear();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import com.simbachain.simba.management.Blockchain;
+
+/**
+ * Chooses how long to wait before polling a transaction again.
+ */
+public interface PollingPolicy {
+
+    /**
+     * Get the delay before the next poll.
+     *
+     * @param state    the last state retrieved, or null if the transaction has not been
+     *                 retrieved yet.
+     * @param stateAge milliseconds since the transaction was first seen in this state.
+     * @param attempt  the number of polls made since the transaction entered this state,
+     *                 starting at 0.
+     * @return the delay in milliseconds.
+     */
+    long nextDelay(Transaction.State state, long stateAge, int attempt);
+
+    /**
+     * A policy that always waits the same interval.
+     *
+     * @param interval the interval in milliseconds.
+     * @return the policy.
+     */
+    static PollingPolicy fixed(long interval) {
+        return (state, stateAge, attempt) -> interval;
+    }
+
+    /**
+     * An adaptive policy using the blockchain's block time and required confirmations.
+     * Falls back to AdaptivePollingPolicy defaults for values the blockchain does not set.
+     *
+     * @param blockchain the blockchain transactions are sent to.
+     * @return the policy.
+     */
+    static PollingPolicy forBlockchain(Blockchain blockchain) {
+        return AdaptivePollingPolicy.forBlockchain(blockchain);
+    }
+}
@@ -23,9 +23,16 @@
 package com.simbachain.simba;
 
 import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URLEncoder;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.TimeZone;
 
 /**
  * Query parameters for querying for transactions.
@@ -73,6 +80,17 @@ public class Query {
             return null;
         }
 
+        /**
+         * Whether a field value held locally matches this parameter, as the server would
+         * evaluate it. Used by {@link LocalStore}.
+         *
+         * @param field the field's value, or null if the field is absent.
+         * @return true if the value matches.
+         */
+        public boolean test(Object field) {
+            return false;
+        }
+
         protected String asJsonApiString(String op) {
             try {
                 return "filter[" + name + op + "]=" + URLEncoder.encode(value.toString(), "UTF-8");
@@ -95,6 +113,11 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".gt");
         }
+
+        public boolean test(Object field) {
+            Integer c = compare(field, value);
+            return c != null && c > 0;
+        }
     }
     public static class Lt extends Param<Number> {
 
@@ -110,6 +133,10 @@ public class Query {
             return asJsonApiString(".lt");
         }
 
+        public boolean test(Object field) {
+            Integer c = compare(field, value);
+            return c != null && c < 0;
+        }
     }
     public static class Gte extends Param<Number> {
 
@@ -124,6 +151,11 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".gte");
         }
+
+        public boolean test(Object field) {
+            Integer c = compare(field, value);
+            return c != null && c >= 0;
+        }
     }
     public static class Lte extends Param<Number> {
 
@@ -138,6 +170,39 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".lte");
         }
+
+        public boolean test(Object field) {
+            Integer c = compare(field, value);
+            return c != null && c <= 0;
+        }
+    }
+    public static class DateGte extends Param<String> {
+
+        public DateGte(String name, Date value) {
+            super(name, format(value));
+        }
+
+        /**
+         * Format a date the way the server writes created_on values, to the second in UTC.
+         */
+        static String format(Date value) {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+            format.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return format.format(value);
+        }
+
+        public String toString() {
+            return asString("_gte");
+        }
+
+        public String toJsonApiString() {
+            return asJsonApiString(".gte");
+        }
+
+        public boolean test(Object field) {
+            return field != null && field.toString()
+                                         .compareTo(value) >= 0;
+        }
     }
     public static class Eq extends Param<Number> {
 
@@ -152,6 +217,11 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".equals");
         }
+
+        public boolean test(Object field) {
+            Integer c = compare(field, value);
+            return c != null && c == 0;
+        }
     }
     public static class Ex extends Param<String> {
 
@@ -166,6 +236,10 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".exact");
         }
+
+        public boolean test(Object field) {
+            return field != null && value.equals(field.toString());
+        }
     }
     public static class Contains extends Param<String> {
 
@@ -180,6 +254,11 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".contains");
         }
+
+        public boolean test(Object field) {
+            return field != null && field.toString()
+                                         .contains(value);
+        }
     }
     public static class Is extends Param<Boolean> {
 
@@ -194,6 +273,10 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".exact");
         }
+
+        public boolean test(Object field) {
+            return field != null && value.equals(Boolean.valueOf(field.toString()));
+        }
     }
 
 //    public static class IEx extends Param<String> {
@@ -224,6 +307,12 @@ public class Query {
         public String toJsonApiString() {
             return asJsonApiString(".icontains");
         }
+
+        public boolean test(Object field) {
+            return field != null && field.toString()
+                                         .toLowerCase()
+                                         .contains(value.toLowerCase());
+        }
     }
 
     public static class Num extends Param<Number> {
@@ -239,6 +328,11 @@ public class Query {
         public String toJsonApiString() {
             return asString("");
         }
+
+        public boolean test(Object field) {
+            Integer c = compare(field, value);
+            return c != null && c == 0;
+        }
     }
 
     public static class Bool extends Param<Boolean> {
@@ -254,6 +348,10 @@ public class Query {
         public String toJsonApiString() {
             return asString("");
         }
+
+        public boolean test(Object field) {
+            return field != null && value.equals(Boolean.valueOf(field.toString()));
+        }
     }
 
     public static class Str extends Param<String> {
@@ -269,6 +367,54 @@ public class Query {
         public String toJsonApiString() {
             return asString("");
         }
+
+        public boolean test(Object field) {
+            return field != null && value.equals(field.toString());
+        }
+    }
+
+    public static class In extends Param<String> {
+
+        public In(String name, Collection<String> values) {
+            super(name, String.join(",", values));
+        }
+
+        public String toString() {
+            return asString("_in");
+        }
+
+        public String toJsonApiString() {
+            return asJsonApiString(".in");
+        }
+
+        public boolean test(Object field) {
+            return field != null && Arrays.asList(value.split(","))
+                                          .contains(field.toString());
+        }
+    }
+
+    /**
+     * Compare a field value held locally to a number, parsing strings, including hex
+     * quantities, as the server does.
+     *
+     * @return the comparison, or null if the field is absent or not a number.
+     */
+    static Integer compare(Object field, Number value) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            BigDecimal number;
+            String text = field.toString();
+            if (text.startsWith("0x")) {
+                number = new BigDecimal(new BigInteger(text.substring(2), 16));
+            } else {
+                number = new BigDecimal(text);
+            }
+            return number.compareTo(new BigDecimal(value.toString()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     public static class Params {
@@ -294,6 +440,11 @@ public class Query {
             return this;
         }
 
+        public Params gte(String name, Date value) {
+            params.add(new DateGte(name, value));
+            return this;
+        }
+
         public Params eq(String name, Number value) {
             params.add(new Eq(name, value));
             return this;
@@ -309,6 +460,15 @@ public class Query {
 //            return this;
 //        }
 
+        public Params in(String name, Collection<String> values) {
+            params.add(new In(name, values));
+            return this;
+        }
+
+        public Params in(String name, String... values) {
+            return in(name, Arrays.asList(values));
+        }
+
         public Params icontains(String name, String value) {
             params.add(new IContains(name, value));
             return this;
@@ -342,6 +502,16 @@ public class Query {
         public List<Param<?>> getParams() {
             return params;
         }
+
+        /**
+         * @return a new Params holding the same parameters, which can be added to without
+         * changing these.
+         */
+        public Params copy() {
+            Params copy = new Params();
+            copy.params.addAll(params);
+            return copy;
+        }
         
         public boolean containsParam(String name, Object value) {
             for (Param<?> param : params) {
@@ -411,6 +581,12 @@ public class Query {
         return p;
     }
 
+    public static Params gte(String name, Date value) {
+        Params p = new Params();
+        p.gte(name, value);
+        return p;
+    }
+
     public static Params eq(String name, Number value) {
         Params p = new Params();
         p.eq(name, value);
@@ -429,6 +605,18 @@ public class Query {
 //        return p;
 //    }
 
+    public static Params in(String name, Collection<String> values) {
+        Params p = new Params();
+        p.in(name, values);
+        return p;
+    }
+
+    public static Params in(String name, String... values) {
+        Params p = new Params();
+        p.in(name, values);
+        return p;
+    }
+
     public static Params icontains(String name, String value) {
         Params p = new Params();
         p.icontains(name, value);
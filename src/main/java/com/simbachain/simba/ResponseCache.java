@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In memory cache of responses that cannot change: bundle manifests, which are addressed
+ * by their content hash, and transactions that have reached a final state of COMPLETED,
+ * FAILED or TIMED_OUT.
+ * <p>
+ * Manifests and transactions are each held in a least recently used map of at most
+ * maxEntries. Objects are copied when cached and again when returned, so callers can modify
+ * what they are given without changing what other callers get.
+ */
+public class ResponseCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+    private final Map<String, Manifest> manifests;
+    private final Map<String, Transaction> transactions;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries the maximum number of manifests, and of transactions, to hold.
+     */
+    public ResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.manifests = new LruMap<>();
+        this.transactions = new LruMap<>();
+    }
+
+    /**
+     * @param state a transaction state.
+     * @return true if a transaction in this state will not change.
+     */
+    public static boolean isFinal(Transaction.State state) {
+        return state == Transaction.State.COMPLETED
+            || state == Transaction.State.FAILED
+            || state == Transaction.State.TIMED_OUT;
+    }
+
+    public Manifest getManifest(String bundleHash) {
+        Manifest manifest;
+        synchronized (manifests) {
+            manifest = manifests.get(bundleHash);
+        }
+        record(manifest != null);
+        return manifest == null ? null : copy(manifest);
+    }
+
+    public void putManifest(Manifest manifest) {
+        if (manifest.getHash() == null) {
+            return;
+        }
+        synchronized (manifests) {
+            manifests.put(manifest.getHash(), copy(manifest));
+        }
+    }
+
+    public Transaction getTransaction(String txnId) {
+        Transaction txn;
+        synchronized (transactions) {
+            txn = transactions.get(txnId);
+        }
+        record(txn != null);
+        return txn == null ? null : copy(txn);
+    }
+
+    /**
+     * Cache a transaction if it is in a final state.
+     *
+     * @param txn the transaction.
+     */
+    public void putTransaction(Transaction txn) {
+        if (txn.getId() == null || !isFinal(txn.getState())) {
+            return;
+        }
+        synchronized (transactions) {
+            transactions.put(txn.getId(), copy(txn));
+        }
+    }
+
+    public void clear() {
+        synchronized (manifests) {
+            manifests.clear();
+        }
+        synchronized (transactions) {
+            transactions.clear();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int getManifestCount() {
+        synchronized (manifests) {
+            return manifests.size();
+        }
+    }
+
+    public int getTransactionCount() {
+        synchronized (transactions) {
+            return transactions.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries removed to make room for newer ones.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void record(boolean hit) {
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    private static Manifest copy(Manifest manifest) {
+        return Mappers.mapper()
+                      .convertValue(manifest, Manifest.class);
+    }
+
+    /**
+     * Copy a transaction through its JSON form, so that fields added to Transaction are copied
+     * without changes here. The fields that are not in the JSON form, and the creation time,
+     * which is written to the second, are copied directly.
+     */
+    private static Transaction copy(Transaction txn) {
+        Transaction copy = Mappers.mapper()
+                                  .convertValue(txn, Transaction.class);
+        copy.setCreated(txn.getCreated() == null ? null : new Date(txn.getCreated().getTime()));
+        copy.setApp(txn.getApp());
+        if (txn.getMethodParameters() != null) {
+            copy.setMethodParameters(new HashMap<>(txn.getMethodParameters()));
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ResponseCache{");
+        sb.append("maxEntries=")
+          .append(maxEntries);
+        sb.append(", manifests=")
+          .append(getManifestCount());
+        sb.append(", transactions=")
+          .append(getTransactionCount());
+        sb.append(", hits=")
+          .append(getHits());
+        sb.append(", misses=")
+          .append(getMisses());
+        sb.append(", evictions=")
+          .append(getEvictions());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private class LruMap<V> extends LinkedHashMap<String, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
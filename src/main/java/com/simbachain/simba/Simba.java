@@ -23,10 +23,11 @@
 package com.simbachain.simba;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import com.simbachain.SimbaException;
@@ -42,6 +43,8 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
     private final String contract;
     protected Metadata metadata;
     private final C config;
+    private TransactionTracker transactionTracker;
+    private volatile PollingPolicy pollingPolicy = PollingPolicy.fixed(1000);
 
     /**
      * Constructor overrriden by subclasses.
@@ -53,7 +56,8 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
     public Simba(String endpoint, String contract, C config) {
         super(endpoint);
         this.contract = contract;
-        this.client = config.getClientFactory().getClient();
+        this.clientFactory = config.getClientFactory();
+        this.client = clientFactory.getClient();
         this.config = config;
     }
 
@@ -86,7 +90,9 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
      * @throws SimbaException if an error occurs
      */
     public void init() throws SimbaException {
-        this.metadata = loadMetadata();
+        Metadata metadata = loadMetadata();
+        metadata.compileValidators();
+        this.metadata = metadata;
         if (log.isDebugEnabled()) {
             log.debug(this.metadata.toString());
         }
@@ -103,6 +109,72 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
      */
     public abstract Transaction getTransaction(String txnId) throws SimbaException;
 
+    /**
+     * Get a Transaction given a transaction ID without blocking the calling thread.
+     * This implementation calls getTransaction on the calling thread. Subclasses should
+     * override it to make the request asynchronously.
+     *
+     * @param txnId a transaction ID
+     * @return a future that completes with the Transaction.
+     */
+    public CompletableFuture<Transaction> getTransactionAsync(String txnId) {
+        try {
+            return CompletableFuture.completedFuture(getTransaction(txnId));
+        } catch (SimbaException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Get several transactions given their IDs without blocking the calling thread.
+     * This implementation makes one getTransactionAsync call per ID. Subclasses should
+     * override it to use a single query.
+     *
+     * @param txnIds transaction IDs
+     * @return a future that completes with the transactions found, in no particular order.
+     */
+    public CompletableFuture<List<Transaction>> getTransactionsAsync(Collection<String> txnIds) {
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (String txnId : txnIds) {
+            futures.add(getTransactionAsync(txnId));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                                .thenApply(v -> {
+                                    List<Transaction> txns = new ArrayList<>();
+                                    for (CompletableFuture<Transaction> future : futures) {
+                                        txns.add(future.join());
+                                    }
+                                    return txns;
+                                });
+    }
+
+    public PollingPolicy getPollingPolicy() {
+        return pollingPolicy;
+    }
+
+    /**
+     * Set the polling policy used by the waitForTransaction methods that do not take an
+     * interval, for example PollingPolicy.forBlockchain(blockchain).
+     *
+     * @param pollingPolicy the policy.
+     */
+    public void setPollingPolicy(PollingPolicy pollingPolicy) {
+        this.pollingPolicy = pollingPolicy;
+    }
+
+    /**
+     * Get the tracker used by the waitForTransaction methods. Use it directly to wait for
+     * a transaction with a CompletableFuture.
+     *
+     * @return the transaction tracker for this client.
+     */
+    public synchronized TransactionTracker getTransactionTracker() {
+        if (transactionTracker == null) {
+            transactionTracker = new TransactionTracker(this);
+        }
+        return transactionTracker;
+    }
+
     /**
      * Invoke a particular method of a smart contract via the SIMBA HTTP API.
      *
@@ -281,15 +353,32 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
     }
 
     /**
-     * Wait for a transaction to reach COMPLETED stage. Polling interval is set to 1 second
-     * and total wait time is set to 10 seconds.
+     * Wait for a transaction to reach COMPLETED stage. Polls according to the client's
+     * polling policy, which by default polls every second, and total wait time is set
+     * to 10 seconds.
      *
      * @param txnId The transaction or requiest ID.
      * @return a Future object that returns a Transaction.
      * @throws SimbaException if something goes wrong.
      */
     public Future<Transaction> waitForTransactionCompletion(String txnId) throws SimbaException {
-        return submit(txnId, 1000, 10, Transaction.State.COMPLETED);
+        return getTransactionTracker().track(txnId, Transaction.State.COMPLETED, pollingPolicy,
+            10 * 1000L);
+    }
+
+    /**
+     * Wait for a transaction to reach COMPLETED stage.
+     *
+     * @param txnId        The transaction or requiest ID.
+     * @param policy       Chooses the interval between polls.
+     * @param totalSeconds Total time to wait.
+     * @return a Future object that returns a Transaction.
+     */
+    public Future<Transaction> waitForTransactionCompletion(String txnId,
+        PollingPolicy policy,
+        int totalSeconds) {
+        return getTransactionTracker().track(txnId, Transaction.State.COMPLETED, policy,
+            totalSeconds * 1000L);
     }
 
     /**
@@ -308,15 +397,32 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
     }
 
     /**
-     * Wait for a transaction to reach SUBMITTED stage. Polling interval is set to 1 second
-     * and total wait time is set to 10 seconds.
+     * Wait for a transaction to reach SUBMITTED stage. Polls according to the client's
+     * polling policy, which by default polls every second, and total wait time is set
+     * to 10 seconds.
      *
      * @param txnId The transaction or requiest ID.
      * @return a Future object that returns a Transaction.
      * @throws SimbaException if something goes wrong.
      */
     public Future<Transaction> waitForTransactionSubmitted(String txnId) throws SimbaException {
-        return submit(txnId, 1000, 10, Transaction.State.SUBMITTED);
+        return getTransactionTracker().track(txnId, Transaction.State.SUBMITTED, pollingPolicy,
+            10 * 1000L);
+    }
+
+    /**
+     * Wait for a transaction to reach SUBMITTED stage.
+     *
+     * @param txnId        The transaction or requiest ID.
+     * @param policy       Chooses the interval between polls.
+     * @param totalSeconds Total time to wait.
+     * @return a Future object that returns a Transaction.
+     */
+    public Future<Transaction> waitForTransactionSubmitted(String txnId,
+        PollingPolicy policy,
+        int totalSeconds) {
+        return getTransactionTracker().track(txnId, Transaction.State.SUBMITTED, policy,
+            totalSeconds * 1000L);
     }
 
     @Override
@@ -324,52 +430,12 @@ public abstract class Simba<C extends SimbaConfig> extends SimbaClient {
         return super.jsonResponseHandler(cls);
     }
 
-    private class TransactionCallable implements Callable<Transaction> {
-
-        private final String txnId;
-        private final long poll;
-        private final int totalSeconds;
-        private final Transaction.State state;
-
-        private TransactionCallable(String txnId,
-            long poll,
-            int totalSeconds,
-            Transaction.State state) {
-            this.txnId = txnId;
-            this.poll = poll;
-            this.totalSeconds = totalSeconds;
-            this.state = state;
-        }
-
-        @Override
-        public Transaction call() throws Exception {
-            Transaction txn = null;
-            long now = System.currentTimeMillis();
-            long end = now + (totalSeconds * 1000L);
-            while (now < end) {
-                txn = getTransaction(txnId);
-                if (txn != null && (txn.getState() == state
-                    || txn.getState() == Transaction.State.COMPLETED)) {
-                    return txn;
-                }
-                Thread.sleep(poll);
-                now = System.currentTimeMillis();
-            }
-            return txn;
-        }
-    }
-
     //****************************** END OF PUBLIC INTERFACE ******************************//
 
     private Future<Transaction> submit(String txnId,
         long interval,
         int totalSeconds,
         Transaction.State state) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Future<Transaction> txn = executor.submit(
-            new TransactionCallable(txnId, interval, totalSeconds, state));
-        executor.shutdown();
-        return txn;
-
+        return getTransactionTracker().track(txnId, state, interval, totalSeconds * 1000L);
     }
 }
@@ -23,34 +23,57 @@
 package com.simbachain.simba;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.simbachain.SimbaException;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.methods.AsyncByteConsumer;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,9 +83,20 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class SimbaClient {
 
+    /**
+     * Maximum number of characters of an error response body read for an exception message.
+     */
+    protected static final int MAX_ERROR_BODY = 64 * 1024;
+    /**
+     * Maximum number of bytes of a response body kept for debug logging.
+     */
+    protected static final int MAX_LOG_BODY = 1000;
+
     private final String endpoint;
-    protected ObjectMapper mapper = new ObjectMapper();
+    protected ObjectMapper mapper = Mappers.mapper();
     protected CloseableHttpClient client;
+    protected HttpClientFactory clientFactory;
+    private volatile int pagePrefetch = PageIterator.DEFAULT_PREFETCH;
     protected Logger log = LoggerFactory.getLogger(getClass().getName());
 
     public SimbaClient(String endpoint) {
@@ -100,31 +134,7 @@ public abstract class SimbaClient {
             throw new SimbaException("No metadata. You may need to call init() first.",
                 SimbaException.SimbaError.METADATA_NOT_AVAILABLE);
         }
-        Method m = metadata.getMethod(method);
-        if (m == null) {
-            throw new SimbaException(String.format("No method named %s", method),
-                SimbaException.SimbaError.MESSAGE_ERROR);
-        }
-        Set<String> keys = parameters.keys();
-        for (String key : keys) {
-            if (key.equals(metadata.getFileIndicator())) {
-                throw new SimbaException(String.format(
-                    "Files parameters%s for method %s should not be used. Please upload files as attachments",
-                    key, method), SimbaException.SimbaError.MESSAGE_ERROR);
-            }
-            if (m.getParameterMap()
-                 .get(key) == null) {
-                throw new SimbaException(
-                    String.format("Unknown parameter %s for method %s", key, method),
-                    SimbaException.SimbaError.MESSAGE_ERROR);
-            }
-        }
-        if (m.getParameterMap()
-             .get(metadata.getFileIndicator()) == null && files) {
-            throw new SimbaException(
-                String.format("Method %s does not support file uploads.", method),
-                SimbaException.SimbaError.MESSAGE_ERROR);
-        }
+        validator(metadata, method).validate(parameters, files);
     }
 
     protected void validateQueryParameters(Metadata metadata,
@@ -142,26 +152,16 @@ public abstract class SimbaClient {
             throw new SimbaException("No metadata. You may need to call init() first.",
                 SimbaException.SimbaError.METADATA_NOT_AVAILABLE);
         }
-        Method m = metadata.getMethod(method);
-        if (m == null) {
+        validator(metadata, method).validate(parameters);
+    }
+
+    private MethodValidator validator(Metadata metadata, String method) throws SimbaException {
+        MethodValidator validator = metadata.getValidator(method);
+        if (validator == null) {
             throw new SimbaException(String.format("No method named %s", method),
                 SimbaException.SimbaError.MESSAGE_ERROR);
         }
-        for (Query.Param<?> parameter : parameters.getParams()) {
-            String name = parameter.getName();
-            if (name.contains(".")) {
-                name = name.substring(name.indexOf(".") + 1);
-                if (name.contains(".")) {
-                    name = name.substring(0, name.indexOf("."));
-                }
-            }
-            if (m.getParameterMap()
-                 .get(name) == null) {
-                throw new SimbaException(
-                    String.format("Unknown parameter %s for method %s", name, method),
-                    SimbaException.SimbaError.MESSAGE_ERROR);
-            }
-        }
+        return validator;
     }
 
     /**
@@ -201,7 +201,7 @@ public abstract class SimbaClient {
         } else if (mime.equals("application/json") || mime.equals("application/vnd.api+json")) {
             try {
                 StringBuilder sb = new StringBuilder();
-                Map<?, ?> map = mapper.readValue(body, Map.class);
+                Map<?, ?> map = readerFor(Map.class).readValue(body);
                 Object err = map.get("error");
                 if (err != null) {
                     if (err instanceof String) {
@@ -218,7 +218,7 @@ public abstract class SimbaClient {
                 }
                 err = map.get("errors");
                 if (err instanceof Collection) {
-                    Errors errs = mapper.readValue(body, Errors.class);
+                    Errors errs = readerFor(Errors.class).readValue(body);
                     List<Error> ers = errs.getErrors();
                     if (ers != null && ers.size() > 0) {
                         Error error = ers.get(0);
@@ -301,26 +301,8 @@ public abstract class SimbaClient {
      * @return ResponseHandler that returns an instance of the requested class
      */
     protected <C> ResponseHandler<C> jsonResponseHandler(final Class<C> cls) {
-        return response -> {
-            int status = response.getStatusLine()
-                                 .getStatusCode();
-            String reason = response.getStatusLine()
-                                    .getReasonPhrase();
-            String mime = "text/plain";
-            String responseString = "";
-            HttpEntity entity = response.getEntity();
-            if (entity != null) {
-                ContentType contentType = ContentType.getOrDefault(entity);
-                mime = contentType.getMimeType();
-                responseString = EntityUtils.toString(entity);
-                log.debug("jsonResponseHandler response string: " + truncateLogString(responseString));
-            }
-            if (status >= 200 && status < 300) {
-                return mapper.readValue(responseString, cls);
-            } else {
-                throw createException(mime, status, reason, responseString);
-            }
-        };
+        final ObjectReader reader = readerFor(cls);
+        return response -> readJson(response, reader::readValue);
     }
 
     /**
@@ -331,26 +313,8 @@ public abstract class SimbaClient {
      * @return ResponseHandler that returns an instance of the requested class
      */
     protected <C> ResponseHandler<C> jsonResponseHandler(final TypeReference<C> tf) {
-        return response -> {
-            int status = response.getStatusLine()
-                                 .getStatusCode();
-            String reason = response.getStatusLine()
-                                    .getReasonPhrase();
-            String mime = "text/plain";
-            String responseString = "";
-            HttpEntity entity = response.getEntity();
-            if (entity != null) {
-                ContentType contentType = ContentType.getOrDefault(entity);
-                mime = contentType.getMimeType();
-                responseString = EntityUtils.toString(entity);
-                log.debug("jsonResponseHandler response string: " + truncateLogString(responseString));
-            }
-            if (status >= 200 && status < 300) {
-                return mapper.readValue(responseString, tf);
-            } else {
-                throw createException(mime, status, reason, responseString);
-            }
-        };
+        final ObjectReader reader = readerFor(tf);
+        return response -> readJson(response, reader::readValue);
     }
 
     /**
@@ -361,27 +325,160 @@ public abstract class SimbaClient {
      * @return ResponseHandler that returns an instance of the requested class
      */
     protected <C> ResponseHandler<HeaderedResponse<C>> jsonHeaderResponseHandler(final TypeReference<C> tf) {
+        final ObjectReader reader = readerFor(tf);
         return response -> {
-            int status = response.getStatusLine()
-                                 .getStatusCode();
-            String reason = response.getStatusLine()
-                                    .getReasonPhrase();
-            String mime = "text/plain";
-            String responseString = "";
-            HttpEntity entity = response.getEntity();
-            if (entity != null) {
-                ContentType contentType = ContentType.getOrDefault(entity);
-                mime = contentType.getMimeType();
-                responseString = EntityUtils.toString(entity);
-                log.debug("jsonResponseHandler response string: " + truncateLogString(responseString));
+            C result = readJson(response, reader::readValue);
+            return new HeaderedResponse<C>(response.getAllHeaders(), result);
+        };
+    }
+
+    /**
+     * @return a writer for request bodies. The shared mapper's writer is cached in Mappers.
+     */
+    protected ObjectWriter writer() {
+        return mapper == Mappers.mapper() ? Mappers.writer() : mapper.writer();
+    }
+
+    /**
+     * Get a reader for a class. Readers for the shared mapper are cached in Mappers.
+     *
+     * @param cls the class to read.
+     * @return a reader bound to the class.
+     */
+    protected ObjectReader readerFor(Class<?> cls) {
+        return mapper == Mappers.mapper() ? Mappers.reader(cls) : mapper.readerFor(cls);
+    }
+
+    /**
+     * Get a reader for a generic type. Readers for the shared mapper are cached in Mappers.
+     *
+     * @param tf the type to read.
+     * @return a reader bound to the type.
+     */
+    protected ObjectReader readerFor(TypeReference<?> tf) {
+        return mapper == Mappers.mapper() ? Mappers.reader(tf) : mapper.readerFor(tf);
+    }
+
+    /**
+     * Reads a JSON value from the response.
+     * <p>
+     * On success the value is decoded directly from the entity stream, so the body is never held
+     * as a String. If debug logging is enabled, only the start of the body is kept for the log.
+     * On error, at most MAX_ERROR_BODY characters of the body are read for createException.
+     *
+     * @param response the HTTP response.
+     * @param reader   decodes the entity stream.
+     * @param <C>      the decoded type.
+     * @return the decoded value.
+     * @throws IOException if the status is not 2xx or the body cannot be decoded.
+     */
+    protected <C> C readJson(HttpResponse response, JsonReader<C> reader) throws IOException {
+        int status = response.getStatusLine()
+                             .getStatusCode();
+        HttpEntity entity = response.getEntity();
+        if (status >= 200 && status < 300) {
+            if (entity == null) {
+                return reader.read(new ByteArrayInputStream(new byte[0]));
             }
-            if (status >= 200 && status < 300) {
-                Header[] headers = response.getAllHeaders();
-                return new HeaderedResponse<C>(headers, mapper.readValue(responseString, tf));
-            } else {
-                throw createException(mime, status, reason, responseString);
+            try (InputStream in = entity.getContent()) {
+                if (log.isDebugEnabled()) {
+                    PrefixCapturingInputStream capture = new PrefixCapturingInputStream(in,
+                        MAX_LOG_BODY);
+                    C result = reader.read(capture);
+                    log.debug("jsonResponseHandler response string: " + truncateLogString(
+                        capture.getPrefix()));
+                    return result;
+                }
+                return reader.read(in);
             }
-        };
+        }
+        String reason = response.getStatusLine()
+                                .getReasonPhrase();
+        String mime = "text/plain";
+        String responseString = "";
+        if (entity != null) {
+            ContentType contentType = ContentType.getOrDefault(entity);
+            mime = contentType.getMimeType();
+            responseString = readErrorBody(entity);
+            log.debug("jsonResponseHandler response string: " + truncateLogString(responseString));
+        }
+        throw createException(mime, status, reason, responseString);
+    }
+
+    /**
+     * Read an error response body, up to MAX_ERROR_BODY characters.
+     *
+     * @param entity the entity.
+     * @return the start of the body as a string.
+     * @throws IOException if the body cannot be read.
+     */
+    protected String readErrorBody(HttpEntity entity) throws IOException {
+        InputStream in = entity.getContent();
+        if (in == null) {
+            return "";
+        }
+        ContentType contentType = ContentType.getOrDefault(entity);
+        Charset charset = contentType.getCharset() != null
+                          ? contentType.getCharset()
+                          : StandardCharsets.UTF_8;
+        try (Reader reader = new InputStreamReader(in, charset)) {
+            StringBuilder sb = new StringBuilder();
+            char[] tmp = new char[4096];
+            int c;
+            while (sb.length() < MAX_ERROR_BODY && (c = reader.read(tmp, 0,
+                Math.min(tmp.length, MAX_ERROR_BODY - sb.length()))) != -1) {
+                sb.append(tmp, 0, c);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Decodes a JSON value from a stream.
+     *
+     * @param <C> the decoded type.
+     */
+    @FunctionalInterface
+    protected interface JsonReader<C> {
+
+        C read(InputStream in) throws IOException;
+    }
+
+    /**
+     * Keeps the first bytes read from a stream so they can be logged.
+     */
+    private static class PrefixCapturingInputStream extends FilterInputStream {
+
+        private final ByteArrayOutputStream prefix;
+        private final int max;
+
+        private PrefixCapturingInputStream(InputStream in, int max) {
+            super(in);
+            this.max = max;
+            this.prefix = new ByteArrayOutputStream(max);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1 && prefix.size() < max) {
+                prefix.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int c = super.read(b, off, len);
+            if (c > 0 && prefix.size() < max) {
+                prefix.write(b, off, Math.min(c, max - prefix.size()));
+            }
+            return c;
+        }
+
+        private String getPrefix() {
+            return new String(prefix.toByteArray(), StandardCharsets.UTF_8);
+        }
     }
 
     /**
@@ -425,7 +522,7 @@ public abstract class SimbaClient {
                 }
             } else {
                 if (entity != null) {
-                    errorResponse = EntityUtils.toString(entity);
+                    errorResponse = readErrorBody(entity);
                     String reason = response.getStatusLine()
                                             .getReasonPhrase();
                     ContentType contentType = ContentType.getOrDefault(entity);
@@ -437,6 +534,85 @@ public abstract class SimbaClient {
         };
     }
 
+    /**
+     * Create a non-blocking response consumer that writes to a stream as content arrives.
+     * The result is the number of bytes written to the output stream.
+     * On error, at most MAX_ERROR_BODY bytes of the body are kept for createException.
+     *
+     * @param outputStream an output stream to write the response to.
+     * @param close        whether or not to close the output stream on completion.
+     * @return HttpAsyncResponseConsumer that returns the number of bytes written.
+     */
+    protected HttpAsyncResponseConsumer<Long> streamResponseConsumer(
+        final OutputStream outputStream,
+        final boolean close) {
+        return new AsyncByteConsumer<Long>() {
+
+            private HttpResponse response;
+            private ByteArrayOutputStream errorResponse;
+            private long total = 0;
+
+            @Override
+            protected void onResponseReceived(HttpResponse response) {
+                this.response = response;
+                int status = response.getStatusLine()
+                                     .getStatusCode();
+                if (status < 200 || status >= 300) {
+                    errorResponse = new ByteArrayOutputStream();
+                }
+            }
+
+            @Override
+            protected void onByteReceived(ByteBuffer buf, IOControl ioControl)
+                throws IOException {
+                OutputStream target = outputStream;
+                int length = buf.remaining();
+                if (errorResponse != null) {
+                    // keep the start of an error body, as readErrorBody does, and drop the rest
+                    target = errorResponse;
+                    length = Math.min(length, MAX_ERROR_BODY - errorResponse.size());
+                }
+                if (buf.hasArray()) {
+                    target.write(buf.array(), buf.arrayOffset() + buf.position(), length);
+                } else {
+                    byte[] tmp = new byte[length];
+                    buf.get(tmp);
+                    target.write(tmp);
+                }
+                buf.position(buf.limit());
+                total += length;
+            }
+
+            @Override
+            protected Long buildResult(HttpContext context) throws Exception {
+                if (errorResponse == null) {
+                    return total;
+                }
+                int status = response.getStatusLine()
+                                     .getStatusCode();
+                String reason = response.getStatusLine()
+                                        .getReasonPhrase();
+                String mime = "text/plain";
+                if (response.getEntity() != null) {
+                    mime = ContentType.getOrDefault(response.getEntity())
+                                      .getMimeType();
+                }
+                throw createException(mime, status, reason, errorResponse.toString("UTF-8"));
+            }
+
+            @Override
+            protected void releaseResources() {
+                if (close) {
+                    try {
+                        outputStream.close();
+                    } catch (IOException e) {
+                        log.debug("Error closing output stream", e);
+                    }
+                }
+            }
+        };
+    }
+
     /**
      * Create an HTTP entity.
      *
@@ -459,7 +635,7 @@ public abstract class SimbaClient {
                 if (d instanceof List || d.getClass()
                                           .isArray() || d instanceof Map) {
                     try {
-                        d = this.mapper.writeValueAsString(d);
+                        d = writer().writeValueAsString(d);
                     } catch (JsonProcessingException e) {
                         throw new SimbaException("Error converting array to JSON",
                             SimbaException.SimbaError.MESSAGE_ERROR, e);
@@ -483,7 +659,7 @@ public abstract class SimbaClient {
             return builder.build();
         } else {
             try {
-                String json = mapper.writeValueAsString(data);
+                String json = writer().writeValueAsString(data);
                 return new StringEntity(json, ContentType.APPLICATION_JSON);
             } catch (JsonProcessingException e) {
                 throw new SimbaException("Error parsing JSON",
@@ -538,6 +714,18 @@ public abstract class SimbaClient {
                 + "]");
         }
 
+        HttpPost httpPost = createPost(endpoint, data, clientHeaders, files);
+        try {
+            return this.client.execute(httpPost, handler);
+        } catch (Exception e) {
+            throw getException("POST", e);
+        }
+    }
+
+    private HttpPost createPost(String endpoint,
+        Map<String, Object> data,
+        Map<String, String> clientHeaders,
+        UploadFile... files) throws SimbaException {
         HttpPost httpPost = new HttpPost(endpoint);
         httpPost.setEntity(createEntity(data, files));
         Map<String, String> headers = getApiHeaders();
@@ -551,11 +739,7 @@ public abstract class SimbaClient {
                 httpPost.setHeader(s, clientHeaders.get(s));
             }
         }
-        try {
-            return this.client.execute(httpPost, handler);
-        } catch (Exception e) {
-            throw getException("POST", e);
-        }
+        return httpPost;
     }
 
     protected <R> R post(String endpoint, JsonData data, ResponseHandler<R> handler)
@@ -585,6 +769,17 @@ public abstract class SimbaClient {
                 + "]");
         }
 
+        HttpPatch httpPatch = createPatch(endpoint, data, clientHeaders);
+        try {
+            return this.client.execute(httpPatch, handler);
+        } catch (Exception e) {
+            throw getException("POST", e);
+        }
+    }
+
+    private HttpPatch createPatch(String endpoint,
+        Map<String, Object> data,
+        Map<String, String> clientHeaders) throws SimbaException {
         HttpPatch httpPatch = new HttpPatch(endpoint);
         httpPatch.setEntity(createEntity(data));
         Map<String, String> headers = getApiHeaders();
@@ -598,11 +793,7 @@ public abstract class SimbaClient {
                 httpPatch.setHeader(s, clientHeaders.get(s));
             }
         }
-        try {
-            return this.client.execute(httpPatch, handler);
-        } catch (Exception e) {
-            throw getException("POST", e);
-        }
+        return httpPatch;
     }
 
     protected <R> R patch(String endpoint, Map<String, Object> data, ResponseHandler<R> handler)
@@ -625,6 +816,47 @@ public abstract class SimbaClient {
                 + handler
                 + "]");
         }
+        HttpGet httpGet = createGet(endpoint);
+        try {
+            return this.client.execute(httpGet, handler);
+        } catch (Exception e) {
+            throw getException("GET", e);
+        }
+    }
+
+    /**
+     * GET with request headers in addition to the API headers, for example the validators of
+     * a conditional request.
+     *
+     * @param endpoint the URL.
+     * @param headers  the extra headers.
+     * @param handler  handles the response, including any status other than 2xx.
+     * @param <R>      the result type.
+     * @return what the handler returns.
+     * @throws SimbaException if the request fails or the handler throws.
+     */
+    protected <R> R get(String endpoint, Map<String, String> headers, ResponseHandler<R> handler)
+        throws SimbaException {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: Simba.get: "
+                + "endpoint = ["
+                + endpoint
+                + "], headers = ["
+                + headers
+                + "]");
+        }
+        HttpGet httpGet = createGet(endpoint);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            httpGet.setHeader(header.getKey(), header.getValue());
+        }
+        try {
+            return this.client.execute(httpGet, handler);
+        } catch (Exception e) {
+            throw getException("GET", e);
+        }
+    }
+
+    private HttpGet createGet(String endpoint) throws SimbaException {
         HttpGet httpGet = new HttpGet(endpoint);
         Map<String, String> headers = getApiHeaders();
         if (headers != null) {
@@ -634,14 +866,284 @@ public abstract class SimbaClient {
         }
         httpGet.setHeader("pragma", "no-cache");
         httpGet.setHeader("cache-control", "no-cache");
+        return httpGet;
+    }
+
+    /**
+     * Get the non-blocking client from the client factory.
+     *
+     * @return the async client.
+     * @throws SimbaException if no client factory is available.
+     */
+    protected CloseableHttpAsyncClient getAsyncClient() throws SimbaException {
+        if (clientFactory == null) {
+            throw new SimbaException("No client factory available for async requests",
+                SimbaException.SimbaError.INVALID_CONFIG);
+        }
+        return clientFactory.getAsyncClient();
+    }
+
+    protected <R> CompletableFuture<R> getAsync(String endpoint, ResponseHandler<R> handler) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: Simba.getAsync: " + "endpoint = [" + endpoint + "]");
+        }
         try {
-            return this.client.execute(httpGet, handler);
+            return execute("GET", createGet(endpoint), handler);
         } catch (Exception e) {
-            throw getException("GET", e);
+            return failed(getException("GET", e));
         }
     }
 
-    private SimbaException getException(String method, Exception e) {
+    protected <R> CompletableFuture<R> getAsync(String endpoint,
+        HttpAsyncResponseConsumer<R> consumer) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: Simba.getAsync: " + "endpoint = [" + endpoint + "]");
+        }
+        try {
+            return execute("GET", createGet(endpoint), consumer);
+        } catch (Exception e) {
+            return failed(getException("GET", e));
+        }
+    }
+
+    protected <R> CompletableFuture<R> postAsync(String endpoint,
+        Map<String, Object> data,
+        ResponseHandler<R> handler,
+        Map<String, String> clientHeaders,
+        UploadFile... files) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: Simba.postAsync: " + "endpoint = [" + endpoint + "]");
+        }
+        try {
+            return execute("POST", createPost(endpoint, data, clientHeaders, files), handler);
+        } catch (Exception e) {
+            return failed(getException("POST", e));
+        }
+    }
+
+    protected <R> CompletableFuture<R> postAsync(String endpoint,
+        JsonData data,
+        ResponseHandler<R> handler,
+        Map<String, String> clientHeaders,
+        UploadFile... files) {
+        return postAsync(endpoint, data.asMap(), handler, clientHeaders, files);
+    }
+
+    protected <R> CompletableFuture<R> patchAsync(String endpoint,
+        Map<String, Object> data,
+        ResponseHandler<R> handler,
+        Map<String, String> clientHeaders) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: Simba.patchAsync: " + "endpoint = [" + endpoint + "]");
+        }
+        try {
+            return execute("PATCH", createPatch(endpoint, data, clientHeaders), handler);
+        } catch (Exception e) {
+            return failed(getException("PATCH", e));
+        }
+    }
+
+    protected <R> CompletableFuture<R> patchAsync(String endpoint,
+        JsonData data,
+        ResponseHandler<R> handler) {
+        return patchAsync(endpoint, data.asMap(), handler, new HashMap<>());
+    }
+
+    private <R> CompletableFuture<R> execute(final String method,
+        HttpUriRequest request,
+        final ResponseHandler<R> handler) throws SimbaException {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        getAsyncClient().execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                try {
+                    future.complete(handler.handleResponse(response));
+                } catch (Exception e) {
+                    future.completeExceptionally(getException(method, e));
+                } finally {
+                    EntityUtils.consumeQuietly(response.getEntity());
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(getException(method, e));
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    private <R> CompletableFuture<R> execute(final String method,
+        HttpUriRequest request,
+        HttpAsyncResponseConsumer<R> consumer) throws SimbaException {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        getAsyncClient().execute(HttpAsyncMethods.create(request), consumer,
+            new FutureCallback<R>() {
+                @Override
+                public void completed(R result) {
+                    future.complete(result);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    future.completeExceptionally(getException(method, e));
+                }
+
+                @Override
+                public void cancelled() {
+                    future.cancel(false);
+                }
+            });
+        return future;
+    }
+
+    /**
+     * Iterate over the results of a paged query from its first page, prefetching the pages
+     * that follow.
+     *
+     * @param first the first page.
+     * @param tf    the page type.
+     * @param <R>   the result type.
+     * @return an iterator over the results of all pages.
+     */
+    protected <R> PageIterator<R> pages(CompletableFuture<PagedResult<R>> first,
+        TypeReference<PagedResult<R>> tf) {
+        ResponseHandler<PagedResult<R>> handler = jsonResponseHandler(tf);
+        return new PageIterator<>(first, next -> getAsync(next, handler), pagePrefetch);
+    }
+
+    public int getPagePrefetch() {
+        return pagePrefetch;
+    }
+
+    /**
+     * Set how many pages the iterators and streams over paged results fetch ahead of the page
+     * being read.
+     *
+     * @param pagePrefetch the number of pages, at least 1.
+     */
+    public void setPagePrefetch(int pagePrefetch) {
+        this.pagePrefetch = pagePrefetch;
+    }
+
+    /**
+     * Fetch every result of an offset paged query. The total count is read from the first
+     * page, and the remaining offset windows are then fetched concurrently, with at most
+     * parallelism requests in flight. Results are returned in offset order.
+     * <p>
+     * The windows are as wide as the first page, so a server that returns fewer results than
+     * requested, for example because it caps the page size, does not cause results to be
+     * skipped. If the results fetched do not add up to the count, for example because results
+     * were added or removed during the fetch, the future fails.
+     *
+     * @param page        fetches the page of pageSize results at the given offset.
+     * @param pageSize    the number of results per request.
+     * @param parallelism the maximum number of concurrent requests, at least 1.
+     * @param <R>         the result type.
+     * @return a future holding all of the results.
+     */
+    protected <R> CompletableFuture<List<R>> fetchAll(
+        IntFunction<CompletableFuture<PagedResult<R>>> page,
+        int pageSize,
+        int parallelism) {
+        if (pageSize < 1 || parallelism < 1) {
+            return failed(new SimbaException("Page size and parallelism must be positive",
+                SimbaException.SimbaError.MESSAGE_ERROR));
+        }
+        return page.apply(0)
+                   .thenCompose(first -> {
+                       int count = first.getCount();
+                       List<? extends R> firstResults = first.getResults();
+                       int stride = firstResults == null ? 0 : firstResults.size();
+                       if (stride == 0 && count > 0) {
+                           return failed(new SimbaException(
+                               "First page is empty but the count is " + count,
+                               SimbaException.SimbaError.MESSAGE_ERROR));
+                       }
+                       int windows = stride == 0 ? 1 : Math.max(1, (count + stride - 1) / stride);
+                       if (log.isDebugEnabled()) {
+                           log.debug(
+                               "ENTER: SimbaClient.fetchAll: count: " + count + " stride: "
+                                   + stride + " windows: " + windows);
+                       }
+                       List<List<? extends R>> results = new ArrayList<>(
+                           Collections.nCopies(windows, null));
+                       results.set(0, firstResults);
+                       AtomicInteger next = new AtomicInteger(1);
+                       int workers = Math.min(parallelism, windows - 1);
+                       CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+                       for (int i = 0; i < workers; i++) {
+                           running[i] = fetchWindows(page, stride, windows, next, results);
+                       }
+                       return CompletableFuture.allOf(running)
+                                               .thenCompose(v -> merge(results, count));
+                   });
+    }
+
+    private static <R> CompletableFuture<List<R>> merge(List<List<? extends R>> results,
+        int count) {
+        List<R> all = new ArrayList<>(count);
+        synchronized (results) {
+            for (List<? extends R> r : results) {
+                if (r != null) {
+                    all.addAll(r);
+                }
+            }
+        }
+        if (all.size() != count) {
+            return failed(new SimbaException(
+                String.format("Fetched %d results but the count is %d", all.size(), count),
+                SimbaException.SimbaError.MESSAGE_ERROR));
+        }
+        return CompletableFuture.completedFuture(all);
+    }
+
+    /**
+     * One worker of {@link #fetchAll}: claims the next unfetched window and fetches it,
+     * repeating until there are none left.
+     */
+    private <R> CompletableFuture<Void> fetchWindows(
+        IntFunction<CompletableFuture<PagedResult<R>>> page,
+        int stride,
+        int windows,
+        AtomicInteger next,
+        List<List<? extends R>> results) {
+        int window = next.getAndIncrement();
+        if (window >= windows) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return page.apply(window * stride)
+                   .thenCompose(result -> {
+                       synchronized (results) {
+                           results.set(window, result.getResults());
+                       }
+                       return fetchWindows(page, stride, windows, next, results);
+                   });
+    }
+
+    /**
+     * Create a future that has already failed. Used so async methods report
+     * errors through the returned future rather than by throwing.
+     *
+     * @param e   the cause.
+     * @param <R> the future type.
+     * @return a failed CompletableFuture.
+     */
+    protected static <R> CompletableFuture<R> failed(Throwable e) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    protected SimbaException getException(String method, Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
         if (e instanceof SimbaException) {
             return (SimbaException) e;
         }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A method call to make as part of a bulk submission, see
+ * {@link ContractService#submitAllAsync(java.util.Iterator, int)}.
+ */
+public class Submission {
+
+    private final String method;
+    private final JsonData parameters;
+    private final Map<String, String> headers;
+    private final SimbaClient.UploadFile[] files;
+
+    public Submission(String method, JsonData parameters) {
+        this(method, parameters, Collections.emptyMap());
+    }
+
+    /**
+     * @param method     the method name.
+     * @param parameters the parameters.
+     * @param headers    client provided headers, e.g. txn-sender. Auth headers should not be
+     *                   included.
+     * @param files      optional files to upload.
+     */
+    public Submission(String method,
+        JsonData parameters,
+        Map<String, String> headers,
+        SimbaClient.UploadFile... files) {
+        this.method = method;
+        this.parameters = parameters;
+        this.headers = Collections.unmodifiableMap(new HashMap<>(headers));
+        this.files = files;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public JsonData getParameters() {
+        return parameters;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public SimbaClient.UploadFile[] getFiles() {
+        return files;
+    }
+
+    /**
+     * @return the txn-sender header, or null if the server signs.
+     */
+    public String getSender() {
+        return headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Submission{");
+        sb.append("method='")
+          .append(method)
+          .append('\'');
+        sb.append(", parameters=")
+          .append(parameters);
+        sb.append(", headers=")
+          .append(headers);
+        sb.append(", files=")
+          .append(Arrays.toString(files));
+        sb.append('}');
+        return sb.toString();
+    }
+}
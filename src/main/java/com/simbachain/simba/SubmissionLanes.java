@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Orders the method calls made for each txn-sender. When set on a ContractService, calls with
+ * a txn-sender header, from any thread, are queued on that sender's lane and made in the order
+ * they were queued, while the lanes of different senders run in parallel.
+ * <p>
+ * Each lane is a two stage pipeline. The POST that creates a transaction, including taking a
+ * nonce from the service's {@link NonceManager} if one is set, is made for one call at a time.
+ * Once it returns, the transaction is signed and PATCHed, again one call at a time and in
+ * order, while the POST for the lane's next call proceeds. Signing runs on the lanes' executor
+ * rather than on the HTTP client's I/O threads.
+ * <p>
+ * {@link #getStats()} reports each lane's depth, queue time and throughput.
+ */
+public class SubmissionLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionLanes.class.getName());
+    private static ExecutorService defaultExecutor;
+
+    private final Executor executor;
+    private final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Create lanes that sign on a shared pool of daemon threads.
+     */
+    public SubmissionLanes() {
+        this(getDefaultExecutor());
+    }
+
+    /**
+     * @param executor runs each lane's stages, including signing.
+     */
+    public SubmissionLanes(Executor executor) {
+        this.executor = executor;
+    }
+
+    private static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = Executors.newFixedThreadPool(Runtime.getRuntime()
+                                                                  .availableProcessors(), r -> {
+                Thread t = new Thread(r, "simba-lanes");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Queue a call on a sender's lane.
+     *
+     * @param sender   the sender.
+     * @param post     makes the POST, called when the previous call's POST has completed.
+     * @param complete signs and submits the POSTed transaction, called when the previous
+     *                 call's has completed.
+     * @return a future completing with the call's response.
+     */
+    <T> CompletableFuture<CallResponse> submit(String sender,
+        Supplier<CompletableFuture<T>> post,
+        Function<T, CompletableFuture<CallResponse>> complete) {
+        Lane lane = lanes.computeIfAbsent(sender, Lane::new);
+        Task<T> task = new Task<>(post, complete);
+        synchronized (lane) {
+            lane.waiting.add(task);
+            lane.depth++;
+            lane.submitted++;
+            if (lane.firstSubmitted == Long.MIN_VALUE) {
+                lane.firstSubmitted = task.queued;
+            }
+            if (!lane.posting) {
+                startNext(lane);
+            }
+        }
+        return task.result;
+    }
+
+    /**
+     * @param sender the sender.
+     * @return the sender's lane statistics, or null if it has not made calls.
+     */
+    public LaneStats getStats(String sender) {
+        Lane lane = lanes.get(sender);
+        return lane == null ? null : lane.stats();
+    }
+
+    /**
+     * @return the statistics of every lane.
+     */
+    public List<LaneStats> getStats() {
+        List<LaneStats> stats = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            stats.add(lane.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Start the POST of the lane's next call. Called holding the lane's lock.
+     */
+    private void startNext(Lane lane) {
+        Task<?> task = lane.waiting.poll();
+        if (task == null) {
+            return;
+        }
+        lane.posting = true;
+        long queueTime = System.nanoTime() - task.queued;
+        lane.totalQueueTime += queueTime;
+        lane.maxQueueTime = Math.max(lane.maxQueueTime, queueTime);
+        lane.started++;
+        executor.execute(() -> post(lane, task));
+    }
+
+    private <T> void post(Lane lane, Task<T> task) {
+        CompletableFuture<T> posted;
+        try {
+            posted = task.post.get();
+        } catch (RuntimeException e) {
+            posted = SimbaClient.failed(e);
+        }
+        posted.whenComplete((value, error) -> {
+            CompletableFuture<CallResponse> done;
+            synchronized (lane) {
+                if (error != null) {
+                    done = SimbaClient.failed(error);
+                } else {
+                    // sign and submit after the previous call has, whether or not it succeeded
+                    done = lane.submitting.handle((r, e) -> null)
+                                          .thenComposeAsync(v -> task.complete.apply(value),
+                                              executor);
+                    lane.submitting = done;
+                }
+                lane.posting = false;
+                startNext(lane);
+            }
+            done.whenComplete((response, e) -> finish(lane, task, response, e));
+        });
+    }
+
+    private void finish(Lane lane, Task<?> task, CallResponse response, Throwable error) {
+        synchronized (lane) {
+            lane.depth--;
+            if (error == null) {
+                lane.completed++;
+            } else {
+                lane.failed++;
+            }
+            lane.lastFinished = System.nanoTime();
+        }
+        if (error != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("SubmissionLanes.finish: call for " + lane.sender + " failed: " + error);
+            }
+            task.result.completeExceptionally(
+                error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error);
+        } else {
+            task.result.complete(response);
+        }
+    }
+
+    /**
+     * A snapshot of a lane's statistics. Times are in milliseconds.
+     */
+    public static class LaneStats {
+        private final String sender;
+        private final int depth;
+        private final long submitted;
+        private final long completed;
+        private final long failed;
+        private final double meanQueueTime;
+        private final double maxQueueTime;
+        private final double throughput;
+
+        private LaneStats(String sender,
+            int depth,
+            long submitted,
+            long completed,
+            long failed,
+            double meanQueueTime,
+            double maxQueueTime,
+            double throughput) {
+            this.sender = sender;
+            this.depth = depth;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.meanQueueTime = meanQueueTime;
+            this.maxQueueTime = maxQueueTime;
+            this.throughput = throughput;
+        }
+
+        public String getSender() {
+            return sender;
+        }
+
+        /**
+         * @return the number of calls queued or in progress.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return the mean time calls waited on the lane before their POST was started.
+         */
+        public double getMeanQueueTime() {
+            return meanQueueTime;
+        }
+
+        public double getMaxQueueTime() {
+            return maxQueueTime;
+        }
+
+        /**
+         * @return calls finished per second, from the lane's first call to its latest finish.
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("LaneStats{");
+            sb.append("sender='")
+              .append(sender)
+              .append('\'');
+            sb.append(", depth=")
+              .append(depth);
+            sb.append(", submitted=")
+              .append(submitted);
+            sb.append(", completed=")
+              .append(completed);
+            sb.append(", failed=")
+              .append(failed);
+            sb.append(", meanQueueTime=")
+              .append(String.format("%.1f", meanQueueTime));
+            sb.append(", maxQueueTime=")
+              .append(String.format("%.1f", maxQueueTime));
+            sb.append(", throughput=")
+              .append(String.format("%.1f", throughput));
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+
+    private static class Lane {
+        private final String sender;
+        private final Deque<Task<?>> waiting = new ArrayDeque<>();
+        private boolean posting;
+        private CompletableFuture<?> submitting = CompletableFuture.completedFuture(null);
+        private int depth;
+        private long submitted;
+        private long started;
+        private long completed;
+        private long failed;
+        private long totalQueueTime;
+        private long maxQueueTime;
+        // nanoTime can be any value, including zero
+        private long firstSubmitted = Long.MIN_VALUE;
+        private long lastFinished;
+
+        private Lane(String sender) {
+            this.sender = sender;
+        }
+
+        private synchronized LaneStats stats() {
+            double millis = TimeUnit.MILLISECONDS.toNanos(1);
+            long finished = completed + failed;
+            double active = (lastFinished - firstSubmitted) / 1e9;
+            return new LaneStats(sender, depth, submitted, completed, failed,
+                started == 0 ? 0 : totalQueueTime / millis / started, maxQueueTime / millis,
+                finished == 0 || active <= 0 ? 0 : finished / active);
+        }
+    }
+
+    private static class Task<T> {
+        private final Supplier<CompletableFuture<T>> post;
+        private final Function<T, CompletableFuture<CallResponse>> complete;
+        private final CompletableFuture<CallResponse> result = new CompletableFuture<>();
+        private final long queued = System.nanoTime();
+
+        private Task(Supplier<CompletableFuture<T>> post,
+            Function<T, CompletableFuture<CallResponse>> complete) {
+            this.post = post;
+            this.complete = complete;
+        }
+    }
+}
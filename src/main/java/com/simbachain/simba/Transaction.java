@@ -91,6 +91,7 @@ public class Transaction implements Ided {
         return created;
     }
 
+    @JsonIgnore
     public String getBlock() {
         return receipt.getOrDefault("blockNumber", "")
                       .toString();
@@ -104,6 +105,7 @@ public class Transaction implements Ided {
         this.app = app;
     }
 
+    @JsonIgnore
     public String getBundleHash() {
         return getInputs().getOrDefault("_bundleHash", "")
                           .toString();
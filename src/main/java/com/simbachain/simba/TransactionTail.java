@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.simbachain.SimbaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Follows an app's transactions, returning on each poll only those created since the last one,
+ * and persisting its position to a checkpoint file so that a restarted process resumes where it
+ * committed rather than re-reading the app's history.
+ * <p>
+ * The cursor is the creation time of the newest transaction seen. Each poll queries for
+ * transactions created at or after it, so only new data is fetched. Creation times are to the
+ * second, so the IDs already returned for the cursor's second are kept and skipped when the
+ * next window returns them again. Transactions without a creation time cannot be placed and are
+ * not returned.
+ * <p>
+ * Transactions have no modification time, so a transaction that was not yet in a final state
+ * when returned is remembered and checked again on following polls; it is returned again once
+ * its state changes.
+ * <p>
+ * Delivery is at least once: the checkpoint is only written by {@link #commit()}, so
+ * transactions polled but not committed before a restart are returned again.
+ * <pre>
+ *  TransactionTail tail = contractService.tailTransactions(Paths.get("txns.checkpoint"));
+ *  while (running) {
+ *      List&lt;Transaction&gt; txns = tail.poll();
+ *      warehouse.store(txns);
+ *      tail.commit();
+ *  }
+ * </pre>
+ */
+public class TransactionTail {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionTail.class.getName());
+    private static final String CREATED = "created_on";
+    /**
+     * Number of pending transactions checked per request.
+     */
+    private static final int PENDING_BATCH = 100;
+
+    private final ContractService service;
+    private final Path checkpoint;
+    private Checkpoint state;
+
+    public TransactionTail(ContractService service, Path checkpoint) throws SimbaException {
+        this.service = service;
+        this.checkpoint = checkpoint;
+        this.state = read(checkpoint);
+    }
+
+    /**
+     * @return the creation time transactions are polled from, or null before the first poll.
+     */
+    public synchronized Date getCursor() {
+        return state.cursor == null ? null : state.cursor.getTime();
+    }
+
+    /**
+     * @return the IDs of returned transactions still being watched for a change of state.
+     */
+    public synchronized Set<String> getPending() {
+        return new HashSet<>(state.pending.keySet());
+    }
+
+    /**
+     * Get the transactions created since the cursor, oldest first, followed by any pending
+     * transactions whose state has changed. The cursor is advanced in memory; call
+     * {@link #commit()} once the transactions have been handled to persist it.
+     *
+     * @return the new and changed transactions, which may be empty.
+     * @throws SimbaException if the transactions cannot be fetched.
+     */
+    public synchronized List<Transaction> poll() throws SimbaException {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: TransactionTail.poll: cursor = [" + getCursor() + "]");
+        }
+        Query.Params params = state.cursor == null
+                              ? null
+                              : Query.gte(CREATED, state.cursor.getTime());
+        CreationCursor cursor = state.cursor == null
+                                ? new CreationCursor(new Date(0))
+                                : state.cursor;
+        List<Transaction> created = new ArrayList<>();
+        List<Transaction> changed = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try (PageIterator<Transaction> txns = service.iterateTransactions(params)) {
+            while (txns.hasNext()) {
+                Transaction txn = txns.next();
+                if (txn.getId() == null || !seen.add(txn.getId())) {
+                    continue;
+                }
+                if (state.pending.containsKey(txn.getId())) {
+                    if (state.pending.get(txn.getId()) != txn.getState()) {
+                        changed.add(txn);
+                    }
+                } else if (cursor.isNew(txn.getCreated(), txn.getId())) {
+                    created.add(txn);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw service.getException("GET", e.getCause());
+        }
+        changed.addAll(checkPending(seen));
+
+        created.sort(Comparator.comparing(Transaction::getCreated)
+                               .thenComparing(Transaction::getId));
+        for (Transaction txn : created) {
+            cursor.advance(txn.getCreated(), txn.getId());
+        }
+        state.cursor = cursor;
+        for (Transaction txn : created) {
+            watch(txn);
+        }
+        for (Transaction txn : changed) {
+            watch(txn);
+        }
+        List<Transaction> result = new ArrayList<>(created.size() + changed.size());
+        result.addAll(created);
+        result.addAll(changed);
+        if (log.isDebugEnabled()) {
+            log.debug("EXIT: TransactionTail.poll: created: "
+                + created.size()
+                + " changed: "
+                + changed.size()
+                + " cursor: "
+                + cursor.getTime());
+        }
+        return result;
+    }
+
+    /**
+     * Write the current cursor to the checkpoint file. The file is replaced atomically, so a
+     * crash leaves either the previous or the new checkpoint.
+     *
+     * @throws SimbaException if the checkpoint cannot be written.
+     */
+    public synchronized void commit() throws SimbaException {
+        try {
+            Path dir = checkpoint.toAbsolutePath()
+                                 .getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, checkpoint.getFileName()
+                                                           .toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    Mappers.writer(Checkpoint.class)
+                           .writeValue(out, state);
+                }
+                try {
+                    Files.move(tmp, checkpoint, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new SimbaException("Could not write checkpoint " + checkpoint,
+                SimbaException.SimbaError.MESSAGE_ERROR, e);
+        }
+    }
+
+    private void watch(Transaction txn) {
+        if (ResponseCache.isFinal(txn.getState())) {
+            state.pending.remove(txn.getId());
+        } else {
+            state.pending.put(txn.getId(), txn.getState());
+        }
+    }
+
+    /**
+     * Fetch the pending transactions that were not in this poll's window, returning those whose
+     * state has changed.
+     */
+    private List<Transaction> checkPending(Set<String> seen) throws SimbaException {
+        List<String> ids = new ArrayList<>();
+        for (String id : state.pending.keySet()) {
+            if (!seen.contains(id)) {
+                ids.add(id);
+            }
+        }
+        List<Transaction> changed = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += PENDING_BATCH) {
+            List<String> batch = ids.subList(i, Math.min(ids.size(), i + PENDING_BATCH));
+            List<Transaction> txns;
+            try {
+                txns = service.getTransactionsAsync(batch)
+                              .join();
+            } catch (CompletionException e) {
+                throw service.getException("GET", e);
+            }
+            for (Transaction txn : txns) {
+                Transaction.State previous = state.pending.get(txn.getId());
+                if (previous != null && previous != txn.getState()) {
+                    changed.add(txn);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Read the cursor committed to a checkpoint file, null if there is none yet.
+     */
+    static Date readCursor(Path checkpoint) throws SimbaException {
+        CreationCursor cursor = read(checkpoint).cursor;
+        return cursor == null ? null : cursor.getTime();
+    }
+
+    private static Checkpoint read(Path checkpoint) throws SimbaException {
+        try (InputStream in = Files.newInputStream(checkpoint)) {
+            return Mappers.reader(Checkpoint.class)
+                          .readValue(in);
+        } catch (NoSuchFileException e) {
+            return new Checkpoint();
+        } catch (IOException e) {
+            throw new SimbaException("Could not read checkpoint " + checkpoint,
+                SimbaException.SimbaError.MESSAGE_ERROR, e);
+        }
+    }
+
+    /**
+     * The persisted position: the cursor, with the IDs already returned at it, and the
+     * non-final transactions being watched.
+     */
+    static class Checkpoint {
+        @JsonProperty
+        private CreationCursor cursor;
+        @JsonProperty
+        private Map<String, Transaction.State> pending = new HashMap<>();
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.simba;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.simbachain.SimbaException;
+import org.apache.http.client.HttpResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits for many transactions to reach a state using a single scheduler thread.
+ * <p>
+ * Each tracked transaction has its own PollingPolicy and timeout. On each tick the tracker
+ * collects the transactions that are due and refreshes them together with
+ * Simba.getTransactionsAsync(Collection), in batches of up to batchSize IDs, rather than
+ * one GET per transaction. Transactions missing from a batch result are fetched one by one.
+ * If the server does not filter the batch query by ID, returning transactions that were not
+ * asked for, or rejects the batch query with a client error, batching is switched off.
+ * <p>
+ * Requests are made asynchronously, so the scheduler thread does not wait on the network.
+ */
+public class TransactionTracker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionTracker.class.getName());
+
+    private static final ScheduledExecutorService sharedScheduler = createScheduler();
+
+    public static final long DEFAULT_TICK = 100;
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final Simba<?> simba;
+    private final ScheduledExecutorService scheduler;
+    private final long tick;
+    private final int batchSize;
+    private final Set<Tracked> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean batching;
+    private ScheduledFuture<?> task;
+
+    /**
+     * Create a tracker on the shared scheduler with the default tick and batch size.
+     *
+     * @param simba the client used to query transactions.
+     */
+    public TransactionTracker(Simba<?> simba) {
+        this(simba, sharedScheduler, DEFAULT_TICK, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create a tracker.
+     *
+     * @param simba     the client used to query transactions.
+     * @param scheduler the scheduler to poll on.
+     * @param tick      how often, in milliseconds, to check for transactions that are due.
+     * @param batchSize the maximum number of IDs in one list query. 1 or less disables batching.
+     */
+    public TransactionTracker(Simba<?> simba,
+        ScheduledExecutorService scheduler,
+        long tick,
+        int batchSize) {
+        this.simba = simba;
+        this.scheduler = scheduler;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        this.batching = batchSize > 1;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "simba-transaction-tracker");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Wait for a transaction to reach a state.
+     * <p>
+     * The future completes with the transaction once it reaches the given state, COMPLETED
+     * or FAILED. On timeout it completes with the last transaction retrieved, which may be
+     * null. It completes exceptionally if the transaction cannot be retrieved.
+     * Cancelling the future stops tracking the transaction.
+     *
+     * @param txnId    the transaction ID.
+     * @param state    the state to wait for.
+     * @param interval the interval between polls in milliseconds.
+     * @param timeout  the total time to wait in milliseconds.
+     * @return a future that completes with the transaction.
+     */
+    public CompletableFuture<Transaction> track(String txnId,
+        Transaction.State state,
+        long interval,
+        long timeout) {
+        return track(txnId, state, PollingPolicy.fixed(interval), timeout);
+    }
+
+    /**
+     * Wait for a transaction to reach a state, polling as the policy directs.
+     *
+     * @param txnId   the transaction ID.
+     * @param state   the state to wait for.
+     * @param policy  chooses the delay between polls.
+     * @param timeout the total time to wait in milliseconds.
+     * @return a future that completes with the transaction.
+     * @see #track(String, Transaction.State, long, long)
+     */
+    public CompletableFuture<Transaction> track(String txnId,
+        Transaction.State state,
+        PollingPolicy policy,
+        long timeout) {
+        if (log.isDebugEnabled()) {
+            log.debug("ENTER: TransactionTracker.track: "
+                + "txnId = ["
+                + txnId
+                + "], state = ["
+                + state
+                + "]");
+        }
+        long now = System.currentTimeMillis();
+        Tracked tracked = new Tracked(txnId, state, policy, now, now + timeout);
+        pending.add(tracked);
+        synchronized (this) {
+            if (task == null) {
+                task = scheduler.scheduleWithFixedDelay(this::poll, 0, tick,
+                    TimeUnit.MILLISECONDS);
+            }
+        }
+        return tracked.future;
+    }
+
+    /**
+     * @return the number of transactions being tracked.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop polling and cancel all pending futures.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (task != null) {
+                task.cancel(false);
+                task = null;
+            }
+        }
+        for (Tracked tracked : pending) {
+            tracked.future.cancel(false);
+        }
+        pending.clear();
+    }
+
+    private void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            Map<String, List<Tracked>> due = new LinkedHashMap<>();
+            for (Tracked tracked : pending) {
+                if (tracked.future.isDone()) {
+                    pending.remove(tracked);
+                } else if (now >= tracked.deadline) {
+                    // checked before inFlight, so a request that never returns cannot hold
+                    // the wait past its timeout; its result is dropped when it does return
+                    pending.remove(tracked);
+                    tracked.future.complete(tracked.last);
+                } else if (tracked.inFlight) {
+                    continue;
+                } else if (now >= tracked.nextPoll) {
+                    tracked.inFlight = true;
+                    due.computeIfAbsent(tracked.txnId, k -> new ArrayList<>())
+                       .add(tracked);
+                }
+            }
+            if (!due.isEmpty()) {
+                refresh(due);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error polling transactions", e);
+        }
+        synchronized (this) {
+            if (pending.isEmpty() && task != null) {
+                task.cancel(false);
+                task = null;
+            }
+        }
+    }
+
+    private void refresh(Map<String, List<Tracked>> due) {
+        if (!batching || due.size() < 2) {
+            for (Map.Entry<String, List<Tracked>> entry : due.entrySet()) {
+                refreshOne(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
+        List<String> ids = new ArrayList<>(due.keySet());
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            List<String> chunk = ids.subList(i, Math.min(i + batchSize, ids.size()));
+            Set<String> requested = new HashSet<>(chunk);
+            Map<String, List<Tracked>> batch = new HashMap<>();
+            for (String id : chunk) {
+                batch.put(id, due.get(id));
+            }
+            simba.getTransactionsAsync(chunk)
+                 .whenComplete((txns, error) -> {
+                     if (error != null) {
+                         if (!isTransient(error) && batching) {
+                             batching = false;
+                             log.warn("Transaction list query rejected, disabling batching", error);
+                         } else if (log.isDebugEnabled()) {
+                             log.debug("Batch transaction query failed, polling individually",
+                                 error);
+                         }
+                         for (Map.Entry<String, List<Tracked>> entry : batch.entrySet()) {
+                             refreshOne(entry.getKey(), entry.getValue());
+                         }
+                         return;
+                     }
+                     boolean unfiltered = false;
+                     for (Transaction txn : txns) {
+                         if (!requested.contains(txn.getId())) {
+                             unfiltered = true;
+                             continue;
+                         }
+                         List<Tracked> trackers = batch.remove(txn.getId());
+                         if (trackers != null) {
+                             update(trackers, txn);
+                         }
+                     }
+                     if (unfiltered && batching) {
+                         batching = false;
+                         log.warn(
+                             "Transaction list query is not filtered by ID, disabling batching");
+                     }
+                     for (Map.Entry<String, List<Tracked>> entry : batch.entrySet()) {
+                         refreshOne(entry.getKey(), entry.getValue());
+                     }
+                 });
+        }
+    }
+
+    /**
+     * @param error a failed query.
+     * @return false if the server rejected the query with a client error, so that repeating
+     * it will fail again.
+     */
+    private static boolean isTransient(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+        int status = -1;
+        if (cause instanceof HttpResponseException) {
+            status = ((HttpResponseException) cause).getStatusCode();
+        } else if (cause instanceof SimbaException) {
+            status = ((SimbaException) cause).getHttpStatus();
+        }
+        return status < 400 || status >= 500 || status == 408 || status == 429;
+    }
+
+    private void refreshOne(String txnId, List<Tracked> trackers) {
+        simba.getTransactionAsync(txnId)
+             .whenComplete((txn, error) -> {
+                 if (error != null) {
+                     Throwable cause = error instanceof CompletionException
+                         && error.getCause() != null ? error.getCause() : error;
+                     for (Tracked tracked : trackers) {
+                         pending.remove(tracked);
+                         tracked.future.completeExceptionally(cause);
+                     }
+                 } else {
+                     update(trackers, txn);
+                 }
+             });
+    }
+
+    private void update(Collection<Tracked> trackers, Transaction txn) {
+        long now = System.currentTimeMillis();
+        for (Tracked tracked : trackers) {
+            if (tracked.future.isDone()) {
+                continue;
+            }
+            if (txn != null && isReached(txn.getState(), tracked.state)) {
+                pending.remove(tracked);
+                tracked.future.complete(txn);
+            } else {
+                Transaction.State current = txn == null ? null : txn.getState();
+                if (tracked.last == null || tracked.last.getState() != current) {
+                    tracked.stateSince = now;
+                    tracked.attempt = 0;
+                } else {
+                    tracked.attempt++;
+                }
+                tracked.last = txn;
+                tracked.nextPoll = now + tracked.policy.nextDelay(current,
+                    now - tracked.stateSince, tracked.attempt);
+                tracked.inFlight = false;
+            }
+        }
+    }
+
+    private static boolean isReached(Transaction.State current, Transaction.State target) {
+        return current == target
+            || current == Transaction.State.COMPLETED
+            || current == Transaction.State.FAILED;
+    }
+
+    private static class Tracked {
+        private final String txnId;
+        private final Transaction.State state;
+        private final PollingPolicy policy;
+        private final long deadline;
+        private final CompletableFuture<Transaction> future = new CompletableFuture<>();
+        private volatile long nextPoll;
+        private volatile boolean inFlight;
+        private volatile Transaction last;
+        private volatile long stateSince;
+        private volatile int attempt;
+
+        private Tracked(String txnId,
+            Transaction.State state,
+            PollingPolicy policy,
+            long now,
+            long deadline) {
+            this.txnId = txnId;
+            this.state = state;
+            this.policy = policy;
+            this.stateSince = now;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -26,20 +26,26 @@ import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.simbachain.SimbaException;
 import com.simbachain.auth.AccessToken;
 import com.simbachain.simba.AppConfig;
 import com.simbachain.simba.ContractService;
 import com.simbachain.simba.JsonData;
+import com.simbachain.simba.Mappers;
+import com.simbachain.simba.PageIterator;
 import com.simbachain.simba.PagedResult;
+import com.simbachain.simba.PollingPolicy;
 import com.simbachain.simba.Query;
 import com.simbachain.simba.Signing;
 import com.simbachain.simba.SimbaClient;
@@ -53,14 +59,23 @@ import org.web3j.crypto.RawTransaction;
  */
 public class OrganisationService extends SimbaClient {
 
+    /**
+     * Default number of results per request for the getAll methods.
+     */
+    public static final int DEFAULT_BULK_PAGE_SIZE = 100;
+    /**
+     * Default maximum number of concurrent requests for the getAll methods.
+     */
+    public static final int DEFAULT_BULK_PARALLELISM = 8;
+
     private final OrganisationConfig config;
     private final Map<String, Wallet> wallets = new HashMap<>();
 
     public OrganisationService(String endpoint, OrganisationConfig config) {
         super(endpoint);
         this.config = config;
-        this.client = config.getClientFactory()
-                            .getClient();
+        this.clientFactory = config.getClientFactory();
+        this.client = clientFactory.getClient();
     }
 
     public OrganisationConfig getConfig() {
@@ -111,15 +126,13 @@ public class OrganisationService extends SimbaClient {
         return this.get(
             Urls.url(getEndpoint(), Urls.PathName.APPLICATIONS, Urls.Paging.paging(offset, limit),
                 getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<Application>>() {
-            }));
+            jsonResponseHandler(Mappers.APPLICATION_PAGE));
     }
 
     public PagedResult<Application> getApplications(Query.Params params) throws SimbaException {
         return this.get(Urls.url(getEndpoint(), Urls.PathName.APPLICATIONS, params,
                 getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<Application>>() {
-            }));
+            jsonResponseHandler(Mappers.APPLICATION_PAGE));
     }
 
     public PagedResult<Application> getApplications() throws SimbaException {
@@ -130,8 +143,7 @@ public class OrganisationService extends SimbaClient {
         throws SimbaException {
         return this.get(Urls.url(getEndpoint(), Urls.PathName.CONTRACT_DESIGNS,
                 Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<ContractDesign>>() {
-            }));
+            jsonResponseHandler(Mappers.CONTRACT_DESIGN_PAGE));
     }
 
     public PagedResult<ContractDesign> getContractDesigns() throws SimbaException {
@@ -142,8 +154,7 @@ public class OrganisationService extends SimbaClient {
         throws SimbaException {
         return this.get(Urls.url(getEndpoint(), Urls.PathName.CONTRACT_ARTIFACTS,
                 Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<ContractArtifact>>() {
-            }));
+            jsonResponseHandler(Mappers.CONTRACT_ARTIFACT_PAGE));
     }
 
     public PagedResult<ContractArtifact> getContractArtifacts() throws SimbaException {
@@ -154,8 +165,7 @@ public class OrganisationService extends SimbaClient {
         throws SimbaException {
         return this.get(Urls.url(getEndpoint(), Urls.PathName.DEPLOYED_CONTRACTS,
                 Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<DeployedContract>>() {
-            }));
+            jsonResponseHandler(Mappers.DEPLOYED_CONTRACT_PAGE));
     }
 
     public PagedResult<DeployedContract> getDeployedContracts(Query.Params params,
@@ -163,8 +173,7 @@ public class OrganisationService extends SimbaClient {
         int offset) throws SimbaException {
         return this.get(Urls.url(getEndpoint(), Urls.PathName.DEPLOYED_CONTRACTS, params,
                 Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<DeployedContract>>() {
-            }));
+            jsonResponseHandler(Mappers.DEPLOYED_CONTRACT_PAGE));
     }
 
     public PagedResult<DeployedContract> getDeployedContracts() throws SimbaException {
@@ -175,8 +184,7 @@ public class OrganisationService extends SimbaClient {
         return this.get(
             Urls.url(getEndpoint(), Urls.PathName.BLOCKCHAINS, Urls.Paging.paging(offset, limit),
                 getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<Blockchain>>() {
-            }));
+            jsonResponseHandler(Mappers.BLOCKCHAIN_PAGE));
     }
 
     public PagedResult<Blockchain> getBlockchains() throws SimbaException {
@@ -187,8 +195,7 @@ public class OrganisationService extends SimbaClient {
         return this.get(
             Urls.url(getEndpoint(), Urls.PathName.STORAGES, Urls.Paging.paging(offset, limit),
                 getConfig().getOrganisationId()),
-            jsonResponseHandler(new TypeReference<PagedResult<Storage>>() {
-            }));
+            jsonResponseHandler(Mappers.STORAGE_PAGE));
     }
 
     public PagedResult<Storage> getStorages() throws SimbaException {
@@ -201,8 +208,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getPrevious(),
-            jsonResponseHandler(new TypeReference<PagedResult<Application>>() {
-            }));
+            jsonResponseHandler(Mappers.APPLICATION_PAGE));
     }
 
     public PagedResult<Application> nextApplications(PagedResult<Application> results)
@@ -211,8 +217,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getNext(),
-            jsonResponseHandler(new TypeReference<PagedResult<Application>>() {
-            }));
+            jsonResponseHandler(Mappers.APPLICATION_PAGE));
     }
 
     public <R> PagedResult<ContractDesign> previousContractDesigns(PagedResult<ContractDesign> results)
@@ -221,8 +226,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getPrevious(),
-            jsonResponseHandler(new TypeReference<PagedResult<ContractDesign>>() {
-            }));
+            jsonResponseHandler(Mappers.CONTRACT_DESIGN_PAGE));
     }
 
     public PagedResult<ContractDesign> nextContractDesigns(PagedResult<ContractDesign> results)
@@ -231,8 +235,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getNext(),
-            jsonResponseHandler(new TypeReference<PagedResult<ContractDesign>>() {
-            }));
+            jsonResponseHandler(Mappers.CONTRACT_DESIGN_PAGE));
     }
 
     public PagedResult<ContractArtifact> previousContractArtifacts(PagedResult<ContractArtifact> results)
@@ -241,8 +244,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getPrevious(),
-            jsonResponseHandler(new TypeReference<PagedResult<ContractArtifact>>() {
-            }));
+            jsonResponseHandler(Mappers.CONTRACT_ARTIFACT_PAGE));
     }
 
     public PagedResult<ContractArtifact> nextContractArtifacts(PagedResult<ContractArtifact> results)
@@ -251,8 +253,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getNext(),
-            jsonResponseHandler(new TypeReference<PagedResult<ContractArtifact>>() {
-            }));
+            jsonResponseHandler(Mappers.CONTRACT_ARTIFACT_PAGE));
     }
 
     public PagedResult<DeployedContract> previousDeployedContracts(PagedResult<DeployedContract> results)
@@ -261,8 +262,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getPrevious(),
-            jsonResponseHandler(new TypeReference<PagedResult<DeployedContract>>() {
-            }));
+            jsonResponseHandler(Mappers.DEPLOYED_CONTRACT_PAGE));
     }
 
     public PagedResult<DeployedContract> nextDeployedContracts(PagedResult<DeployedContract> results)
@@ -271,8 +271,7 @@ public class OrganisationService extends SimbaClient {
             return null;
         }
         return this.get(results.getNext(),
-            jsonResponseHandler(new TypeReference<PagedResult<DeployedContract>>() {
-            }));
+            jsonResponseHandler(Mappers.DEPLOYED_CONTRACT_PAGE));
     }
 
     public Application getApplication(String applicationId) throws SimbaException {
@@ -298,6 +297,235 @@ public class OrganisationService extends SimbaClient {
             getConfig().getOrganisationId(), id), jsonResponseHandler(DeployedContract.class));
     }
 
+    public CompletableFuture<PagedResult<Application>> getApplicationsAsync(int limit, int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.APPLICATIONS,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.APPLICATION_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<Application>> getApplicationsAsync(Query.Params params) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.APPLICATIONS, params,
+                getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.APPLICATION_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<ContractDesign>> getContractDesignsAsync(int limit, int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.CONTRACT_DESIGNS,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.CONTRACT_DESIGN_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<ContractArtifact>> getContractArtifactsAsync(int limit, int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.CONTRACT_ARTIFACTS,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.CONTRACT_ARTIFACT_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<DeployedContract>> getDeployedContractsAsync(int limit, int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.DEPLOYED_CONTRACTS,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.DEPLOYED_CONTRACT_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<DeployedContract>> getDeployedContractsAsync(
+        Query.Params params,
+        int limit,
+        int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.DEPLOYED_CONTRACTS, params,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.DEPLOYED_CONTRACT_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<Blockchain>> getBlockchainsAsync(int limit, int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.BLOCKCHAINS,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.BLOCKCHAIN_PAGE));
+    }
+
+    public CompletableFuture<PagedResult<Storage>> getStoragesAsync(int limit, int offset) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.STORAGES,
+                Urls.Paging.paging(offset, limit), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.STORAGE_PAGE));
+    }
+
+    /**
+     * Get all of the organisation's applications. The total is read from the first page and
+     * the remaining pages are then fetched concurrently, with at most parallelism requests
+     * in flight. Results are in the order the server lists them.
+     *
+     * @param pageSize    the number of applications to fetch per request.
+     * @param parallelism the maximum number of concurrent requests.
+     * @return a future holding all of the applications.
+     */
+    public CompletableFuture<List<Application>> getAllApplicationsAsync(int pageSize,
+        int parallelism) {
+        return fetchAll(offset -> getApplicationsAsync(pageSize, offset), pageSize, parallelism);
+    }
+
+    public List<Application> getAllApplications() throws SimbaException {
+        return await(getAllApplicationsAsync(DEFAULT_BULK_PAGE_SIZE, DEFAULT_BULK_PARALLELISM));
+    }
+
+    public CompletableFuture<List<ContractDesign>> getAllContractDesignsAsync(int pageSize,
+        int parallelism) {
+        return fetchAll(offset -> getContractDesignsAsync(pageSize, offset), pageSize,
+            parallelism);
+    }
+
+    public List<ContractDesign> getAllContractDesigns() throws SimbaException {
+        return await(getAllContractDesignsAsync(DEFAULT_BULK_PAGE_SIZE, DEFAULT_BULK_PARALLELISM));
+    }
+
+    public CompletableFuture<List<ContractArtifact>> getAllContractArtifactsAsync(int pageSize,
+        int parallelism) {
+        return fetchAll(offset -> getContractArtifactsAsync(pageSize, offset), pageSize,
+            parallelism);
+    }
+
+    public List<ContractArtifact> getAllContractArtifacts() throws SimbaException {
+        return await(
+            getAllContractArtifactsAsync(DEFAULT_BULK_PAGE_SIZE, DEFAULT_BULK_PARALLELISM));
+    }
+
+    public CompletableFuture<List<DeployedContract>> getAllDeployedContractsAsync(int pageSize,
+        int parallelism) {
+        return fetchAll(offset -> getDeployedContractsAsync(pageSize, offset), pageSize,
+            parallelism);
+    }
+
+    /**
+     * Get all of the organisation's deployed contracts matching a query.
+     *
+     * @param params      the query.
+     * @param pageSize    the number of contracts to fetch per request.
+     * @param parallelism the maximum number of concurrent requests.
+     * @return a future holding all of the matching contracts.
+     */
+    public CompletableFuture<List<DeployedContract>> getAllDeployedContractsAsync(
+        Query.Params params,
+        int pageSize,
+        int parallelism) {
+        return fetchAll(offset -> getDeployedContractsAsync(params, pageSize, offset), pageSize,
+            parallelism);
+    }
+
+    public List<DeployedContract> getAllDeployedContracts() throws SimbaException {
+        return await(
+            getAllDeployedContractsAsync(DEFAULT_BULK_PAGE_SIZE, DEFAULT_BULK_PARALLELISM));
+    }
+
+    public List<DeployedContract> getAllDeployedContracts(Query.Params params)
+        throws SimbaException {
+        return await(getAllDeployedContractsAsync(params, DEFAULT_BULK_PAGE_SIZE,
+            DEFAULT_BULK_PARALLELISM));
+    }
+
+    public CompletableFuture<List<Blockchain>> getAllBlockchainsAsync(int pageSize,
+        int parallelism) {
+        return fetchAll(offset -> getBlockchainsAsync(pageSize, offset), pageSize, parallelism);
+    }
+
+    public List<Blockchain> getAllBlockchains() throws SimbaException {
+        return await(getAllBlockchainsAsync(DEFAULT_BULK_PAGE_SIZE, DEFAULT_BULK_PARALLELISM));
+    }
+
+    public CompletableFuture<List<Storage>> getAllStoragesAsync(int pageSize, int parallelism) {
+        return fetchAll(offset -> getStoragesAsync(pageSize, offset), pageSize, parallelism);
+    }
+
+    public List<Storage> getAllStorages() throws SimbaException {
+        return await(getAllStoragesAsync(DEFAULT_BULK_PAGE_SIZE, DEFAULT_BULK_PARALLELISM));
+    }
+
+    private <R> R await(CompletableFuture<R> future) throws SimbaException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw getException("GET", e);
+        }
+    }
+
+    /**
+     * Iterate over all applications matching a query. Following pages are fetched while
+     * earlier ones are read. See {@link PageIterator}.
+     *
+     * @param params the query.
+     * @return an iterator over the applications, which should be closed if not read to the end.
+     */
+    public PageIterator<Application> iterateApplications(Query.Params params) {
+        return pages(getApplicationsAsync(params), Mappers.APPLICATION_PAGE);
+    }
+
+    public Stream<Application> streamApplications(Query.Params params) {
+        return iterateApplications(params).stream();
+    }
+
+    public PageIterator<ContractDesign> iterateContractDesigns(int pageSize) {
+        return pages(getContractDesignsAsync(pageSize, 0), Mappers.CONTRACT_DESIGN_PAGE);
+    }
+
+    public Stream<ContractDesign> streamContractDesigns(int pageSize) {
+        return iterateContractDesigns(pageSize).stream();
+    }
+
+    public PageIterator<ContractArtifact> iterateContractArtifacts(int pageSize) {
+        return pages(getContractArtifactsAsync(pageSize, 0), Mappers.CONTRACT_ARTIFACT_PAGE);
+    }
+
+    public Stream<ContractArtifact> streamContractArtifacts(int pageSize) {
+        return iterateContractArtifacts(pageSize).stream();
+    }
+
+    public PageIterator<DeployedContract> iterateDeployedContracts(Query.Params params,
+        int pageSize) {
+        return pages(getDeployedContractsAsync(params, pageSize, 0),
+            Mappers.DEPLOYED_CONTRACT_PAGE);
+    }
+
+    public Stream<DeployedContract> streamDeployedContracts(Query.Params params, int pageSize) {
+        return iterateDeployedContracts(params, pageSize).stream();
+    }
+
+    /**
+     * Iterate over all of the organisation's transactions matching a query.
+     *
+     * @param params   the query.
+     * @param pageSize the number of transactions to fetch per request.
+     * @return an iterator over the transactions, which should be closed if not read to the end.
+     */
+    public PageIterator<Transaction> iterateTransactions(Query.Params params, int pageSize) {
+        return pages(this.getAsync(Urls.url(getEndpoint(), Urls.PathName.ORG_TXNS, params,
+                Urls.Paging.paging(0, pageSize), getConfig().getOrganisationId()),
+            jsonResponseHandler(Mappers.TRANSACTION_PAGE)), Mappers.TRANSACTION_PAGE);
+    }
+
+    public Stream<Transaction> streamTransactions(Query.Params params, int pageSize) {
+        return iterateTransactions(params, pageSize).stream();
+    }
+
+    public CompletableFuture<Application> getApplicationAsync(String applicationId) {
+        return this.getAsync(
+            Urls.url(getEndpoint(), Urls.PathName.APPLICATIONS, getConfig().getOrganisationId(),
+                applicationId), jsonResponseHandler(Application.class));
+    }
+
+    public CompletableFuture<ContractDesign> getContractDesignAsync(String designId) {
+        return this.getAsync(
+            Urls.url(getEndpoint(), Urls.PathName.CONTRACT_DESIGNS, getConfig().getOrganisationId(),
+                designId), jsonResponseHandler(ContractDesign.class));
+    }
+
+    public CompletableFuture<ContractArtifact> getContractArtifactAsync(String artifactId) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.CONTRACT_ARTIFACT,
+                getConfig().getOrganisationId(), artifactId),
+            jsonResponseHandler(ContractArtifact.class));
+    }
+
+    public CompletableFuture<DeployedContract> getDeployedContractAsync(String id) {
+        return this.getAsync(Urls.url(getEndpoint(), Urls.PathName.DEPLOYED_CONTRACT,
+            getConfig().getOrganisationId(), id), jsonResponseHandler(DeployedContract.class));
+    }
+
     public ContractDesign compileContract(InputStream contract, CompilationSpec spec)
         throws SimbaException {
         String contractCode = new BufferedReader(new InputStreamReader(contract)).lines()
@@ -342,8 +570,7 @@ public class OrganisationService extends SimbaClient {
                 String txnId = response.getCurrentTransaction();
                 Transaction txn = this.get(
                     Urls.url(getEndpoint(), Urls.PathName.ORG_TXN, config.getOrganisationId(),
-                        txnId), jsonResponseHandler(new TypeReference<Transaction>() {
-                    }));
+                        txnId), jsonResponseHandler(Mappers.TRANSACTION));
                 Map<String, Object> raw = txn.getRawTransaction();
                 RawTransaction rawTransaction = Signing.createSigningTransaction(raw);
                 Object chainId = raw.get("chainId");
@@ -356,8 +583,7 @@ public class OrganisationService extends SimbaClient {
                 String endpoint = Urls.url(getEndpoint(), Urls.PathName.APP_TXN, spec.getAppName(),
                     txnId);
                 this.post(endpoint, JsonData.with("transaction", signedTransaction),
-                    jsonResponseHandler(new TypeReference<Transaction>() {
-                    }));
+                    jsonResponseHandler(Mappers.TRANSACTION));
             } else {
                 throw new SimbaException(String.format("No wallet matching %s",
                     headers.get(ContractService.Headers.HTTP_HEADER_SENDER.getValue())),
@@ -394,26 +620,29 @@ public class OrganisationService extends SimbaClient {
     private class DeployedContractCallable implements Callable<DeployedContract> {
 
         private final String id;
-        private final long poll;
+        private final PollingPolicy policy;
         private final int totalSeconds;
 
-        private DeployedContractCallable(String id, long poll, int totalSeconds) {
+        private DeployedContractCallable(String id, PollingPolicy policy, int totalSeconds) {
             this.id = id;
-            this.poll = poll;
+            this.policy = policy;
             this.totalSeconds = totalSeconds;
         }
 
         @Override
         public DeployedContract call() throws Exception {
             DeployedContract txn = null;
-            long now = System.currentTimeMillis();
+            long start = System.currentTimeMillis();
+            long now = start;
             long end = now + (totalSeconds * 1000L);
+            int attempt = 0;
             while (now < end) {
                 txn = getDeployedContract(id);
                 if (txn != null && txn.getAddress() != null) {
                     return txn;
                 }
-                Thread.sleep(poll);
+                // the deployment has no transaction state, so the policy sees it as not yet on chain
+                Thread.sleep(Math.min(policy.nextDelay(null, now - start, attempt++), end - now));
                 now = System.currentTimeMillis();
             }
             return txn;
@@ -423,9 +652,23 @@ public class OrganisationService extends SimbaClient {
     public Future<DeployedContract> waitForContractDeployment(String id,
         long interval,
         int totalSeconds) {
+        return waitForContractDeployment(id, PollingPolicy.fixed(interval), totalSeconds);
+    }
+
+    /**
+     * Wait for a contract deployment to have an address, polling as the policy directs.
+     *
+     * @param id           the deployed contract ID.
+     * @param policy       chooses the interval between polls.
+     * @param totalSeconds total time to wait.
+     * @return a Future object that returns the DeployedContract.
+     */
+    public Future<DeployedContract> waitForContractDeployment(String id,
+        PollingPolicy policy,
+        int totalSeconds) {
         ExecutorService executor = Executors.newSingleThreadExecutor();
         Future<DeployedContract> txn = executor.submit(
-            new DeployedContractCallable(id, interval, totalSeconds));
+            new DeployedContractCallable(id, policy, totalSeconds));
         executor.shutdown();
         return txn;
     }
@@ -39,6 +39,10 @@ public class Account extends Wallet {
         this.credentials = Credentials.create(privateKey, publicKey);
     }
 
+    public Account(Credentials credentials) {
+        this.credentials = credentials;
+    }
+
     @Override
     protected Credentials getCredentials() {
         return this.credentials;
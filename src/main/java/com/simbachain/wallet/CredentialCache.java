@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.wallet;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.web3j.crypto.Credentials;
+
+/**
+ * An in memory cache of the credentials decrypted from keystore files, so that loading a
+ * FileWallet again within the time to live skips the keystore's key derivation.
+ * <p>
+ * Entries are keyed by keystore file and are only returned for the password they were loaded
+ * with, which is held as a salted digest, and while the file is unchanged. Holding decrypted
+ * keys in memory for longer is a trade off against the cost of unlocking them, so the cache is
+ * only used by wallets it is set on.
+ */
+public class CredentialCache {
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private final long ttl;
+    private final byte[] salt = new byte[16];
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param ttl the time in milliseconds that credentials are cached for after loading.
+     */
+    public CredentialCache(long ttl) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        }
+        this.ttl = ttl;
+        secureRandom.nextBytes(salt);
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @param keystore the keystore file.
+     * @param passkey  the password.
+     * @return the cached credentials, or null if they are not cached for this password, have
+     * expired or the file has changed.
+     */
+    public Credentials get(File keystore, String passkey) {
+        String key = keystore.getAbsolutePath();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expires || !entry.isCurrent(keystore)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return MessageDigest.isEqual(entry.digest, digest(passkey)) ? entry.credentials : null;
+    }
+
+    /**
+     * Cache credentials decrypted from a keystore file.
+     *
+     * @param keystore    the keystore file.
+     * @param passkey     the password the credentials were decrypted with.
+     * @param credentials the credentials.
+     */
+    public void put(File keystore, String passkey, Credentials credentials) {
+        purge();
+        entries.put(keystore.getAbsolutePath(),
+            new Entry(credentials, digest(passkey), keystore.lastModified(), keystore.length(),
+                System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * @param keystore the keystore file to forget.
+     */
+    public void invalidate(File keystore) {
+        entries.remove(keystore.getAbsolutePath());
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Remove expired entries.
+     */
+    public void purge() {
+        long now = System.currentTimeMillis();
+        entries.values()
+               .removeIf(entry -> now >= entry.expires);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private byte[] digest(String passkey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            return digest.digest(passkey.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        private final Credentials credentials;
+        private final byte[] digest;
+        private final long modified;
+        private final long length;
+        private final long expires;
+
+        private Entry(Credentials credentials,
+            byte[] digest,
+            long modified,
+            long length,
+            long expires) {
+            this.credentials = credentials;
+            this.digest = digest;
+            this.modified = modified;
+            this.length = length;
+            this.expires = expires;
+        }
+
+        private boolean isCurrent(File keystore) {
+            return keystore.lastModified() == modified && keystore.length() == length;
+        }
+    }
+}
@@ -23,26 +23,51 @@
 package com.simbachain.wallet;
 
 import java.io.File;
+import java.io.IOException;
 import java.security.SecureRandom;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.simbachain.SimbaException;
 import org.web3j.crypto.Bip32ECKeyPair;
 import org.web3j.crypto.Bip39Wallet;
+import org.web3j.crypto.CipherException;
 import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
 import org.web3j.crypto.MnemonicUtils;
+import org.web3j.crypto.WalletFile;
 import org.web3j.crypto.WalletUtils;
+import org.web3j.protocol.ObjectMapperFactory;
 
 /**
  * File based Wallet implementation.
  *  This supports standard wallet files as well as Bip39 wallets that
  *  have an associated mnemonic.
+ * <p>
+ *  The wallet's lock guards its directory. Loaded credentials are immutable and published
+ *  through a volatile field, so signing reads them without taking the lock.
  */
 public class FileWallet extends Wallet {
 
-    private Credentials credentials;
+    private volatile Credentials credentials;
     private final File walletDir;
-    private String mnemonic = null;
+    private volatile String mnemonic = null;
+    private volatile KdfParams kdfParams;
+    private volatile CredentialCache credentialCache;
     private static final SecureRandom secureRandom = new SecureRandom();
+    private static final DateTimeFormatter fileTimeFormat = DateTimeFormatter.ofPattern(
+        "'UTC--'yyyy-MM-dd'T'HH-mm-ss.nVV'--'");
 
     /**
      * Create a FileWallet. The directory is the root path to where you store keys.
@@ -70,6 +95,35 @@ public class FileWallet extends Wallet {
         }
     }
 
+    public KdfParams getKdfParams() {
+        return kdfParams;
+    }
+
+    /**
+     * Set the scrypt parameters used to encrypt keystores generated by this wallet. Without them,
+     * generateWallet uses standard keystores and generateMnemonicWallet uses light ones.
+     *
+     * @param kdfParams the parameters, or null for the defaults.
+     */
+    public void setKdfParams(KdfParams kdfParams) {
+        this.kdfParams = kdfParams;
+    }
+
+    public CredentialCache getCredentialCache() {
+        return credentialCache;
+    }
+
+    /**
+     * Set a cache of decrypted credentials, which can be shared between wallets. loadWallet
+     * uses cached credentials for the wallet's keystore and password if there are any, and
+     * caches those it decrypts.
+     *
+     * @param credentialCache the cache, or null to always decrypt the keystore.
+     */
+    public void setCredentialCache(CredentialCache credentialCache) {
+        this.credentialCache = credentialCache;
+    }
+
     /**
      * Delete the wallet.
      *
@@ -105,6 +159,10 @@ public class FileWallet extends Wallet {
                 SimbaException.SimbaError.WALLET_EXISTS);
         }
         try {
+            KdfParams params = this.kdfParams;
+            if (params != null) {
+                return writeWalletFile(passkey, Keys.createEcKeyPair(), params);
+            }
             String filename = WalletUtils.generateNewWalletFile(passkey, walletDir);
             return new File(walletDir, filename).getAbsolutePath();
         } catch (Exception e) {
@@ -120,6 +178,10 @@ public class FileWallet extends Wallet {
         }
         try {
             Credentials creds = Credentials.create(privateKey);
+            KdfParams params = this.kdfParams;
+            if (params != null) {
+                return writeWalletFile(passkey, creds.getEcKeyPair(), params);
+            }
             String filename = WalletUtils.generateWalletFile(passkey, creds.getEcKeyPair(),
                 walletDir, true);
             return new File(walletDir, filename).getAbsolutePath();
@@ -164,6 +226,15 @@ public class FileWallet extends Wallet {
                 SimbaException.SimbaError.WALLET_EXISTS);
         }
         try {
+            KdfParams params = this.kdfParams;
+            if (params != null) {
+                // the key WalletUtils.generateBip39WalletFromMnemonic stores
+                ECKeyPair keyPair = ECKeyPair.create(
+                    Hash.sha256(MnemonicUtils.generateSeed(mnemonic, passkey)));
+                String location = writeWalletFile(passkey, keyPair, params);
+                this.mnemonic = mnemonic;
+                return location;
+            }
             Bip39Wallet bw = WalletUtils.generateBip39WalletFromMnemonic(passkey, mnemonic,
                 walletDir);
             this.mnemonic = mnemonic;
@@ -175,14 +246,28 @@ public class FileWallet extends Wallet {
 
     }
 
+    private String writeWalletFile(String passkey, ECKeyPair keyPair, KdfParams params)
+        throws CipherException, IOException {
+        WalletFile walletFile = org.web3j.crypto.Wallet.create(passkey, keyPair, params.getN(),
+            params.getP());
+        File file = new File(walletDir, ZonedDateTime.now(ZoneOffset.UTC)
+                                                     .format(fileTimeFormat)
+            + walletFile.getAddress()
+            + ".json");
+        ObjectMapperFactory.getObjectMapper()
+                           .writeValue(file, walletFile);
+        return file.getAbsolutePath();
+    }
+
     /**
-     * Load the Wallet using the password.
+     * Load the Wallet using the password. Decrypting the keystore does not hold the wallet's
+     * lock, and other threads keep signing with the previous credentials until it is done.
      *
      * @param passkey The password for the Wallet.
      * @return The location of the Wallet.
      * @throws SimbaException if an error occurs
      */
-    public synchronized String loadWallet(String passkey) throws SimbaException {
+    public String loadWallet(String passkey) throws SimbaException {
         try {
             File wallet = getWalletFile(walletDir);
             if (wallet == null) {
@@ -190,7 +275,7 @@ public class FileWallet extends Wallet {
                     String.format("Cannot find wallet at %s", walletDir.getAbsolutePath()),
                     SimbaException.SimbaError.WALLET_NOT_FOUND);
             }
-            this.credentials = WalletUtils.loadCredentials(passkey, wallet);
+            this.credentials = unlock(wallet, passkey);
             return wallet.getAbsolutePath();
 
         } catch (Exception e) {
@@ -198,6 +283,122 @@ public class FileWallet extends Wallet {
         }
     }
 
+    private Credentials unlock(File wallet, String passkey) throws IOException, CipherException {
+        CredentialCache cache = this.credentialCache;
+        if (cache != null) {
+            Credentials cached = cache.get(wallet, passkey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Credentials credentials = WalletUtils.loadCredentials(passkey, wallet);
+        if (cache != null) {
+            cache.put(wallet, passkey, credentials);
+        }
+        return credentials;
+    }
+
+    /**
+     * Load the Wallet using the password without blocking the calling thread.
+     *
+     * @param passkey  The password for the Wallet.
+     * @param executor runs the keystore's key derivation.
+     * @return a future completing with the location of the Wallet.
+     */
+    public CompletableFuture<String> loadWalletAsync(String passkey, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadWallet(passkey);
+            } catch (SimbaException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Load many wallets with the same password in parallel. See
+     * {@link #loadWalletsAsync(List, List, int)}.
+     *
+     * @param wallets     the wallets.
+     * @param passkey     the password for every wallet.
+     * @param parallelism the maximum number of wallets to unlock at once.
+     * @return a future completing with the location of each wallet, in order.
+     */
+    public static CompletableFuture<List<String>> loadWalletsAsync(List<FileWallet> wallets,
+        String passkey,
+        int parallelism) {
+        return loadWalletsAsync(wallets, Collections.nCopies(wallets.size(), passkey),
+            parallelism);
+    }
+
+    /**
+     * Load many wallets in parallel, on a pool of at most parallelism threads that is shut down
+     * when they are loaded. Each unlock of a standard keystore uses 256MB of memory, which
+     * bounds the useful parallelism as well as the number of processors.
+     *
+     * @param wallets     the wallets.
+     * @param passkeys    the password for each wallet.
+     * @param parallelism the maximum number of wallets to unlock at once.
+     * @return a future completing with the location of each wallet, in order, or with the
+     * first failure once every wallet has been tried.
+     */
+    public static CompletableFuture<List<String>> loadWalletsAsync(List<FileWallet> wallets,
+        List<String> passkeys,
+        int parallelism) {
+        if (wallets.size() != passkeys.size()) {
+            CompletableFuture<List<String>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(
+                new SimbaException("A password is needed for each wallet",
+                    SimbaException.SimbaError.LOAD_FAILED));
+            return failed;
+        }
+        if (wallets.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(parallelism, wallets.size())), r -> {
+                Thread t = new Thread(r, "simba-wallet-loader");
+                t.setDaemon(true);
+                return t;
+            });
+        List<CompletableFuture<String>> loads = new ArrayList<>(wallets.size());
+        for (int i = 0; i < wallets.size(); i++) {
+            loads.add(wallets.get(i)
+                             .loadWalletAsync(passkeys.get(i), executor));
+        }
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+                                .whenComplete((v, e) -> executor.shutdown())
+                                .thenApply(v -> {
+                                    List<String> locations = new ArrayList<>(loads.size());
+                                    for (CompletableFuture<String> load : loads) {
+                                        locations.add(load.join());
+                                    }
+                                    return locations;
+                                });
+    }
+
+    /**
+     * Load many wallets with the same password in parallel, waiting until they are loaded.
+     *
+     * @param wallets     the wallets.
+     * @param passkey     the password for every wallet.
+     * @param parallelism the maximum number of wallets to unlock at once.
+     * @return the location of each wallet, in order.
+     * @throws SimbaException if a wallet cannot be loaded.
+     */
+    public static List<String> loadWallets(List<FileWallet> wallets,
+        String passkey,
+        int parallelism) throws SimbaException {
+        try {
+            return loadWalletsAsync(wallets, passkey, parallelism).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SimbaException) {
+                throw (SimbaException) e.getCause();
+            }
+            throw new SimbaException(SimbaException.SimbaError.LOAD_FAILED, e.getCause());
+        }
+    }
+
     /**
      * Load the Wallet using the password.
      *
@@ -205,7 +406,7 @@ public class FileWallet extends Wallet {
      * @return The location of the Wallet.
      * @throws SimbaException if an error occurs
      */
-    public synchronized String loadMnemonicWallet(String mnemonic) throws SimbaException {
+    public String loadMnemonicWallet(String mnemonic) throws SimbaException {
         try {
             File wallet = getWalletFile(walletDir);
             if (wallet == null) {
@@ -220,8 +421,8 @@ public class FileWallet extends Wallet {
                 MnemonicUtils.generateSeed(mnemonic, null));
             Bip32ECKeyPair derivedKeyPair = Bip32ECKeyPair.deriveKeyPair(masterKeypair,
                 derivationPath);
-            this.credentials = Credentials.create(derivedKeyPair);
             this.mnemonic = mnemonic;
+            this.credentials = Credentials.create(derivedKeyPair);
             return wallet.getAbsolutePath();
 
         } catch (Exception e) {
@@ -265,7 +466,7 @@ public class FileWallet extends Wallet {
      * @see org.web3j.crypto.Credentials
      */
     @Override
-    public synchronized Credentials getCredentials() {
+    public Credentials getCredentials() {
         return this.credentials;
     }
 
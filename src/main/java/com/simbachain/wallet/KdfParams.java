@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.wallet;
+
+/**
+ * Scrypt parameters used to encrypt newly generated keystore files. The cost of unlocking a
+ * keystore grows with n, and its memory use is 1KB * n. The keystore records its parameters, so
+ * they only need to be known when it is generated.
+ */
+public class KdfParams {
+
+    /**
+     * The parameters of standard Ethereum keystores. Unlocking takes around a second and
+     * 256MB of memory.
+     */
+    public static final KdfParams STANDARD = new KdfParams(1 << 18, 1);
+
+    /**
+     * The parameters of light Ethereum keystores, much faster to unlock but much easier to
+     * attack if the keystore is stolen.
+     */
+    public static final KdfParams LIGHT = new KdfParams(1 << 12, 6);
+
+    private final int n;
+    private final int p;
+
+    /**
+     * @param n the CPU and memory cost, a power of 2 greater than 1.
+     * @param p the parallelization parameter.
+     */
+    public KdfParams(int n, int p) {
+        if (n < 2 || (n & (n - 1)) != 0) {
+            throw new IllegalArgumentException("n must be a power of 2 greater than 1: " + n);
+        }
+        if (p < 1) {
+            throw new IllegalArgumentException("p must be positive: " + p);
+        }
+        this.n = n;
+        this.p = p;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public int getP() {
+        return p;
+    }
+
+    @Override
+    public String toString() {
+        return "KdfParams{" + "n=" + n + ", p=" + p + '}';
+    }
+}
@@ -22,6 +22,11 @@
 
 package com.simbachain.wallet;
 
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
 import com.simbachain.SimbaException;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.RawTransaction;
@@ -36,12 +41,31 @@ import org.web3j.utils.Numeric;
  */
 public abstract class Wallet {
 
+    private volatile boolean precomputedSigning;
+
     /**
      * For subclasses.
      */
     protected Wallet() {
     }
 
+    public boolean isPrecomputedSigning() {
+        return precomputedSigning;
+    }
+
+    /**
+     * Sign with a comb multiplier over a precomputed table of multiples of the curve's
+     * generator, and read the signature's recovery id from the signing point rather than
+     * recovering the public key. Signatures are the same as without it, but take around a
+     * fifth of the time, which matters for hot keys signing many transactions. The table is
+     * built once, when first used, and shared by all wallets.
+     *
+     * @param precomputedSigning true to sign using the precomputed table.
+     */
+    public void setPrecomputedSigning(boolean precomputedSigning) {
+        this.precomputedSigning = precomputedSigning;
+    }
+
     /**
      * Sign a RawTransaction object and include the chain Id.
      *
@@ -58,8 +82,7 @@ public abstract class Wallet {
                 throw new SimbaException("No credentials available",
                     SimbaException.SimbaError.WALLET_NOT_FOUND);
             }
-            byte[] signedMessage = TransactionEncoder.signMessage(rawTransaction, chainId, credentials);
-            return Numeric.toHexString(signedMessage);
+            return sign(rawTransaction, chainId, credentials, precomputedSigning);
         } catch (Exception e) {
             throw new SimbaException(SimbaException.SimbaError.SIGN_FAILED, e);
         }
@@ -80,12 +103,85 @@ public abstract class Wallet {
                 throw new SimbaException("No credentials available",
                     SimbaException.SimbaError.WALLET_NOT_FOUND);
             }
-            byte[] signedMessage = TransactionEncoder.signMessage(rawTransaction, credentials);
-            return Numeric.toHexString(signedMessage);
+            return sign(rawTransaction, null, credentials, precomputedSigning);
         } catch (Exception e) {
             throw new SimbaException(SimbaException.SimbaError.SIGN_FAILED, e);
         }
     }
+
+    /**
+     * Sign many RawTransaction objects in parallel on the common fork join pool.
+     *
+     * @param rawTransactions the raw transactions.
+     * @param chainId         The chain ID of the transactions.
+     * @return The signed transactions as hex strings, in the same order.
+     * @throws SimbaException if an error occurs.
+     */
+    public List<String> signAll(List<RawTransaction> rawTransactions, long chainId)
+        throws SimbaException {
+        return signAll(rawTransactions, chainId, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sign many RawTransaction objects, without a chain ID, in parallel on the common fork join
+     * pool.
+     *
+     * @param rawTransactions the raw transactions.
+     * @return The signed transactions as hex strings, in the same order.
+     * @throws SimbaException if an error occurs.
+     */
+    public List<String> signAll(List<RawTransaction> rawTransactions) throws SimbaException {
+        return signAll(rawTransactions, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sign many RawTransaction objects in parallel.
+     *
+     * @param rawTransactions the raw transactions.
+     * @param chainId         The chain ID of the transactions, or null to sign without one.
+     * @param pool            the pool to sign on.
+     * @return The signed transactions as hex strings, in the same order.
+     * @throws SimbaException if an error occurs.
+     */
+    public List<String> signAll(List<RawTransaction> rawTransactions,
+        Long chainId,
+        ForkJoinPool pool) throws SimbaException {
+        Credentials credentials = getCredentials();
+        if (credentials == null) {
+            throw new SimbaException("No credentials available",
+                SimbaException.SimbaError.WALLET_NOT_FOUND);
+        }
+        boolean precomputed = this.precomputedSigning;
+        try {
+            return pool.submit(() -> rawTransactions.parallelStream()
+                                                    .map(txn -> sign(txn, chainId, credentials,
+                                                        precomputed))
+                                                    .collect(Collectors.toList()))
+                       .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            throw new SimbaException(SimbaException.SimbaError.SIGN_FAILED, e);
+        } catch (ExecutionException e) {
+            throw new SimbaException(SimbaException.SimbaError.SIGN_FAILED, e.getCause());
+        }
+    }
+
+    private static String sign(RawTransaction rawTransaction,
+        Long chainId,
+        Credentials credentials,
+        boolean precomputed) {
+        byte[] signedMessage;
+        if (precomputed) {
+            signedMessage = FixedPointSigner.signTransaction(rawTransaction, chainId,
+                credentials.getEcKeyPair());
+        } else if (chainId != null) {
+            signedMessage = TransactionEncoder.signMessage(rawTransaction, chainId, credentials);
+        } else {
+            signedMessage = TransactionEncoder.signMessage(rawTransaction, credentials);
+        }
+        return Numeric.toHexString(signedMessage);
+    }
     
     /**
      * Get the address of the Wallet.
@@ -117,6 +213,8 @@ public abstract class Wallet {
 
     /**
      * Method for subclasses to implement. Return the loaded credentials.
+     * This is called by every sign, from any thread, so should not block, for example by
+     * returning credentials published through a final or volatile field.
      *
      * @return the Credentials from a loaded Wallet.
      * @see org.web3j.crypto.Credentials
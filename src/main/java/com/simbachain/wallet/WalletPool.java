@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.simbachain.wallet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.simbachain.SimbaException;
+import org.web3j.crypto.Bip32ECKeyPair;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.MnemonicUtils;
+
+/**
+ * A pool of accounts derived from one mnemonic, at the paths m/44'/60'/0'/0/i. The first
+ * account is the one loaded by {@link FileWallet#loadMnemonicWallet(String)}.
+ * <p>
+ * Each account has its own nonce sequence, so spreading transactions over the pool's accounts
+ * lets more of them be in flight at once. {@link #acquire()} picks the account with the fewest
+ * transactions in flight, which should be released when its transaction completes.
+ */
+public class WalletPool {
+
+    private final List<Wallet> wallets;
+    private final List<String> addresses;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final AtomicIntegerArray loads;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Derive the first size accounts of a mnemonic.
+     *
+     * @param mnemonic the mnemonic.
+     * @param size     the number of accounts.
+     * @throws SimbaException if the accounts cannot be derived.
+     */
+    public WalletPool(String mnemonic, int size) throws SimbaException {
+        if (size < 1) {
+            throw new SimbaException("Pool size must be positive",
+                SimbaException.SimbaError.MESSAGE_ERROR);
+        }
+        List<Wallet> wallets = new ArrayList<>(size);
+        List<String> addresses = new ArrayList<>(size);
+        try {
+            Bip32ECKeyPair master = Bip32ECKeyPair.generateKeyPair(
+                MnemonicUtils.generateSeed(mnemonic, null));
+            // derive the hardened part of the path once, and each account from it
+            Bip32ECKeyPair parent = Bip32ECKeyPair.deriveKeyPair(master,
+                new int[]{44 | Bip32ECKeyPair.HARDENED_BIT, 60 | Bip32ECKeyPair.HARDENED_BIT,
+                          0 | Bip32ECKeyPair.HARDENED_BIT, 0});
+            for (int i = 0; i < size; i++) {
+                Credentials credentials = Credentials.create(
+                    Bip32ECKeyPair.deriveKeyPair(parent, new int[]{i}));
+                wallets.add(new Account(credentials));
+                addresses.add(credentials.getAddress());
+                indexes.put(credentials.getAddress(), i);
+            }
+        } catch (Exception e) {
+            throw new SimbaException(SimbaException.SimbaError.LOAD_FAILED, e);
+        }
+        this.wallets = Collections.unmodifiableList(wallets);
+        this.addresses = Collections.unmodifiableList(addresses);
+        this.loads = new AtomicIntegerArray(size);
+    }
+
+    public int size() {
+        return wallets.size();
+    }
+
+    /**
+     * @return the pool's wallets, in derivation order.
+     */
+    public List<Wallet> getWallets() {
+        return wallets;
+    }
+
+    /**
+     * @return the pool's addresses, in derivation order.
+     */
+    public List<String> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @param address an address.
+     * @return the wallet for the address, or null if it is not in the pool.
+     */
+    public Wallet getWallet(String address) {
+        Integer index = indexes.get(address);
+        return index == null ? null : wallets.get(index);
+    }
+
+    /**
+     * Pick the account with the fewest transactions in flight and count one more against it.
+     * Ties are broken in turn, so an idle pool is used round robin.
+     *
+     * @return the account's address.
+     */
+    public String acquire() {
+        int size = loads.length();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        int best = start;
+        int least = loads.get(start);
+        for (int i = 1; i < size && least > 0; i++) {
+            int index = (start + i) % size;
+            int load = loads.get(index);
+            if (load < least) {
+                best = index;
+                least = load;
+            }
+        }
+        loads.incrementAndGet(best);
+        return addresses.get(best);
+    }
+
+    /**
+     * Count a transaction from an account as complete.
+     *
+     * @param address the address returned by acquire.
+     */
+    public void release(String address) {
+        Integer index = indexes.get(address);
+        if (index != null) {
+            loads.decrementAndGet(index);
+        }
+    }
+
+    /**
+     * @param address an address.
+     * @return the number of transactions in flight from the address.
+     */
+    public int getLoad(String address) {
+        Integer index = indexes.get(address);
+        return index == null ? 0 : loads.get(index);
+    }
+}
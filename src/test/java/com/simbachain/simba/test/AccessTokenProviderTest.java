@@ -0,0 +1,241 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simbachain.SimbaException;
+import com.simbachain.auth.AccessToken;
+import com.simbachain.auth.AccessTokenProvider;
+import com.simbachain.auth.AuthConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Token caching, single flight refresh and background refresh with a stub auth server.
+ */
+public class AccessTokenProviderTest {
+
+    private static class StubConfig extends AuthConfig {
+
+        private StubConfig() {
+            super("client", "secret");
+        }
+
+        @Override
+        public AccessTokenProvider<? extends AuthConfig> getTokenProvider() {
+            return null;
+        }
+    }
+
+    private static class StubProvider extends AccessTokenProvider<StubConfig> {
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile CountDownLatch requested = new CountDownLatch(1);
+        private volatile CountDownLatch release;
+
+        private StubProvider(StubConfig config) {
+            super(config);
+        }
+
+        @Override
+        protected AccessToken requestToken() throws SimbaException {
+            int n = requests.incrementAndGet();
+            requested.countDown();
+            CountDownLatch release = this.release;
+            if (release != null) {
+                try {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new SimbaException(SimbaException.SimbaError.EXECUTION_ERROR, e);
+                }
+            }
+            return token("token" + n, 60 * 60 * 1000);
+        }
+    }
+
+    /**
+     * A provider written before requestToken, that overrides getToken.
+     */
+    private static class LegacyProvider extends AccessTokenProvider<StubConfig> {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private LegacyProvider(StubConfig config) {
+            super(config);
+        }
+
+        @Override
+        public AccessToken getToken() {
+            return token("legacy" + calls.incrementAndGet(), 60 * 60 * 1000);
+        }
+
+        private AccessToken refresh() throws SimbaException {
+            return refreshToken(true);
+        }
+    }
+
+    private static AccessToken token(String value, long lifetime) {
+        return new AccessToken(value, "Bearer",
+            new Date(System.currentTimeMillis() + lifetime));
+    }
+
+    private StubConfig config;
+    private StubProvider provider;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        config = new StubConfig();
+        provider = new StubProvider(config);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        provider.cancelRefresh();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCached() throws SimbaException {
+        AccessToken token = provider.getToken();
+        assertEquals("token1", token.getToken());
+        assertSame(token, provider.getToken());
+        assertEquals(1, provider.requests.get());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        provider.release = new CountDownLatch(1);
+        List<Future<AccessToken>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(executor.submit(provider::getToken));
+        }
+        assertTrue(provider.requested.await(10, TimeUnit.SECONDS));
+        // give the other callers time to reach the lock
+        Thread.sleep(100);
+        provider.release.countDown();
+        for (Future<AccessToken> caller : callers) {
+            assertEquals("token1", caller.get(10, TimeUnit.SECONDS)
+                                         .getToken());
+        }
+        assertEquals(1, provider.requests.get());
+    }
+
+    @Test
+    public void testOldTokenServedUntilExpired() throws Exception {
+        // inside the expiry offset, so refreshed, but not yet actually expired
+        AccessToken old = token("old", AccessTokenProvider.EXPIRY_OFFSET / 2);
+        provider.cacheToken("client", old);
+        provider.release = new CountDownLatch(1);
+        Future<AccessToken> refreshing = executor.submit(provider::getToken);
+        assertTrue(provider.requested.await(10, TimeUnit.SECONDS));
+
+        assertSame(old, provider.getToken());
+        assertFalse(refreshing.isDone());
+        provider.release.countDown();
+        assertEquals("token1", refreshing.get(10, TimeUnit.SECONDS)
+                                         .getToken());
+        assertEquals("token1", provider.getToken()
+                                       .getToken());
+        assertEquals(1, provider.requests.get());
+    }
+
+    @Test
+    public void testExpiredTokenWaitsForRefresh() throws Exception {
+        provider.cacheToken("client", token("old", -1000));
+        provider.release = new CountDownLatch(1);
+        Future<AccessToken> refreshing = executor.submit(provider::getToken);
+        assertTrue(provider.requested.await(10, TimeUnit.SECONDS));
+
+        Future<AccessToken> waiting = executor.submit(provider::getToken);
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+        provider.release.countDown();
+        assertEquals("token1", refreshing.get(10, TimeUnit.SECONDS)
+                                         .getToken());
+        assertEquals("token1", waiting.get(10, TimeUnit.SECONDS)
+                                      .getToken());
+        assertEquals(1, provider.requests.get());
+    }
+
+    @Test
+    public void testBackgroundRefresh() throws Exception {
+        long margin = 1000;
+        config.setRefreshMargin(margin);
+        provider.cacheToken("client",
+            token("old", AccessTokenProvider.EXPIRY_OFFSET + margin + 200));
+        assertEquals("old", provider.getToken()
+                                    .getToken());
+        assertTrue(provider.requested.await(10, TimeUnit.SECONDS));
+        assertEquals(1, provider.requests.get());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"token1".equals(provider.getCachedToken("client")
+                                        .getToken()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("token1", provider.getToken()
+                                       .getToken());
+    }
+
+    @Test
+    public void testCancelRefresh() throws Exception {
+        long margin = 1000;
+        config.setRefreshMargin(margin);
+        provider.cacheToken("client",
+            token("old", AccessTokenProvider.EXPIRY_OFFSET + margin + 200));
+        assertEquals("old", provider.getToken()
+                                    .getToken());
+        provider.cancelRefresh();
+        assertFalse(provider.requested.await(600, TimeUnit.MILLISECONDS));
+        assertEquals(0, provider.requests.get());
+    }
+
+    @Test
+    public void testProviderOverridingGetToken() throws SimbaException {
+        LegacyProvider legacy = new LegacyProvider(config);
+        assertEquals("legacy1", legacy.getToken()
+                                      .getToken());
+        // a refresh, as run in the background, calls through to the overridden getToken
+        assertEquals("legacy2", legacy.refresh()
+                                      .getToken());
+        assertEquals("legacy2", legacy.getCachedToken("client")
+                                      .getToken());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testProviderOverridingNeither() throws SimbaException {
+        new AccessTokenProvider<StubConfig>(config) {
+        }.getToken();
+    }
+}
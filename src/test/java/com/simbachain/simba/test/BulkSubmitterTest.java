@@ -0,0 +1,207 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simbachain.SimbaException;
+import com.simbachain.auth.plat.PlatConfig;
+import com.simbachain.simba.AppConfig;
+import com.simbachain.simba.BulkResult;
+import com.simbachain.simba.CallResponse;
+import com.simbachain.simba.ContractService;
+import com.simbachain.simba.JsonData;
+import com.simbachain.simba.Submission;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Bulk submission against a service whose calls complete when the test completes them.
+ */
+public class BulkSubmitterTest {
+
+    private static class Call {
+        private final String sender;
+        private final int index;
+        private final CompletableFuture<CallResponse> future = new CompletableFuture<>();
+
+        private Call(String sender, int index) {
+            this.sender = sender;
+            this.index = index;
+        }
+    }
+
+    private static class StubService extends ContractService {
+
+        private final List<Call> calls = new ArrayList<>();
+        private int inFlight;
+        private int maxInFlight;
+        private boolean overlapped;
+
+        private StubService() {
+            super("http://localhost/", "contract",
+                new AppConfig("app", "org", new PlatConfig("id", "secret", "http://localhost/")));
+        }
+
+        @Override
+        public CompletableFuture<CallResponse> callMethodAsync(String method,
+            JsonData parameters,
+            Map<String, String> headers,
+            UploadFile... files) {
+            String sender = headers.get(Headers.HTTP_HEADER_SENDER.getValue());
+            for (Call call : calls) {
+                if (sender != null && sender.equals(call.sender) && !call.future.isDone()) {
+                    overlapped = true;
+                }
+            }
+            Call call = new Call(sender, Integer.parseInt(method));
+            calls.add(call);
+            maxInFlight = Math.max(maxInFlight, ++inFlight);
+            return call.future.whenComplete((response, error) -> inFlight--);
+        }
+
+        private Call first(String sender) {
+            for (Call call : calls) {
+                if (!call.future.isDone() && (sender == null || sender.equals(call.sender))) {
+                    return call;
+                }
+            }
+            throw new AssertionError("No call in flight for " + sender);
+        }
+
+        private void succeed(String sender) {
+            Call call = first(sender);
+            call.future.complete(new CallResponse(String.valueOf(call.index)));
+        }
+
+        private void fail(String sender) {
+            first(sender).future.completeExceptionally(
+                new SimbaException("Rejected", SimbaException.SimbaError.HTTP_ERROR));
+        }
+
+        private List<Integer> indexes(String sender) {
+            List<Integer> indexes = new ArrayList<>();
+            for (Call call : calls) {
+                if (sender == null ? call.sender == null : sender.equals(call.sender)) {
+                    indexes.add(call.index);
+                }
+            }
+            return indexes;
+        }
+    }
+
+    private final AtomicInteger dispatched = new AtomicInteger();
+    private StubService service;
+
+    @Before
+    public void setUp() {
+        service = new StubService();
+        service.setSigningExecutor(r -> {
+            dispatched.incrementAndGet();
+            r.run();
+        });
+    }
+
+    private static List<Submission> submissions(String... senders) {
+        List<Submission> submissions = new ArrayList<>();
+        for (int i = 0; i < senders.length; i++) {
+            Map<String, String> headers = new HashMap<>();
+            if (senders[i] != null) {
+                headers.put(ContractService.Headers.HTTP_HEADER_SENDER.getValue(), senders[i]);
+            }
+            submissions.add(new Submission(String.valueOf(i), JsonData.jsonData(), headers));
+        }
+        return submissions;
+    }
+
+    @Test
+    public void testSenderOrder() {
+        CompletableFuture<BulkResult> result = service.submitAllAsync(
+            submissions("a", "a", "b", "a", "b", "a"), 4);
+        assertEquals(2, service.calls.size());
+        service.succeed("b");
+        service.succeed("a");
+        service.succeed("a");
+        assertFalse(result.isDone());
+        service.succeed("b");
+        service.succeed("a");
+        service.succeed("a");
+        assertTrue(result.isDone());
+        assertEquals(Arrays.asList(0, 1, 3, 5), service.indexes("a"));
+        assertEquals(Arrays.asList(2, 4), service.indexes("b"));
+        assertFalse(service.overlapped);
+        assertEquals(2, service.maxInFlight);
+        BulkResult bulk = result.join();
+        assertEquals(6, bulk.getSucceeded());
+        for (int i = 0; i < 6; i++) {
+            assertEquals(String.valueOf(i), bulk.getOutcomes().get(i).getSubmission().getMethod());
+        }
+    }
+
+    @Test
+    public void testConcurrencyBound() {
+        CompletableFuture<BulkResult> result = service.submitAllAsync(
+            submissions(new String[10]), 3);
+        assertEquals(3, service.calls.size());
+        for (int i = 0; i < 10; i++) {
+            service.succeed(null);
+            assertTrue(service.inFlight <= 3);
+        }
+        assertTrue(result.isDone());
+        assertEquals(3, service.maxInFlight);
+        assertEquals(10, service.calls.size());
+        assertEquals(10, result.join().getSucceeded());
+        assertEquals(10, dispatched.get());
+    }
+
+    @Test
+    public void testFailureFreesLane() {
+        CompletableFuture<BulkResult> result = service.submitAllAsync(
+            submissions("a", "a", null), 1);
+        service.fail("a");
+        service.succeed("a");
+        service.succeed(null);
+        BulkResult bulk = result.join();
+        assertEquals(1, bulk.getFailed());
+        assertEquals(2, bulk.getSucceeded());
+        assertEquals(SimbaException.SimbaError.HTTP_ERROR,
+            bulk.getOutcomes().get(0).getError().getType());
+        assertEquals(1, service.maxInFlight);
+        assertFalse(service.overlapped);
+    }
+
+    @Test
+    public void testEmpty() {
+        BulkResult bulk = service.submitAllAsync(Collections.<Submission>emptyList(), 2).join();
+        assertEquals(0, bulk.getCount());
+        assertEquals(0, dispatched.get());
+    }
+}
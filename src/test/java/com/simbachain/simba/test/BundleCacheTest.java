@@ -0,0 +1,259 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.BundleCache;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * The on disk cache of bundle downloads.
+ */
+public class BundleCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+    private AtomicInteger fetches;
+
+    @Before
+    public void setUp() {
+        dir = folder.getRoot()
+                    .toPath()
+                    .resolve("bundles");
+        fetches = new AtomicInteger();
+    }
+
+    private BundleCache.Fetcher fetcher(String content) {
+        return out -> {
+            fetches.incrementAndGet();
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            try {
+                out.write(bytes);
+                out.close();
+            } catch (IOException e) {
+                throw new SimbaException("Error writing", SimbaException.SimbaError.FILE_ERROR,
+                    e);
+            }
+            return (long) bytes.length;
+        };
+    }
+
+    private String get(BundleCache cache, String hash, String content) throws SimbaException {
+        CheckedStream out = new CheckedStream();
+        long length = cache.get(hash, null, out, true, fetcher(content));
+        assertTrue(out.closed);
+        assertEquals(out.size(), length);
+        return out.toString();
+    }
+
+    @Test
+    public void testHitAndMiss() throws SimbaException {
+        BundleCache cache = new BundleCache(dir, 1024);
+        assertEquals("abcd", get(cache, "hash", "abcd"));
+        assertEquals(1, fetches.get());
+        assertEquals(1, cache.getCount());
+        assertEquals(4, cache.getSize());
+
+        assertEquals("abcd", get(cache, "hash", "other"));
+        assertEquals(1, fetches.get());
+
+        assertEquals("efgh", get(cache, "another", "efgh"));
+        assertEquals(2, fetches.get());
+        assertEquals(2, cache.getCount());
+
+        // entries survive a restart
+        BundleCache reopened = new BundleCache(dir, 1024);
+        assertEquals(2, reopened.getCount());
+        assertEquals("abcd", get(reopened, "hash", "other"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testLeaveOpen() throws SimbaException {
+        BundleCache cache = new BundleCache(dir, 1024);
+        CheckedStream out = new CheckedStream();
+        cache.get("hash", null, out, false, fetcher("abcd"));
+        cache.get("hash", null, out, false, fetcher("abcd"));
+        assertFalse(out.closed);
+        assertEquals("abcdabcd", out.toString());
+    }
+
+    @Test
+    public void testConcurrentPopulation() throws Exception {
+        BundleCache cache = new BundleCache(dir, 1024);
+        CompletableFuture<Long> download = new CompletableFuture<>();
+        OutputStream[] target = new OutputStream[1];
+        BundleCache.AsyncFetcher fetcher = out -> {
+            fetches.incrementAndGet();
+            target[0] = out;
+            return download;
+        };
+        CheckedStream first = new CheckedStream();
+        CheckedStream second = new CheckedStream();
+        CompletableFuture<Long> a = cache.getAsync("hash", null, first, true, fetcher);
+        CompletableFuture<Long> b = cache.getAsync("hash", null, second, true, fetcher);
+        assertFalse(a.isDone());
+        assertFalse(b.isDone());
+        assertEquals(1, fetches.get());
+
+        target[0].write("abcd".getBytes(StandardCharsets.UTF_8));
+        target[0].close();
+        download.complete(4L);
+
+        assertEquals(4L, a.get()
+                          .longValue());
+        assertEquals(4L, b.get()
+                          .longValue());
+        assertEquals("abcd", first.toString());
+        assertEquals("abcd", second.toString());
+        assertEquals(1, fetches.get());
+        assertEquals(1, cache.getCount());
+    }
+
+    @Test
+    public void testFailedDownloadNotCached() throws SimbaException {
+        BundleCache cache = new BundleCache(dir, 1024);
+        try {
+            cache.get("hash", null, new CheckedStream(), true, out -> {
+                throw new SimbaException("Not found", SimbaException.SimbaError.HTTP_ERROR);
+            });
+            fail("expected SimbaException");
+        } catch (SimbaException e) {
+            assertEquals(SimbaException.SimbaError.HTTP_ERROR, e.getType());
+        }
+        assertEquals(0, cache.getCount());
+        assertEquals("abcd", get(cache, "hash", "abcd"));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testLruEviction() throws SimbaException {
+        BundleCache cache = new BundleCache(dir, 10);
+        get(cache, "a", "aaaa");
+        get(cache, "b", "bbbb");
+        // a is now more recently used than b
+        get(cache, "a", "aaaa");
+        assertEquals(2, fetches.get());
+
+        get(cache, "c", "cccc");
+        assertEquals(3, fetches.get());
+        assertEquals(2, cache.getCount());
+        assertEquals(8, cache.getSize());
+        assertEquals(2, files());
+
+        assertEquals("aaaa", get(cache, "a", "aaaa"));
+        assertEquals("cccc", get(cache, "c", "cccc"));
+        assertEquals(3, fetches.get());
+        assertEquals("bbbb", get(cache, "b", "bbbb"));
+        assertEquals(4, fetches.get());
+    }
+
+    @Test
+    public void testEvictedAfterLookup() throws Exception {
+        BundleCache cache = new BundleCache(dir, 1024);
+        get(cache, "hash", "abcd");
+        // the file goes between the index lookup and opening it
+        deleteFiles();
+        assertEquals(1, cache.getCount());
+
+        assertEquals("abcd", get(cache, "hash", "abcd"));
+        assertEquals(2, fetches.get());
+
+        deleteFiles();
+        CheckedStream out = new CheckedStream();
+        BundleCache.Fetcher fetcher = fetcher("abcd");
+        long length = cache.getAsync("hash", null, out, true, o -> {
+            try {
+                return CompletableFuture.completedFuture(fetcher.fetch(o));
+            } catch (SimbaException e) {
+                throw new IllegalStateException(e);
+            }
+        })
+                           .get();
+        assertEquals(4, length);
+        assertEquals("abcd", out.toString());
+        assertTrue(out.closed);
+        assertEquals(3, fetches.get());
+    }
+
+    private void deleteFiles() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.bundle")) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private long files() {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.bundle")) {
+            long count = 0;
+            for (Path ignored : stream) {
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Fails writes after close, as a socket or file stream would.
+     */
+    private static class CheckedStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (closed) {
+                throw new IllegalStateException("stream closed");
+            }
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public String toString() {
+            return new String(toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.PagedResult;
+import com.simbachain.simba.SimbaClient;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Concurrent fetching of every page of an offset paged query.
+ */
+public class FetchAllTest {
+
+    private static class PageClient extends SimbaClient {
+
+        private PageClient() {
+            super("http://localhost/");
+        }
+
+        @Override
+        protected Map<String, String> getApiHeaders() {
+            return Collections.emptyMap();
+        }
+
+        private <R> List<R> fetch(IntFunction<CompletableFuture<PagedResult<R>>> page,
+            int pageSize) throws SimbaException {
+            try {
+                return fetchAll(page, pageSize, 4).join();
+            } catch (CompletionException e) {
+                throw (SimbaException) e.getCause();
+            }
+        }
+    }
+
+    private static List<Integer> items(int count) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    /**
+     * A page of at most limit items, as a server that caps the page size returns them.
+     */
+    private static CompletableFuture<PagedResult<Integer>> page(List<Integer> items,
+        int offset,
+        int limit) {
+        PagedResult<Integer> result = new PagedResult<>();
+        result.setCount(items.size());
+        result.setResults(
+            new ArrayList<>(items.subList(Math.min(offset, items.size()),
+                Math.min(offset + limit, items.size()))));
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Test
+    public void testFetchAll() throws SimbaException {
+        List<Integer> items = items(95);
+        assertEquals(items, new PageClient().fetch(offset -> page(items, offset, 10), 10));
+    }
+
+    @Test
+    public void testFetchAllCappedPageSize() throws SimbaException {
+        List<Integer> items = items(95);
+        // 10 results are requested per page but the server returns at most 7
+        assertEquals(items, new PageClient().fetch(offset -> page(items, offset, 7), 10));
+    }
+
+    @Test
+    public void testFetchAllEmpty() throws SimbaException {
+        List<Integer> items = items(0);
+        assertEquals(items, new PageClient().fetch(offset -> page(items, offset, 10), 10));
+    }
+
+    @Test
+    public void testFetchAllMissingResults() {
+        List<Integer> items = items(95);
+        // later pages are shorter than the first, so results would be lost
+        IntFunction<CompletableFuture<PagedResult<Integer>>> uneven = offset -> page(items,
+            offset, offset == 0 ? 10 : 8);
+        try {
+            new PageClient().fetch(uneven, 10);
+            fail("Expected a count mismatch");
+        } catch (SimbaException e) {
+            assertEquals(SimbaException.SimbaError.MESSAGE_ERROR, e.getType());
+        }
+    }
+}
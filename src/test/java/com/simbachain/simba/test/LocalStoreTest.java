@@ -0,0 +1,260 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.simbachain.SimbaException;
+import com.simbachain.auth.plat.PlatConfig;
+import com.simbachain.simba.AppConfig;
+import com.simbachain.simba.ContractService;
+import com.simbachain.simba.Ided;
+import com.simbachain.simba.LocalStore;
+import com.simbachain.simba.PageIterator;
+import com.simbachain.simba.PagedResult;
+import com.simbachain.simba.Query;
+import com.simbachain.simba.SimbaClient;
+import com.simbachain.simba.Transaction;
+import com.simbachain.simba.TransactionEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Syncing a local store from a stub service, reopening it, and recovering from a torn log.
+ */
+public class LocalStoreTest {
+
+    private static final long START = 1672531200000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static class StubService extends ContractService {
+
+        private final List<Transaction> transactions = new ArrayList<>();
+        private final List<TransactionEvent> events = new ArrayList<>();
+
+        private StubService() {
+            super("http://localhost/", "contract",
+                new AppConfig("app", "org", new PlatConfig("id", "secret", "http://localhost/")));
+            setResponseCache(null);
+        }
+
+        private static <R> PageIterator<R> page(List<R> results) {
+            PagedResult<R> page = new PagedResult<>();
+            page.setResults(new ArrayList<>(results));
+            page.setCount(results.size());
+            return new PageIterator<>(CompletableFuture.completedFuture(page),
+                next -> SimbaClient.failed(new IllegalStateException(next)), 1);
+        }
+
+        @Override
+        public PageIterator<Transaction> iterateTransactions(Query.Params params) {
+            return page(transactions);
+        }
+
+        @Override
+        public PageIterator<TransactionEvent> iterateTransactionEvents(String eventName,
+            Query.Params params) {
+            List<TransactionEvent> named = new ArrayList<>();
+            for (TransactionEvent event : events) {
+                if (event.getName()
+                         .equals(eventName)) {
+                    named.add(event);
+                }
+            }
+            return page(named);
+        }
+
+        private void transaction(String id, String method, String sender, int second) {
+            Transaction txn = new Transaction();
+            txn.setId(id);
+            txn.setMethod(method);
+            txn.setSender(sender);
+            txn.setNonce(second);
+            txn.setState(Transaction.State.COMPLETED);
+            txn.setCreated(new Date(START + second * 1000L));
+            transactions.add(txn);
+        }
+
+        private void event(String id, String name, int second) {
+            TransactionEvent event = new TransactionEvent();
+            event.setId(id);
+            event.setName(name);
+            event.setCreated(new Date(START + second * 1000L));
+            events.add(event);
+        }
+    }
+
+    private StubService service;
+    private Path directory;
+    private Path log;
+
+    @Before
+    public void setUp() throws Exception {
+        service = new StubService();
+        service.transaction("t1", "transfer", "0xa", 1);
+        service.transaction("t2", "transfer", "0xb", 2);
+        service.transaction("t3", "mint", "0xa", 3);
+        service.event("e1", "Moved", 1);
+        service.event("e2", "Moved", 2);
+        service.event("e3", "Minted", 3);
+        directory = folder.getRoot()
+                          .toPath()
+                          .resolve("store");
+        log = directory.resolve("store.log");
+        try (LocalStore store = new LocalStore(directory)) {
+            service.setLocalStore(store);
+            service.syncLocalStore("Moved", "Minted");
+        }
+    }
+
+    private static List<String> ids(List<? extends Ided> values) {
+        List<String> ids = new ArrayList<>();
+        for (Ided value : values) {
+            ids.add(value.getId());
+        }
+        return ids;
+    }
+
+    private void assertLoaded(LocalStore store) {
+        assertEquals(3, store.getTransactionCount());
+        assertEquals(3, store.getEventCount());
+        assertEquals(new Date(START + 3000), store.getTransactionCursor());
+        assertEquals(new Date(START + 2000), store.getEventCursor("Moved"));
+        assertEquals(Arrays.asList("t1", "t2"),
+            ids(store.findTransactions("transfer", Query.empty())));
+        assertEquals(Arrays.asList("t1", "t3"),
+            ids(store.findTransactions(null, Query.ex("from_address", "0xa"))));
+        assertEquals(Arrays.asList("t2", "t3"),
+            ids(store.findTransactions(null, Query.gte("nonce", 2))));
+        assertEquals(Arrays.asList("e1", "e2"),
+            ids(store.findEvents("Moved", Query.empty())));
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        Files.write(log, bytes, StandardOpenOption.APPEND);
+    }
+
+    private static byte[] record(int length, char type, String json) {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(5 + body.length)
+                         .putInt(length)
+                         .put((byte) type)
+                         .put(body)
+                         .array();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        try (LocalStore store = new LocalStore(directory)) {
+            assertLoaded(store);
+        }
+    }
+
+    @Test
+    public void testSyncFetchesOnlyNew() throws Exception {
+        service.transaction("t4", "transfer", "0xa", 4);
+        service.event("e4", "Moved", 4);
+        long size = Files.size(log);
+        try (LocalStore store = new LocalStore(directory)) {
+            service.setLocalStore(store);
+            service.syncLocalStore("Moved");
+            assertEquals(4, store.getTransactionCount());
+            assertEquals(4, store.getEventCount());
+        }
+        try (LocalStore store = new LocalStore(directory)) {
+            assertEquals(Arrays.asList("t1", "t2", "t4"),
+                ids(store.findTransactions("transfer", Query.empty())));
+        }
+        assertTrue(Files.size(log) > size);
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        long size = Files.size(log);
+        append(Arrays.copyOf(record(40, 'T', "{\"id\":\"t9\",\"method\":\"mi"), 20));
+        try (LocalStore store = new LocalStore(directory)) {
+            assertLoaded(store);
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    public void testZeroPaddedTail() throws Exception {
+        long size = Files.size(log);
+        append(new byte[4096]);
+        try (LocalStore store = new LocalStore(directory)) {
+            assertLoaded(store);
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    public void testGarbageLength() throws Exception {
+        long size = Files.size(log);
+        append(record(Integer.MAX_VALUE, 'T', "{}"));
+        try (LocalStore store = new LocalStore(directory)) {
+            assertLoaded(store);
+        }
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    public void testUnparsableFinalRecord() throws Exception {
+        long size = Files.size(log);
+        append(record(8, 'T', "{\"id\":\"t"));
+        try (LocalStore store = new LocalStore(directory)) {
+            assertLoaded(store);
+        }
+        assertEquals(size, Files.size(log));
+        try (LocalStore store = new LocalStore(directory)) {
+            assertLoaded(store);
+        }
+    }
+
+    @Test
+    public void testUnparsableRecordBeforeEnd() throws Exception {
+        append(record(8, 'T', "{\"id\":\"t"));
+        append(record(2, 'T', "{}"));
+        try {
+            new LocalStore(directory).close();
+            fail("Opened a store with a corrupt record before the end");
+        } catch (SimbaException e) {
+            assertEquals(SimbaException.SimbaError.MESSAGE_ERROR, e.getType());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.NonceManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Client side nonce allocation.
+ */
+public class NonceManagerTest {
+
+    private static final String CHAIN = "mumbai";
+    private static final String SENDER = "0xAbC0000000000000000000000000000000000001";
+
+    private Map<String, Long> counts;
+    private List<String> fetched;
+    private NonceManager nonces;
+
+    @Before
+    public void setup() {
+        counts = new HashMap<>();
+        fetched = new ArrayList<>();
+        nonces = new NonceManager((blockchain, address) -> {
+            fetched.add(blockchain + "/" + address);
+            Long count = counts.get(blockchain + "/" + address);
+            if (count == null) {
+                throw new SimbaException("Unknown address " + address,
+                    SimbaException.SimbaError.HTTP_ERROR);
+            }
+            return count;
+        });
+        counts.put(CHAIN + "/" + SENDER, 5L);
+    }
+
+    @Test
+    public void testAcquire() throws SimbaException {
+        assertEquals(5, nonces.acquire(CHAIN, SENDER));
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+        assertEquals(7, nonces.acquire(CHAIN, SENDER.toLowerCase()));
+        // seeded once, and addresses compare case insensitively
+        assertEquals(1, fetched.size());
+    }
+
+    @Test
+    public void testAcquirePerBlockchain() throws SimbaException {
+        counts.put("quorum/" + SENDER, 40L);
+        assertEquals(5, nonces.acquire(CHAIN, SENDER));
+        assertEquals(40, nonces.acquire("quorum", SENDER));
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+        assertEquals(41, nonces.acquire("quorum", SENDER));
+    }
+
+    @Test
+    public void testFailedLatestIsReused() throws SimbaException {
+        assertEquals(5, nonces.acquire(CHAIN, SENDER));
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+        nonces.failed(CHAIN, SENDER, 6);
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+        assertEquals(1, fetched.size());
+    }
+
+    @Test
+    public void testFailedEarlierReseeds() throws SimbaException {
+        assertEquals(5, nonces.acquire(CHAIN, SENDER));
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+        nonces.failed(CHAIN, SENDER, 5);
+        // 6 may be on chain, so the gap at 5 is not filled locally
+        counts.put(CHAIN + "/" + SENDER, 7L);
+        assertEquals(7, nonces.acquire(CHAIN, SENDER));
+        assertEquals(2, fetched.size());
+    }
+
+    @Test
+    public void testResync() throws SimbaException {
+        assertEquals(5, nonces.acquire(CHAIN, SENDER));
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+        nonces.resync(CHAIN, SENDER);
+        counts.put(CHAIN + "/" + SENDER, 7L);
+        assertEquals(7, nonces.acquire(CHAIN, SENDER));
+        assertEquals(8, nonces.acquire(CHAIN, SENDER));
+        assertEquals(2, fetched.size());
+    }
+
+    @Test
+    public void testFailedAfterResyncDoesNotRollBack() throws SimbaException {
+        assertEquals(5, nonces.acquire(CHAIN, SENDER));
+        nonces.resync(CHAIN, SENDER);
+        nonces.failed(CHAIN, SENDER, 5);
+        counts.put(CHAIN + "/" + SENDER, 6L);
+        assertEquals(6, nonces.acquire(CHAIN, SENDER));
+    }
+
+    @Test
+    public void testResyncAll() throws SimbaException {
+        String other = "0x0000000000000000000000000000000000000002";
+        counts.put(CHAIN + "/" + other, 1L);
+        nonces.acquire(CHAIN, SENDER);
+        nonces.acquire(CHAIN, other);
+        nonces.resyncAll();
+        nonces.acquire(CHAIN, SENDER);
+        nonces.acquire(CHAIN, other);
+        assertEquals(4, fetched.size());
+    }
+
+    @Test
+    public void testUnknownAddressIsNoop() {
+        nonces.failed(CHAIN, SENDER, 3);
+        nonces.resync(CHAIN, SENDER);
+        assertTrue(fetched.isEmpty());
+    }
+
+    @Test
+    public void testSeedFailureRetries() throws SimbaException {
+        String unknown = "0x0000000000000000000000000000000000000003";
+        try {
+            nonces.acquire(CHAIN, unknown);
+            fail("Expected the seed to fail");
+        } catch (SimbaException e) {
+            assertEquals(SimbaException.SimbaError.HTTP_ERROR, e.getType());
+        }
+        counts.put(CHAIN + "/" + unknown, 9L);
+        assertEquals(9, nonces.acquire(CHAIN, unknown));
+    }
+}
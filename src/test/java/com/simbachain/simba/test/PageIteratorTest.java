@@ -0,0 +1,208 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.simbachain.SimbaException;
+import com.simbachain.simba.PageIterator;
+import com.simbachain.simba.PagedResult;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Iterating pages from a stub fetcher.
+ */
+public class PageIteratorTest {
+
+    private static final int PAGES = 6;
+    private static final int PER_PAGE = 3;
+
+    private final List<String> requested = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, CompletableFuture<PagedResult<Integer>>> pending
+        = new ConcurrentHashMap<>();
+
+    /**
+     * @return page n of PAGES, holding PER_PAGE numbers counting up from n * PER_PAGE.
+     */
+    private static PagedResult<Integer> page(int n) {
+        List<Integer> results = new ArrayList<>();
+        for (int i = 0; i < PER_PAGE; i++) {
+            results.add(n * PER_PAGE + i);
+        }
+        PagedResult<Integer> page = new PagedResult<>();
+        page.setResults(results);
+        page.setCount(PAGES * PER_PAGE);
+        page.setNext(n + 1 < PAGES ? "page" + (n + 1) : null);
+        return page;
+    }
+
+    private static int number(String next) {
+        return Integer.parseInt(next.substring("page".length()));
+    }
+
+    private CompletableFuture<PagedResult<Integer>> fetchNow(String next) {
+        requested.add(next);
+        return CompletableFuture.completedFuture(page(number(next)));
+    }
+
+    private CompletableFuture<PagedResult<Integer>> fetchLater(String next) {
+        requested.add(next);
+        CompletableFuture<PagedResult<Integer>> future = new CompletableFuture<>();
+        pending.put(next, future);
+        return future;
+    }
+
+    private static CompletableFuture<PagedResult<Integer>> failed(Throwable error) {
+        CompletableFuture<PagedResult<Integer>> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    private static List<Integer> all() {
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < PAGES * PER_PAGE; i++) {
+            all.add(i);
+        }
+        return all;
+    }
+
+    @Test
+    public void testInOrder() {
+        try (PageIterator<Integer> it = new PageIterator<>(
+            CompletableFuture.completedFuture(page(0)), this::fetchNow, 2)) {
+            assertEquals(all(), it.stream()
+                                  .collect(Collectors.toList()));
+            assertFalse(it.hasNext());
+        }
+        assertEquals(Arrays.asList("page1", "page2", "page3", "page4", "page5"), requested);
+    }
+
+    @Test
+    public void testPrefetchBound() {
+        for (int prefetch = 1; prefetch <= 3; prefetch++) {
+            requested.clear();
+            try (PageIterator<Integer> it = new PageIterator<>(
+                CompletableFuture.completedFuture(page(0)), this::fetchNow, prefetch)) {
+                // the first page counts towards the pages waiting to be read
+                assertEquals(prefetch - 1, requested.size());
+                int read = 0;
+                while (it.hasNext()) {
+                    int value = it.next();
+                    if (value % PER_PAGE == 0) {
+                        read++;
+                    }
+                    // pages fetched, including the first, less pages started
+                    assertTrue(1 + requested.size() - read <= prefetch);
+                }
+                assertEquals(PAGES, read);
+            }
+        }
+    }
+
+    @Test
+    public void testFetchesAfterPageArrives() {
+        try (PageIterator<Integer> it = new PageIterator<>(
+            CompletableFuture.completedFuture(page(0)), this::fetchLater, 3)) {
+            // the next URL is not known until the page before arrives
+            assertEquals(Collections.singletonList("page1"), requested);
+            pending.get("page1")
+                   .complete(page(1));
+            assertEquals(Arrays.asList("page1", "page2"), requested);
+            pending.get("page2")
+                   .complete(page(2));
+            // three pages waiting to be read
+            assertEquals(Arrays.asList("page1", "page2"), requested);
+            assertEquals(Integer.valueOf(0), it.next());
+            assertEquals(Arrays.asList("page1", "page2", "page3"), requested);
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        PageIterator<Integer> it = new PageIterator<>(CompletableFuture.completedFuture(page(0)),
+            next -> number(next) == 2
+                    ? failed(new SimbaException("Bad page",
+                SimbaException.SimbaError.HTTP_ERROR))
+                    : fetchNow(next), 2);
+        List<Integer> read = new ArrayList<>();
+        try {
+            while (it.hasNext()) {
+                read.add(it.next());
+            }
+            fail("expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause() instanceof SimbaException);
+            assertEquals(SimbaException.SimbaError.HTTP_ERROR,
+                ((SimbaException) e.getCause()).getType());
+        }
+        // the pages before the failed one were read in full
+        assertEquals(all().subList(0, 2 * PER_PAGE), read);
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void testOtherFailureWrapped() {
+        PageIterator<Integer> it = new PageIterator<>(
+            failed(new IllegalStateException("broken")), this::fetchNow, 2);
+        try {
+            it.hasNext();
+            fail("expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause()
+                        .getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testCloseCancels() {
+        PageIterator<Integer> it = new PageIterator<>(CompletableFuture.completedFuture(page(0)),
+            this::fetchLater, 3);
+        assertEquals(Integer.valueOf(0), it.next());
+        CompletableFuture<PagedResult<Integer>> page1 = pending.get("page1");
+        it.close();
+        assertTrue(page1.isCancelled());
+        // the rest of the page already read is still returned, but nothing after it
+        assertEquals(Integer.valueOf(1), it.next());
+        assertEquals(Integer.valueOf(2), it.next());
+        assertFalse(it.hasNext());
+        assertEquals(Collections.singletonList("page1"), requested);
+    }
+
+    @Test
+    public void testStreamCloseCancels() {
+        PageIterator<Integer> it = new PageIterator<>(CompletableFuture.completedFuture(page(0)),
+            this::fetchLater, 3);
+        it.stream()
+          .close();
+        assertTrue(pending.get("page1")
+                          .isCancelled());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import com.simbachain.simba.Query;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local evaluation of query parameters, as used by the local store.
+ */
+public class QueryTest {
+
+    private static Query.Param<?> param(Query.Params params) {
+        return params.getParams()
+                     .get(0);
+    }
+
+    @Test
+    public void testNumbers() {
+        assertTrue(param(Query.gt("n", 5)).test(6));
+        assertFalse(param(Query.gt("n", 5)).test(5));
+        assertTrue(param(Query.gte("n", 5)).test("5"));
+        assertTrue(param(Query.lt("n", 5)).test(4.5));
+        assertFalse(param(Query.lt("n", 5)).test(5));
+        assertTrue(param(Query.lte("n", 5)).test(5L));
+        assertTrue(param(Query.eq("n", 10)).test("10.0"));
+        assertTrue(param(Query.num("n", 10)).test(10));
+    }
+
+    @Test
+    public void testHexNumbers() {
+        assertTrue(param(Query.eq("n", 255)).test("0xff"));
+        assertTrue(param(Query.gt("n", 254)).test("0xff"));
+        assertFalse(param(Query.lt("n", 255)).test("0xff"));
+    }
+
+    @Test
+    public void testMissingOrNotNumbers() {
+        assertFalse(param(Query.gt("n", 5)).test(null));
+        assertFalse(param(Query.eq("n", 5)).test("five"));
+        assertFalse(param(Query.lte("n", 5)).test("0xzz"));
+    }
+
+    @Test
+    public void testStrings() {
+        assertTrue(param(Query.ex("s", "abc")).test("abc"));
+        assertFalse(param(Query.ex("s", "abc")).test("ABC"));
+        assertTrue(param(Query.str("s", "abc")).test("abc"));
+        assertTrue(param(Query.contains("s", "bc")).test("abcd"));
+        assertFalse(param(Query.contains("s", "BC")).test("abcd"));
+        assertTrue(param(Query.icontains("s", "BC")).test("abcd"));
+        assertFalse(param(Query.ex("s", "abc")).test(null));
+        assertFalse(param(Query.icontains("s", "abc")).test(null));
+    }
+
+    @Test
+    public void testIn() {
+        Query.Param<?> in = param(Query.in("s", Arrays.asList("a", "b")));
+        assertTrue(in.test("a"));
+        assertTrue(in.test("b"));
+        assertFalse(in.test("c"));
+        assertFalse(in.test("a,b"));
+        assertFalse(in.test(null));
+        assertFalse(param(Query.in("s", Collections.emptyList())).test("a"));
+    }
+
+    @Test
+    public void testBooleans() {
+        assertTrue(param(Query.is("b", true)).test(true));
+        assertTrue(param(Query.is("b", true)).test("true"));
+        assertFalse(param(Query.is("b", true)).test(false));
+        assertTrue(param(Query.bool("b", false)).test("false"));
+        assertFalse(param(Query.bool("b", false)).test(null));
+    }
+
+    @Test
+    public void testDateGte() {
+        // 2023-01-02T03:04:05 UTC
+        Query.Param<?> since = param(Query.gte("created_on", new Date(1672628645000L)));
+        assertEquals("2023-01-02T03:04:05", since.getValue());
+        assertTrue(since.test("2023-01-02T03:04:05"));
+        assertTrue(since.test("2023-01-02T03:04:06"));
+        assertFalse(since.test("2023-01-02T03:04:04"));
+        assertFalse(since.test(null));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.simbachain.simba.Manifest;
+import com.simbachain.simba.ManifestFile;
+import com.simbachain.simba.Parameter;
+import com.simbachain.simba.ResponseCache;
+import com.simbachain.simba.Transaction;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Caching of final transactions and manifests.
+ */
+public class ResponseCacheTest {
+
+    private static Transaction transaction(String id, Transaction.State state) {
+        Transaction txn = new Transaction();
+        txn.setId(id);
+        txn.setState(state);
+        txn.setMethod("transfer");
+        txn.setNonce(7);
+        txn.setCreated(new Date(1672531200123L));
+        txn.setApp("app");
+        Map<String, Object> receipt = new HashMap<>();
+        receipt.put("blockNumber", 12);
+        receipt.put("logs", new ArrayList<>(Collections.singletonList("log")));
+        txn.setReceipt(receipt);
+        Map<String, Parameter> parameters = new HashMap<>();
+        parameters.put("amount", new Parameter());
+        txn.setMethodParameters(parameters);
+        return txn;
+    }
+
+    @Test
+    public void testOnlyFinalTransactionsCached() {
+        ResponseCache cache = new ResponseCache();
+        for (Transaction.State state : Transaction.State.values()) {
+            cache.putTransaction(transaction(state.name(), state));
+        }
+        assertEquals(3, cache.getTransactionCount());
+        assertNotNull(cache.getTransaction(Transaction.State.COMPLETED.name()));
+        assertNotNull(cache.getTransaction(Transaction.State.FAILED.name()));
+        assertNotNull(cache.getTransaction(Transaction.State.TIMED_OUT.name()));
+        assertNull(cache.getTransaction(Transaction.State.SUBMITTED.name()));
+        assertNull(cache.getTransaction(Transaction.State.PENDING.name()));
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testEvictionCounted() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.putTransaction(transaction("t1", Transaction.State.COMPLETED));
+        cache.putTransaction(transaction("t2", Transaction.State.COMPLETED));
+        // t1 is now more recently used than t2
+        assertNotNull(cache.getTransaction("t1"));
+        cache.putTransaction(transaction("t3", Transaction.State.COMPLETED));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getTransactionCount());
+        assertNotNull(cache.getTransaction("t1"));
+        assertNull(cache.getTransaction("t2"));
+        assertNotNull(cache.getTransaction("t3"));
+    }
+
+    @Test
+    @SuppressWarnings ("unchecked")
+    public void testCopies() {
+        ResponseCache cache = new ResponseCache();
+        Transaction txn = transaction("t1", Transaction.State.COMPLETED);
+        cache.putTransaction(txn);
+        // changing the cached object after caching it does not change the cache
+        txn.setMethod("changed");
+
+        Transaction first = cache.getTransaction("t1");
+        assertNotSame(txn, first);
+        assertEquals("transfer", first.getMethod());
+        assertEquals(7, first.getNonce());
+        assertEquals(txn.getCreated(), first.getCreated());
+        assertEquals("app", first.getApp());
+        assertEquals(txn.getMethodParameters()
+                        .keySet(), first.getMethodParameters()
+                                        .keySet());
+        assertEquals("12", first.getBlock());
+
+        first.setMethod("mutated");
+        first.getCreated()
+             .setTime(0);
+        first.getReceipt()
+             .put("blockNumber", 13);
+        ((List<Object>) first.getReceipt()
+                             .get("logs")).add("another");
+        first.getMethodParameters()
+             .clear();
+
+        Transaction second = cache.getTransaction("t1");
+        assertNotSame(first, second);
+        assertEquals("transfer", second.getMethod());
+        assertEquals(1672531200123L, second.getCreated()
+                                           .getTime());
+        assertEquals("12", second.getBlock());
+        assertEquals(Collections.singletonList("log"), second.getReceipt()
+                                                             .get("logs"));
+        assertEquals(1, second.getMethodParameters()
+                              .size());
+    }
+
+    @Test
+    public void testNullReceipt() {
+        ResponseCache cache = new ResponseCache();
+        Transaction txn = transaction("t1", Transaction.State.COMPLETED);
+        txn.setReceipt(null);
+        cache.putTransaction(txn);
+        assertNull(cache.getTransaction("t1")
+                        .getReceipt());
+    }
+
+    @Test
+    public void testManifestCopies() {
+        ResponseCache cache = new ResponseCache();
+        Manifest manifest = new Manifest();
+        manifest.setHash("hash");
+        manifest.setTime(12);
+        ManifestFile file = new ManifestFile();
+        file.setName("file.txt");
+        file.setSize(100);
+        List<ManifestFile> files = new ArrayList<>();
+        files.add(file);
+        manifest.setFiles(files);
+        cache.putManifest(manifest);
+
+        Manifest first = cache.getManifest("hash");
+        assertNotSame(manifest, first);
+        assertEquals(12, first.getTime());
+        assertEquals("file.txt", first.getFiles()
+                                      .get(0)
+                                      .getName());
+        first.getFiles()
+             .get(0)
+             .setName("changed");
+        first.getFiles()
+             .clear();
+
+        Manifest second = cache.getManifest("hash");
+        assertEquals(1, second.getFiles()
+                              .size());
+        assertEquals("file.txt", second.getFiles()
+                                       .get(0)
+                                       .getName());
+        assertEquals(100, second.getFiles()
+                                .get(0)
+                                .getSize());
+        assertNull(cache.getManifest("other"));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.simbachain.SimbaException;
+import com.simbachain.wallet.Wallet;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.junit.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.utils.Numeric;
+
+import static org.junit.Assert.*;
+
+/**
+ * Signing with the precomputed table gives the same signed transactions as web3j.
+ */
+public class SigningTest {
+
+    private static final ECDomainParameters CURVE = new ECDomainParameters(
+        Sign.CURVE_PARAMS.getCurve(), Sign.CURVE_PARAMS.getG(), Sign.CURVE_PARAMS.getN(),
+        Sign.CURVE_PARAMS.getH());
+    private static final BigInteger N = CURVE.getN();
+    private static final long CHAIN_ID = 1337;
+    private static final int KEYS = 100;
+
+    private static class KeyWallet extends Wallet {
+
+        private final Credentials credentials;
+
+        private KeyWallet(Credentials credentials, boolean precomputed) {
+            this.credentials = credentials;
+            setPrecomputedSigning(precomputed);
+        }
+
+        @Override
+        protected Credentials getCredentials() {
+            return credentials;
+        }
+    }
+
+    private static Credentials credentials(Random random) {
+        BigInteger d;
+        do {
+            d = new BigInteger(256, random);
+        } while (d.signum() == 0 || d.compareTo(N) >= 0);
+        return Credentials.create(ECKeyPair.create(d));
+    }
+
+    private static String address(Random random) {
+        byte[] bytes = new byte[20];
+        random.nextBytes(bytes);
+        return Numeric.toHexString(bytes);
+    }
+
+    private static String data(Random random) {
+        byte[] bytes = new byte[random.nextInt(200)];
+        random.nextBytes(bytes);
+        return Numeric.toHexString(bytes);
+    }
+
+    private static RawTransaction legacy(Random random) {
+        return RawTransaction.createTransaction(BigInteger.valueOf(random.nextInt(1000)),
+            BigInteger.valueOf(random.nextInt(1_000_000_000)),
+            BigInteger.valueOf(21000 + random.nextInt(1_000_000)), address(random),
+            BigInteger.valueOf(random.nextInt(1000)), data(random));
+    }
+
+    private static RawTransaction eip1559(Random random) {
+        return RawTransaction.createTransaction(CHAIN_ID,
+            BigInteger.valueOf(random.nextInt(1000)),
+            BigInteger.valueOf(21000 + random.nextInt(1_000_000)), address(random),
+            BigInteger.valueOf(random.nextInt(1000)), data(random),
+            BigInteger.valueOf(random.nextInt(1_000_000)),
+            BigInteger.valueOf(1_000_000 + random.nextInt(1_000_000_000)));
+    }
+
+    /**
+     * Whether the plain ECDSA signature of the message has a high s, which signing negates.
+     */
+    private static boolean highS(byte[] message, Credentials credentials) {
+        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        signer.init(true, new ECPrivateKeyParameters(credentials.getEcKeyPair()
+                                                                .getPrivateKey(), CURVE));
+        BigInteger s = signer.generateSignature(Hash.sha3(message))[1];
+        return s.compareTo(N.shiftRight(1)) > 0;
+    }
+
+    @Test
+    public void testMatchesTransactionEncoder() throws SimbaException {
+        Random random = new Random(42);
+        int negated = 0;
+        int signed = 0;
+        for (int i = 0; i < KEYS; i++) {
+            Credentials credentials = credentials(random);
+            Wallet plain = new KeyWallet(credentials, false);
+            Wallet precomputed = new KeyWallet(credentials, true);
+
+            RawTransaction txn = legacy(random);
+            String expected = Numeric.toHexString(
+                TransactionEncoder.signMessage(txn, credentials));
+            assertEquals(expected, plain.sign(txn));
+            assertEquals(expected, precomputed.sign(txn));
+            negated += highS(TransactionEncoder.encode(txn), credentials) ? 1 : 0;
+
+            txn = legacy(random);
+            expected = Numeric.toHexString(
+                TransactionEncoder.signMessage(txn, CHAIN_ID, credentials));
+            assertEquals(expected, plain.sign(txn, CHAIN_ID));
+            assertEquals(expected, precomputed.sign(txn, CHAIN_ID));
+            negated += highS(TransactionEncoder.encode(txn, CHAIN_ID), credentials) ? 1 : 0;
+
+            txn = eip1559(random);
+            expected = Numeric.toHexString(
+                TransactionEncoder.signMessage(txn, CHAIN_ID, credentials));
+            assertEquals(expected, plain.sign(txn, CHAIN_ID));
+            assertEquals(expected, precomputed.sign(txn, CHAIN_ID));
+            assertEquals(Numeric.toHexString(TransactionEncoder.signMessage(txn, credentials)),
+                precomputed.sign(txn));
+            negated += highS(TransactionEncoder.encode(txn), credentials) ? 1 : 0;
+            signed += 3;
+        }
+        // both the canonical and the negated branches were compared
+        assertTrue(negated > 0);
+        assertTrue(negated < signed);
+    }
+
+    @Test
+    public void testSignAllKeepsOrder() throws SimbaException {
+        Random random = new Random(7);
+        Credentials credentials = credentials(random);
+        List<RawTransaction> txns = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            txns.add(i % 2 == 0 ? legacy(random) : eip1559(random));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (boolean on : new boolean[]{false, true}) {
+                Wallet wallet = new KeyWallet(credentials, on);
+                List<String> signed = wallet.signAll(txns, CHAIN_ID, pool);
+                assertEquals(txns.size(), signed.size());
+                for (int i = 0; i < txns.size(); i++) {
+                    assertEquals(wallet.sign(txns.get(i), CHAIN_ID), signed.get(i));
+                }
+                List<String> unchained = wallet.signAll(txns);
+                for (int i = 0; i < txns.size(); i++) {
+                    assertEquals(wallet.sign(txns.get(i)), unchained.get(i));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
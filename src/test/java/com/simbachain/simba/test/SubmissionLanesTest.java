@@ -0,0 +1,244 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simbachain.SimbaException;
+import com.simbachain.auth.plat.PlatConfig;
+import com.simbachain.simba.AppConfig;
+import com.simbachain.simba.CallResponse;
+import com.simbachain.simba.ContractService;
+import com.simbachain.simba.JsonData;
+import com.simbachain.simba.Metadata;
+import com.simbachain.simba.SimbaClient.UploadFile;
+import com.simbachain.simba.SubmissionLanes;
+import com.simbachain.simba.Transaction;
+import com.simbachain.wallet.Wallet;
+import org.apache.http.client.ResponseHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.ECKeyPair;
+
+import static org.junit.Assert.*;
+
+/**
+ * Calls made on submission lanes against a stub service whose POSTs take a while to return.
+ */
+public class SubmissionLanesTest {
+
+    private static final int SENDERS = 3;
+    private static final int CALLS = 10;
+
+    private static class KeyWallet extends Wallet {
+
+        private final Credentials credentials;
+
+        private KeyWallet(long key) {
+            this.credentials = Credentials.create(ECKeyPair.create(BigInteger.valueOf(key)));
+        }
+
+        @Override
+        protected Credentials getCredentials() {
+            return credentials;
+        }
+    }
+
+    private static class StubService extends ContractService {
+
+        private final ScheduledExecutorService server = Executors.newScheduledThreadPool(2);
+        private final List<String> calls = new ArrayList<>();
+        private final Map<String, AtomicInteger> posting = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile int maxInFlight;
+        private volatile int maxPerSender;
+
+        private StubService() {
+            super("http://localhost/", "contract",
+                new AppConfig("app", "org", new PlatConfig("id", "secret", "http://localhost/")));
+        }
+
+        @Override
+        protected void validateParameters(Metadata metadata,
+            String method,
+            JsonData parameters,
+            boolean files) {
+        }
+
+        private synchronized void record(String call) {
+            calls.add(call);
+        }
+
+        /**
+         * @return the IDs of a sender's calls of a kind, in the order they were made.
+         */
+        private synchronized List<String> calls(String kind, String sender) {
+            List<String> ids = new ArrayList<>();
+            for (String call : calls) {
+                if (call.startsWith(kind + " " + sender + "/")) {
+                    ids.add(call.substring(kind.length() + 1));
+                }
+            }
+            return ids;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <R> CompletableFuture<R> postAsync(String endpoint,
+            Map<String, Object> data,
+            ResponseHandler<R> handler,
+            Map<String, String> clientHeaders,
+            UploadFile... files) {
+            String sender = clientHeaders.get(Headers.HTTP_HEADER_SENDER.getValue());
+            String id = sender + "/" + data.get("n");
+            AtomicInteger lane = posting.computeIfAbsent(sender, s -> new AtomicInteger());
+            maxPerSender = Math.max(maxPerSender, lane.incrementAndGet());
+            maxInFlight = Math.max(maxInFlight, inFlight.incrementAndGet());
+            record("POST " + id);
+            Map<String, Object> raw = new HashMap<>();
+            raw.put("nonce", data.get("n"));
+            raw.put("gasPrice", 1);
+            raw.put("gas", 21000);
+            raw.put("to", "0x0000000000000000000000000000000000000001");
+            raw.put("data", "0x");
+            Transaction txn = new Transaction();
+            txn.setId(id);
+            txn.setState(Transaction.State.PENDING);
+            txn.setRawTransaction(raw);
+            CompletableFuture<R> posted = new CompletableFuture<>();
+            server.schedule(() -> {
+                lane.decrementAndGet();
+                inFlight.decrementAndGet();
+                record("POSTED " + id);
+                posted.complete((R) txn);
+            }, 20, TimeUnit.MILLISECONDS);
+            return posted;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <R> CompletableFuture<R> patchAsync(String endpoint,
+            Map<String, Object> data,
+            ResponseHandler<R> handler,
+            Map<String, String> clientHeaders) {
+            // the transaction ID is the last two segments of .../transactions/<sender>/<n>/
+            String[] path = endpoint.split("/");
+            String id = path[path.length - 2] + "/" + path[path.length - 1];
+            assertNotNull(data.get("transaction"));
+            record("PATCH " + id);
+            Transaction txn = new Transaction();
+            txn.setId(id);
+            txn.setState(Transaction.State.SUBMITTED);
+            return CompletableFuture.completedFuture((R) txn);
+        }
+    }
+
+    private StubService service;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        service = new StubService();
+        executor = Executors.newFixedThreadPool(4);
+        service.setSubmissionLanes(new SubmissionLanes(executor));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        service.server.shutdownNow();
+    }
+
+    @Test
+    public void testOrderedPerSender() throws Exception {
+        List<String> senders = new ArrayList<>();
+        for (int s = 0; s < SENDERS; s++) {
+            Wallet wallet = new KeyWallet(s + 1);
+            service.setWallet(wallet);
+            senders.add(wallet.getAddress());
+        }
+        List<CompletableFuture<CallResponse>> results = new ArrayList<>();
+        for (int n = 0; n < CALLS; n++) {
+            for (String sender : senders) {
+                Map<String, String> headers = new HashMap<>();
+                headers.put(ContractService.Headers.HTTP_HEADER_SENDER.getValue(), sender);
+                results.add(service.callMethodAsync("method", JsonData.with("n", n), headers));
+            }
+        }
+        for (CompletableFuture<CallResponse> result : results) {
+            assertEquals(Transaction.State.SUBMITTED.toString(), result.get(10, TimeUnit.SECONDS)
+                                                                       .getStatus());
+        }
+
+        for (String sender : senders) {
+            List<String> expected = new ArrayList<>();
+            for (int n = 0; n < CALLS; n++) {
+                expected.add(sender + "/" + n);
+            }
+            assertEquals(expected, service.calls("POST", sender));
+            assertEquals(expected, service.calls("PATCH", sender));
+            // each PATCH follows its own POST
+            List<String> all = service.calls;
+            for (String id : expected) {
+                assertTrue(all.indexOf("POSTED " + id) < all.indexOf("PATCH " + id));
+            }
+        }
+        // one POST at a time per sender, while different senders overlap
+        assertEquals(1, service.maxPerSender);
+        assertTrue(service.maxInFlight > 1);
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        Wallet wallet = new KeyWallet(1);
+        service.setWallet(wallet);
+        Map<String, String> headers = new HashMap<>();
+        headers.put(ContractService.Headers.HTTP_HEADER_SENDER.getValue(), wallet.getAddress());
+        List<CompletableFuture<CallResponse>> results = new ArrayList<>();
+        for (int n = 0; n < CALLS; n++) {
+            results.add(service.callMethodAsync("method", JsonData.with("n", n), headers));
+        }
+        for (CompletableFuture<CallResponse> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        SubmissionLanes.LaneStats stats = service.getSubmissionLanes()
+                                                 .getStats(wallet.getAddress());
+        assertEquals(CALLS, stats.getSubmitted());
+        assertEquals(CALLS, stats.getCompleted());
+        assertEquals(0, stats.getDepth());
+        assertTrue(stats.getThroughput() > 0);
+        // ten calls of at least 20ms each, made one after the other
+        assertTrue(stats.getThroughput() < 1000.0 / 20);
+    }
+}
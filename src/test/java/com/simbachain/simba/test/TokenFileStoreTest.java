@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.simbachain.auth.AccessToken;
+import com.simbachain.auth.TokenFileStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * The token file shared by processes using the same client ID.
+ */
+public class TokenFileStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path dir;
+    private TokenFileStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = folder.getRoot()
+                    .toPath()
+                    .resolve("tokens");
+        store = TokenFileStore.forClient(dir, "client");
+    }
+
+    private static AccessToken token(String value) {
+        return new AccessToken(value, "Bearer", new Date(System.currentTimeMillis() + 60000));
+    }
+
+    private long files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testForClient() throws IOException {
+        assertTrue(Files.isDirectory(dir));
+        assertEquals(dir.resolve("client_token.json")
+                        .toAbsolutePath(), store.getTokenFile());
+        assertSame(store, TokenFileStore.forClient(dir, "client"));
+        assertNotSame(store, TokenFileStore.forClient(dir, "other"));
+    }
+
+    @Test
+    public void testReadMissing() throws IOException {
+        assertNull(store.read());
+        assertNull(store.read(true));
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        store.write(token("one"));
+        AccessToken read = store.read();
+        assertEquals("one", read.getToken());
+        assertEquals("Bearer", read.getType());
+        // the temporary file was moved over the token file
+        assertEquals(1, files());
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        store.write(token("one"));
+        AccessToken first = store.read();
+        assertSame(first, store.read());
+        AccessToken reloaded = store.read(true);
+        assertNotSame(first, reloaded);
+        assertEquals("one", reloaded.getToken());
+    }
+
+    @Test
+    public void testReplaced() throws IOException {
+        store.write(token("one"));
+        assertEquals("one", store.read()
+                                 .getToken());
+        // a different size is seen as a replacement however coarse the modification time
+        store.write(token("another"));
+        assertEquals("another", store.read()
+                                     .getToken());
+    }
+
+    @Test
+    public void testLock() throws Exception {
+        TokenFileStore.Lock lock = store.lock();
+        assertTrue(Files.exists(dir.resolve("client_token.json.lock")));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            started.countDown();
+            try {
+                store.lock()
+                     .close();
+                locked.countDown();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        other.start();
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertFalse(locked.await(200, TimeUnit.MILLISECONDS));
+        } finally {
+            lock.close();
+        }
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        other.join();
+        store.lock()
+             .close();
+    }
+}
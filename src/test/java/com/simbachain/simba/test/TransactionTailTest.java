@@ -0,0 +1,187 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.simbachain.simba.test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.simbachain.SimbaException;
+import com.simbachain.auth.plat.PlatConfig;
+import com.simbachain.simba.AppConfig;
+import com.simbachain.simba.ContractService;
+import com.simbachain.simba.PageIterator;
+import com.simbachain.simba.PagedResult;
+import com.simbachain.simba.Query;
+import com.simbachain.simba.SimbaClient;
+import com.simbachain.simba.Transaction;
+import com.simbachain.simba.TransactionTail;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tailing transactions from a stub service that returns every transaction on each poll.
+ */
+public class TransactionTailTest {
+
+    private static final long START = 1672531200000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static class StubService extends ContractService {
+
+        private final List<Transaction> transactions = new ArrayList<>();
+
+        private StubService() {
+            super("http://localhost/", "contract",
+                new AppConfig("app", "org", new PlatConfig("id", "secret", "http://localhost/")));
+            setResponseCache(null);
+        }
+
+        @Override
+        public PageIterator<Transaction> iterateTransactions(Query.Params params) {
+            PagedResult<Transaction> page = new PagedResult<>();
+            page.setResults(new ArrayList<>(transactions));
+            page.setCount(transactions.size());
+            return new PageIterator<>(CompletableFuture.completedFuture(page),
+                next -> SimbaClient.failed(new IllegalStateException(next)), 1);
+        }
+
+        @Override
+        public CompletableFuture<List<Transaction>> getTransactionsAsync(
+            Collection<String> txnIds) {
+            List<Transaction> found = new ArrayList<>();
+            for (Transaction txn : transactions) {
+                if (txnIds.contains(txn.getId())) {
+                    found.add(txn);
+                }
+            }
+            return CompletableFuture.completedFuture(found);
+        }
+
+        private Transaction transaction(String id, Integer second, Transaction.State state) {
+            Transaction txn = new Transaction();
+            txn.setId(id);
+            txn.setState(state);
+            txn.setCreated(second == null ? null : new Date(START + second * 1000L));
+            transactions.add(txn);
+            return txn;
+        }
+    }
+
+    private StubService service;
+    private Path checkpoint;
+
+    @Before
+    public void setUp() {
+        service = new StubService();
+        checkpoint = folder.getRoot()
+                           .toPath()
+                           .resolve("txns.checkpoint");
+    }
+
+    private static List<String> ids(List<Transaction> txns) {
+        List<String> ids = new ArrayList<>();
+        for (Transaction txn : txns) {
+            ids.add(txn.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testOnlyNew() throws SimbaException {
+        service.transaction("t2", 2, Transaction.State.COMPLETED);
+        service.transaction("t1", 1, Transaction.State.COMPLETED);
+        TransactionTail tail = service.tailTransactions(checkpoint);
+        assertNull(tail.getCursor());
+        assertEquals(Arrays.asList("t1", "t2"), ids(tail.poll()));
+        assertEquals(new Date(START + 2000), tail.getCursor());
+        assertTrue(tail.poll()
+                       .isEmpty());
+
+        // same second as the cursor, but not yet seen
+        service.transaction("t3", 2, Transaction.State.COMPLETED);
+        service.transaction("t4", 3, Transaction.State.COMPLETED);
+        assertEquals(Arrays.asList("t3", "t4"), ids(tail.poll()));
+        assertTrue(tail.poll()
+                       .isEmpty());
+    }
+
+    @Test
+    public void testNoCreationTimeNotRedelivered() throws SimbaException {
+        service.transaction("t1", 1, Transaction.State.COMPLETED);
+        service.transaction("undated", null, Transaction.State.COMPLETED);
+        TransactionTail tail = service.tailTransactions(checkpoint);
+        assertEquals(Collections.singletonList("t1"), ids(tail.poll()));
+        assertTrue(tail.poll()
+                       .isEmpty());
+        assertTrue(tail.poll()
+                       .isEmpty());
+    }
+
+    @Test
+    public void testPendingReturnedOnChange() throws SimbaException {
+        Transaction txn = service.transaction("t1", 1, Transaction.State.SUBMITTED);
+        TransactionTail tail = service.tailTransactions(checkpoint);
+        assertEquals(1, tail.poll()
+                            .size());
+        assertTrue(tail.getPending()
+                       .contains("t1"));
+        assertTrue(tail.poll()
+                       .isEmpty());
+
+        txn.setState(Transaction.State.COMPLETED);
+        assertEquals(Collections.singletonList("t1"), ids(tail.poll()));
+        assertTrue(tail.getPending()
+                       .isEmpty());
+        assertTrue(tail.poll()
+                       .isEmpty());
+    }
+
+    @Test
+    public void testResumeFromCommit() throws SimbaException {
+        service.transaction("t1", 1, Transaction.State.COMPLETED);
+        service.transaction("t2", 1, Transaction.State.COMPLETED);
+        TransactionTail tail = service.tailTransactions(checkpoint);
+        assertEquals(2, tail.poll()
+                            .size());
+        tail.commit();
+
+        service.transaction("t3", 1, Transaction.State.COMPLETED);
+        TransactionTail resumed = service.tailTransactions(checkpoint);
+        assertEquals(new Date(START + 1000), resumed.getCursor());
+        assertEquals(Collections.singletonList("t3"), ids(resumed.poll()));
+
+        // not committed, so returned again after a restart
+        TransactionTail restarted = service.tailTransactions(checkpoint);
+        assertEquals(Collections.singletonList("t3"), ids(restarted.poll()));
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023 SIMBA Chain Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software
+ * is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF
+ * CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.simbachain.simba.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.simbachain.auth.plat.PlatConfig;
+import com.simbachain.simba.AppConfig;
+import com.simbachain.simba.ContractService;
+import com.simbachain.simba.SimbaClient;
+import com.simbachain.simba.Transaction;
+import com.simbachain.simba.TransactionTracker;
+import org.apache.http.client.HttpResponseException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Waiting for transactions against a service whose transaction states the test sets.
+ */
+public class TransactionTrackerTest {
+
+    private static class StubService extends ContractService {
+
+        private final Map<String, Transaction.State> states = new ConcurrentHashMap<>();
+        private final AtomicInteger gets = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private volatile boolean hang;
+        private volatile boolean unfiltered;
+        private volatile int batchStatus;
+
+        private StubService() {
+            super("http://localhost/", "contract",
+                new AppConfig("app", "org", new PlatConfig("id", "secret", "http://localhost/")));
+            setResponseCache(null);
+        }
+
+        private Transaction txn(String id) {
+            Transaction txn = new Transaction();
+            txn.setId(id);
+            txn.setState(states.getOrDefault(id, Transaction.State.PENDING));
+            return txn;
+        }
+
+        @Override
+        public CompletableFuture<Transaction> getTransactionAsync(String txnId) {
+            gets.incrementAndGet();
+            if (hang) {
+                return new CompletableFuture<>();
+            }
+            return CompletableFuture.completedFuture(txn(txnId));
+        }
+
+        @Override
+        public CompletableFuture<List<Transaction>> getTransactionsAsync(
+            Collection<String> txnIds) {
+            batches.incrementAndGet();
+            if (batchStatus != 0) {
+                return SimbaClient.failed(new HttpResponseException(batchStatus, "rejected"));
+            }
+            List<Transaction> txns = new ArrayList<>();
+            for (String txnId : txnIds) {
+                txns.add(txn(txnId));
+            }
+            if (unfiltered) {
+                txns.add(txn("unrequested"));
+            }
+            return CompletableFuture.completedFuture(txns);
+        }
+    }
+
+    private ScheduledExecutorService scheduler;
+    private StubService service;
+    private TransactionTracker tracker;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        service = new StubService();
+        tracker = new TransactionTracker(service, scheduler, 10, 50);
+    }
+
+    @After
+    public void tearDown() {
+        tracker.close();
+        scheduler.shutdownNow();
+    }
+
+    private List<CompletableFuture<Transaction>> track(int count, long timeout) {
+        List<CompletableFuture<Transaction>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(tracker.track("t" + i, Transaction.State.COMPLETED, 20, timeout));
+        }
+        return futures;
+    }
+
+    private void completeAll(int count) {
+        for (int i = 0; i < count; i++) {
+            service.states.put("t" + i, Transaction.State.COMPLETED);
+        }
+    }
+
+    @Test
+    public void testCompleted() throws Exception {
+        List<CompletableFuture<Transaction>> futures = track(3, 10000);
+        Thread.sleep(100);
+        assertFalse(futures.get(0)
+                           .isDone());
+        completeAll(3);
+        for (CompletableFuture<Transaction> future : futures) {
+            assertEquals(Transaction.State.COMPLETED, future.get(5, TimeUnit.SECONDS)
+                                                            .getState());
+        }
+        assertEquals(0, tracker.getPendingCount());
+    }
+
+    @Test
+    public void testFailedEndsWait() throws Exception {
+        CompletableFuture<Transaction> future = tracker.track("t0", Transaction.State.COMPLETED,
+            20, 10000);
+        service.states.put("t0", Transaction.State.FAILED);
+        assertEquals(Transaction.State.FAILED, future.get(5, TimeUnit.SECONDS)
+                                                     .getState());
+    }
+
+    @Test
+    public void testDeadlineReturnsLast() throws Exception {
+        CompletableFuture<Transaction> future = tracker.track("t0", Transaction.State.COMPLETED,
+            20, 300);
+        Transaction last = future.get(5, TimeUnit.SECONDS);
+        assertEquals(Transaction.State.PENDING, last.getState());
+    }
+
+    @Test
+    public void testDeadlineWithHungRequest() throws Exception {
+        service.hang = true;
+        long start = System.currentTimeMillis();
+        CompletableFuture<Transaction> future = tracker.track("t0", Transaction.State.COMPLETED,
+            20, 300);
+        assertNull(future.get(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(1, service.gets.get());
+        assertEquals(0, tracker.getPendingCount());
+    }
+
+    @Test
+    public void testBatched() throws Exception {
+        List<CompletableFuture<Transaction>> futures = track(3, 10000);
+        Thread.sleep(150);
+        completeAll(3);
+        for (CompletableFuture<Transaction> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertTrue(service.batches.get() > 1);
+    }
+
+    @Test
+    public void testUnfilteredDisablesBatching() throws Exception {
+        service.unfiltered = true;
+        List<CompletableFuture<Transaction>> futures = track(3, 10000);
+        Thread.sleep(150);
+        completeAll(3);
+        for (CompletableFuture<Transaction> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, service.batches.get());
+    }
+
+    @Test
+    public void testClientErrorDisablesBatching() throws Exception {
+        service.batchStatus = 400;
+        List<CompletableFuture<Transaction>> futures = track(3, 10000);
+        Thread.sleep(150);
+        completeAll(3);
+        for (CompletableFuture<Transaction> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, service.batches.get());
+    }
+
+    @Test
+    public void testServerErrorKeepsBatching() throws Exception {
+        service.batchStatus = 503;
+        List<CompletableFuture<Transaction>> futures = track(3, 10000);
+        Thread.sleep(150);
+        completeAll(3);
+        for (CompletableFuture<Transaction> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertTrue(service.batches.get() > 1);
+    }
+}